@@ -573,9 +573,13 @@ public abstract class AbstractControllerService implements Service<ModelControll
                     stopAsynchronous(context);
                 } finally {
                     try {
-                        authorizer.shutdown();
+                        auditLogger.shutdown();
                     } finally {
-                        context.complete();
+                        try {
+                            authorizer.shutdown();
+                        } finally {
+                            context.complete();
+                        }
                     }
                 }
             }
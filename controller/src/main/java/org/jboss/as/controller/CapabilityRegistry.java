@@ -84,6 +84,25 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
     private final CapabilityRegistry publishedFullRegistry;
     private boolean modified = false;
 
+    // Keys of the entries a shadow copy changed since it was last published or rolled back. Only those
+    // entries need to be copied to or from the published registry
+    private final Set<CapabilityId> changedCapabilities = new HashSet<>();
+    private final Set<CapabilityId> changedRequirements = new HashSet<>();
+    private final Set<CapabilityId> changedPossibleCapabilities = new HashSet<>();
+    // Set when the changes can't be tracked by key, so the whole registry must be copied
+    private boolean copyAll;
+    // Count of changes made to a published registry other than by publishing a shadow copy
+    private volatile int directModifications;
+    // The published registry's directModifications when a shadow copy was last synchronized with it
+    private int publishedDirectModifications;
+    // Whether all requirements were satisfied when resolved, with no changes since
+    private boolean resolvedValid;
+    // Whether all requirements in the published registry were satisfied when it was last synchronized
+    private boolean publishedValid;
+    // Dependents with a requirement, keyed by the id of the capability that would satisfy it on a server.
+    // Built lazily by a shadow copy, for incremental resolution
+    private Map<CapabilityId, Set<CapabilityId>> requiringDependents;
+
     public CapabilityRegistry(boolean forServer) {
         this(forServer, null);
     }
@@ -107,6 +126,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             try {
                 result.writeLock.lock();
                 copy(this, result);
+                result.publishedDirectModifications = directModifications;
             } finally {
                 result.writeLock.unlock();
             }
@@ -163,6 +183,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             } else {
                 capabilities.put(capabilityId, capabilityRegistration);
             }
+            changed(changedCapabilities, capabilityId);
 
             // Add any hard requirements
             for (String req : capabilityRegistration.getCapability().getRequirements()) {
@@ -223,9 +244,13 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         RuntimeRequirementRegistration existing = dependents.get(requirement.getRequiredName());
         if (existing == null) {
             dependents.put(requirement.getRequiredName(), requirement);
+            if (!requirement.isRuntimeOnly()) {
+                indexRequirement(dependentId, requirement.getRequiredName());
+            }
         } else {
             existing.addRegistrationPoint(requirement.getOldestRegistrationPoint());
         }
+        changed(changedRequirements, dependentId);
         modified = true;
     }
 
@@ -268,12 +293,19 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
                 if (candidate.removeRegistrationPoint(rp)) {
+                    changed(changedCapabilities, capabilityId);
 
                     Map<String, RuntimeRequirementRegistration> removedRequirements = null;
                     if (candidate.getRegistrationPointCount() == 0) {
                         removed = capabilities.remove(capabilityId);
                         removedRequirements = requirements.remove(capabilityId);
                         runtimeOnlyRequirements.remove(capabilityId);
+                        if (removedRequirements != null) {
+                            for (String req : removedRequirements.keySet()) {
+                                unindexRequirement(capabilityId, req);
+                            }
+                        }
+                        changed(changedRequirements, capabilityId);
                     } else {
                         // There are still registration points for this capability.
                         // So just remove the requirements for this registration point
@@ -332,10 +364,14 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 rrr.removeRegistrationPoint(requirementRegistration.getOldestRegistrationPoint());
                 if (rrr.getRegistrationPointCount() == 0) {
                     result = dependents.remove(requirementRegistration.getRequiredName());
+                    if (!optional) {
+                        unindexRequirement(requirementRegistration.getDependentId(), requirementRegistration.getRequiredName());
+                    }
                 }
                 if (dependents.size() == 0) {
                     requirementMap.remove(requirementRegistration.getDependentId());
                 }
+                changed(changedRequirements, requirementRegistration.getDependentId());
                 modified = true;
             }
         }
@@ -577,6 +613,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 return currentRegistration;
             });
             possibleCapabilities.putIfAbsent(capabilityId, capabilityRegistration);
+            changed(changedPossibleCapabilities, capabilityId);
             modified = true;
         } finally {
             writeLock.unlock();
@@ -602,6 +639,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             if (candidate != null) {
                 RegistrationPoint rp = new RegistrationPoint(registrationPoint, null);
                 if (candidate.removeRegistrationPoint(rp)) {
+                    changed(changedPossibleCapabilities, capabilityId);
                     if (candidate.getRegistrationPointCount() == 0) {
                         removed = possibleCapabilities.remove(capabilityId);
                     } else {
@@ -746,8 +784,13 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             }
             publishedFullRegistry.writeLock.lock();
             try {
-                publishedFullRegistry.clear(true);
-                copy(this, publishedFullRegistry);
+                if (isSynchronizedByKey()) {
+                    copyChanges(this, publishedFullRegistry);
+                } else {
+                    publishedFullRegistry.clear(true);
+                    copy(this, publishedFullRegistry);
+                }
+                synchronizedWithPublished(resolvedValid);
                 pendingRemoveCapabilities.clear();
                 pendingRemoveRequirements.clear();
                 modified = false;
@@ -770,8 +813,16 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         try {
             publishedFullRegistry.readLock.lock();
             try {
-                clear(true);
-                copy(publishedFullRegistry, this);
+                if (isSynchronizedByKey()) {
+                    pendingRemoveCapabilities.clear();
+                    pendingRemoveRequirements.clear();
+                    copyChanges(publishedFullRegistry, this);
+                    synchronizedWithPublished(publishedValid);
+                } else {
+                    clear(true);
+                    copy(publishedFullRegistry, this);
+                    synchronizedWithPublished(false);
+                }
                 modified = false;
             } finally {
                 publishedFullRegistry.readLock.unlock();
@@ -790,8 +841,136 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
         }
     }
 
+    /**
+     * Records a change to an entry. Must be called with the write lock held.
+     *
+     * @param changedKeys the keys of the changed entries of the map the entry belongs to
+     * @param key the key of the entry
+     */
+    private void changed(Set<CapabilityId> changedKeys, CapabilityId key) {
+        if (publishedFullRegistry == null) {
+            directModifications++;
+        } else {
+            changedKeys.add(key);
+        }
+        resolvedValid = false;
+    }
+
+    /**
+     * Gets whether this shadow copy differs from the published registry only in the entries it recorded as changed.
+     * Must be called with the locks of both registries held.
+     */
+    private boolean isSynchronizedByKey() {
+        return !copyAll && publishedDirectModifications == publishedFullRegistry.directModifications;
+    }
+
+    /**
+     * Resets change tracking once this shadow copy matches the published registry. Must be called with the
+     * locks of both registries held.
+     *
+     * @param valid whether all requirements are known to be satisfied
+     */
+    private void synchronizedWithPublished(boolean valid) {
+        changedCapabilities.clear();
+        changedRequirements.clear();
+        changedPossibleCapabilities.clear();
+        copyAll = false;
+        publishedDirectModifications = publishedFullRegistry.directModifications;
+        publishedValid = valid;
+        resolvedValid = valid;
+    }
+
+    /**
+     * Copies the entries this shadow copy recorded as changed from {@code source} to {@code target}, along with
+     * the small sets that are not tracked by key.
+     */
+    private void copyChanges(CapabilityRegistry source, CapabilityRegistry target) {
+        assert target.writeLock.isHeldByCurrentThread();
+        for (CapabilityId id : changedCapabilities) {
+            RuntimeCapabilityRegistration registration = source.capabilities.get(id);
+            if (registration == null) {
+                target.capabilities.remove(id);
+            } else {
+                target.capabilities.put(id, new RuntimeCapabilityRegistration(registration));
+            }
+        }
+        for (CapabilityId id : changedRequirements) {
+            target.unindexRequirements(id, target.requirements.get(id));
+            copyRequirements(id, source.requirements, target.requirements);
+            copyRequirements(id, source.runtimeOnlyRequirements, target.runtimeOnlyRequirements);
+            target.indexRequirements(id, target.requirements.get(id));
+        }
+        for (CapabilityId id : changedPossibleCapabilities) {
+            CapabilityRegistration<?> registration = source.possibleCapabilities.get(id);
+            if (registration == null) {
+                target.possibleCapabilities.remove(id);
+            } else {
+                target.possibleCapabilities.put(id, new CapabilityRegistration<>(registration));
+            }
+        }
+        target.reloadCapabilities.clear();
+        target.reloadCapabilities.addAll(source.reloadCapabilities);
+        target.restartCapabilities.clear();
+        target.restartCapabilities.addAll(source.restartCapabilities);
+        if (!forServer) {
+            target.knownContexts.addAll(source.knownContexts);
+        }
+        target.resolutionContext.copy(source.resolutionContext);
+    }
+
+    private static void copyRequirements(CapabilityId id, Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> source,
+                                         Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> dest) {
+        Map<String, RuntimeRequirementRegistration> requirements = source.get(id);
+        if (requirements == null) {
+            dest.remove(id);
+        } else {
+            Map<String, RuntimeRequirementRegistration> mapCopy = new HashMap<>();
+            for (Map.Entry<String, RuntimeRequirementRegistration> entry : requirements.entrySet()) {
+                mapCopy.put(entry.getKey(), new RuntimeRequirementRegistration(entry.getValue()));
+            }
+            dest.put(id, mapCopy);
+        }
+    }
+
+    private void indexRequirement(CapabilityId dependentId, String requiredName) {
+        if (requiringDependents != null) {
+            CapabilityId requiredId = new CapabilityId(requiredName, dependentId.getScope());
+            requiringDependents.computeIfAbsent(requiredId, k -> new HashSet<>()).add(dependentId);
+        }
+    }
+
+    private void unindexRequirement(CapabilityId dependentId, String requiredName) {
+        if (requiringDependents != null) {
+            CapabilityId requiredId = new CapabilityId(requiredName, dependentId.getScope());
+            Set<CapabilityId> dependents = requiringDependents.get(requiredId);
+            if (dependents != null) {
+                dependents.remove(dependentId);
+                if (dependents.isEmpty()) {
+                    requiringDependents.remove(requiredId);
+                }
+            }
+        }
+    }
+
+    private void indexRequirements(CapabilityId dependentId, Map<String, RuntimeRequirementRegistration> dependentRequirements) {
+        if (dependentRequirements != null) {
+            for (String requiredName : dependentRequirements.keySet()) {
+                indexRequirement(dependentId, requiredName);
+            }
+        }
+    }
+
+    private void unindexRequirements(CapabilityId dependentId, Map<String, RuntimeRequirementRegistration> dependentRequirements) {
+        if (dependentRequirements != null) {
+            for (String requiredName : dependentRequirements.keySet()) {
+                unindexRequirement(dependentId, requiredName);
+            }
+        }
+    }
+
     private void copy(CapabilityRegistry source, CapabilityRegistry target) {
         assert target.writeLock.isHeldByCurrentThread();
+        target.requiringDependents = null;
         copyCapabilities(source.capabilities, target.capabilities);
         for (Map.Entry<CapabilityId, CapabilityRegistration<?>> entry : source.possibleCapabilities.entrySet()) {
             target.possibleCapabilities.put(entry.getKey(), new CapabilityRegistration<>(entry.getValue()));
@@ -810,7 +989,18 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
      * Clears capability registry
      */
     void clear() {
-        clear(false);
+        writeLock.lock();
+        try {
+            clear(false);
+            if (publishedFullRegistry == null) {
+                directModifications++;
+            } else {
+                copyAll = true;
+            }
+            resolvedValid = false;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     private void clear(boolean restartRequired) {
@@ -826,6 +1016,7 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
             if (restartRequired) {
                 restartCapabilities.clear();
             }
+            requiringDependents = null;
             modified = true;
         } finally {
             writeLock.unlock();
@@ -834,18 +1025,40 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
 
 
     CapabilityValidation resolveCapabilities(Resource rootResource, boolean hostXmlOnly) {
+        return resolveCapabilities(rootResource, hostXmlOnly, false);
+    }
+
+    /**
+     * Compares the registered requirements to the registered capabilities.
+     *
+     * @param rootResource the root resource of the model
+     * @param hostXmlOnly {@code true} if a Host Controller boot is occurring and only host model data is present
+     * @param incremental {@code true} if, when the published registry's requirements were all satisfied, only
+     *                    the requirements this shadow copy may have broken since then need to be checked. Only
+     *                    used for a server, where resolving a requirement does not depend on the model
+     * @return a validation result object. Will not return {@code null}
+     */
+    CapabilityValidation resolveCapabilities(Resource rootResource, boolean hostXmlOnly, boolean incremental) {
         readLock.lock();
         try {
             resolutionContext.setRootResource(rootResource);
             assert resolutionContext.rootResource != null;
             Map<CapabilityId, Set<RuntimeRequirementRegistration>> missing = new HashMap<>();
 
+            final Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> toResolve;
+            if (incremental && forServer && !hostXmlOnly && publishedFullRegistry != null
+                    && publishedValid && isSynchronizedByKey()) {
+                toResolve = getChangedRequirements();
+            } else {
+                toResolve = requirements;
+            }
+
             // Vars for tracking inconsistent contexts
             boolean isInconsistent = false;
             Map<CapabilityScope, Set<RuntimeRequirementRegistration>> requiresConsistency = null;
             Map<CapabilityScope, Set<CapabilityScope>> consistentSets = null;
 
-            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : requirements.entrySet()) {
+            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : toResolve.entrySet()) {
                 CapabilityId dependentId = entry.getKey();
                 String dependentName = dependentId.getName();
                 CapabilityScope dependentContext = dependentId.getScope();
@@ -901,12 +1114,44 @@ public final class CapabilityRegistry implements ImmutableCapabilityRegistry, Po
                 return new CapabilityValidation(missing, null, resolutionContext);
             }
 
+            resolvedValid = true;
             return CapabilityValidation.OK;
         } finally {
             readLock.unlock();
         }
     }
 
+    /**
+     * Gets the requirements that changes since this shadow copy was synchronized with the published registry
+     * may have left unsatisfied: those of dependents whose requirements changed and those satisfied by a
+     * capability that was removed.
+     */
+    private Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> getChangedRequirements() {
+        if (requiringDependents == null) {
+            requiringDependents = new HashMap<>();
+            for (Map.Entry<CapabilityId, Map<String, RuntimeRequirementRegistration>> entry : requirements.entrySet()) {
+                indexRequirements(entry.getKey(), entry.getValue());
+            }
+        }
+        Set<CapabilityId> dependents = new HashSet<>(changedRequirements);
+        for (CapabilityId id : changedCapabilities) {
+            if (!capabilities.containsKey(id)) {
+                Set<CapabilityId> requiring = requiringDependents.get(id);
+                if (requiring != null) {
+                    dependents.addAll(requiring);
+                }
+            }
+        }
+        Map<CapabilityId, Map<String, RuntimeRequirementRegistration>> result = new HashMap<>();
+        for (CapabilityId dependentId : dependents) {
+            Map<String, RuntimeRequirementRegistration> dependentRequirements = requirements.get(dependentId);
+            if (dependentRequirements != null) {
+                result.put(dependentId, dependentRequirements);
+            }
+        }
+        return result;
+    }
+
     private void recordConsistentSets(Map<CapabilityScope, Set<RuntimeRequirementRegistration>> requiresConsistency, Map<CapabilityScope, Set<CapabilityScope>> consistentSets, CapabilityScope dependentContext, Set<CapabilityScope> consistentSet, RuntimeRequirementRegistration req, SatisfactoryCapability satisfactory, CapabilityScope reqDependent) {
         Set<RuntimeRequirementRegistration> requiresForDependent = requiresConsistency.get(reqDependent);
         if (requiresForDependent == null) {
@@ -109,6 +109,18 @@ public interface ModelController {
     @Deprecated
     NotificationHandlerRegistration getNotificationRegistry();
 
+    /**
+     * Gets the generation of the currently published management model. The generation increases every time
+     * a modified model is published, so a caller that reads the same generation before and after reading the
+     * model knows that the persistent configuration has not changed in between. Runtime state, and the state of
+     * any remote process the model proxies to, is not covered.
+     *
+     * @return the generation, or {@code -1} if this controller does not track it
+     */
+    default long getModelGeneration() {
+        return -1;
+    }
+
     /**
      * A callback interface for the operation's completion status.  Implemented in order to control whether a complete
      * operation is committed or rolled back after it is prepared.
@@ -25,6 +25,7 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACTIVE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTACHED_STREAMS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CALLER_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
@@ -39,6 +40,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UUID;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
@@ -62,6 +64,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -81,6 +84,7 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.notification.NotificationSupport;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
 import org.jboss.as.controller.registry.DelegatingResource;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -118,6 +122,8 @@ class ModelControllerImpl implements ModelController {
     private final ModelControllerLock controllerLock = new ModelControllerLock();
     private final ContainerStateMonitor stateMonitor;
     private final AtomicReference<ManagementModelImpl> managementModel = new AtomicReference<>();
+    // Incremented after each publication of managementModel
+    private final AtomicLong modelGeneration = new AtomicLong();
     private final ConfigurationPersister persister;
     private final ProcessType processType;
     private final RunningModeControl runningModeControl;
@@ -394,13 +400,19 @@ class ModelControllerImpl implements ModelController {
             return handleExternalRequestDuringBoot();
         }
 
+        // Read-only operations execute against a snapshot of the current model, so they need not wait for the
+        // controller lock to get a consistent view
+        final ManagementModelImpl currentModel = managementModel.get();
+        final boolean snapshotRead = isSnapshotRead(operation, currentModel);
+        final ManagementModelImpl contextModel = snapshotRead ? currentModel.snapshot() : currentModel;
+
         for (;;) {
             responseStreams = null;
             // Create a random operation-id
             final Integer operationID = random.nextInt();
             final OperationContextImpl context = new OperationContextImpl(operationID, operation.get(OP).asString(),
                     operation.get(OP_ADDR), this, processType, runningModeControl.getRunningMode(),
-                    headers, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
+                    headers, handler, attachments, contextModel, originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), hostServerGroupTracker, accessContext, notificationSupport,
                     false, extraValidationStepHandler, partialModel, securityIdentitySupplier);
             // Try again if the operation-id is already taken
@@ -409,7 +421,7 @@ class ModelControllerImpl implements ModelController {
                 CurrentOperationIdHolder.setCurrentOperationID(operationID);
                 boolean shouldUnlock = false;
                 try {
-                    if (attemptLock) {
+                    if (attemptLock && !snapshotRead) {
                         if (!controllerLock.detectDeadlockAndGetLock(operationID)) {
                             responseNode.get(OUTCOME).set(FAILED);
                             responseNode.get(FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.cannotGetControllerLock());
@@ -460,6 +472,59 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /**
+     * Gets whether an operation only reads the model, and can therefore be executed against a
+     * {@link ManagementModelImpl#snapshot() snapshot} of it.
+     *
+     * @param operation the operation
+     * @param model the current model
+     * @return {@code true} if the operation's entry is flagged as {@link OperationEntry.Flag#READ_ONLY read-only}, or
+     *         if it is a composite operation all of whose steps are
+     */
+    private boolean isSnapshotRead(final ModelNode operation, final ManagementModelImpl model) {
+        return !bootingFlag.get() && isReadOnly(operation, PathAddress.EMPTY_ADDRESS, model.getRootResourceRegistration());
+    }
+
+    private static boolean isReadOnly(final ModelNode operation, final PathAddress base, final ImmutableManagementResourceRegistration root) {
+        if (!operation.hasDefined(OP)) {
+            return false;
+        }
+        final PathAddress address;
+        try {
+            address = operation.hasDefined(OP_ADDR) ? base.append(PathAddress.pathAddress(operation.get(OP_ADDR))) : base;
+        } catch (IllegalArgumentException e) {
+            // Let normal execution report the problem
+            return false;
+        }
+        final String name = operation.get(OP).asString();
+        final OperationEntry entry = root.getOperationEntry(address, name);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.getFlags().contains(OperationEntry.Flag.READ_ONLY)) {
+            return true;
+        }
+        // A composite only reads the model if all its steps do. Steps are addressed relative to the composite.
+        if (COMPOSITE.equals(name) && entry.getOperationHandler() instanceof CompositeOperationHandler && operation.hasDefined(STEPS)) {
+            final List<ModelNode> steps;
+            try {
+                steps = operation.get(STEPS).asList();
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (steps.isEmpty()) {
+                return false;
+            }
+            for (ModelNode step : steps) {
+                if (!isReadOnly(step, address, root)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -865,6 +930,11 @@ class ModelControllerImpl implements ModelController {
         return notificationSupport.getNotificationRegistry();
     }
 
+    @Override
+    public long getModelGeneration() {
+        return modelGeneration.get();
+    }
+
     NotificationSupport getNotificationSupport() {
         return notificationSupport;
     }
@@ -1085,12 +1155,26 @@ class ModelControllerImpl implements ModelController {
         private final Resource delegatingResource;
         // The capability registry
         private final CapabilityRegistry capabilityRegistry;
+        // Tracks which parts of rootResource are private copies; null unless we were created by cloneRootResource
+        private volatile CopyOnWriteResourceTree resourceTree;
+        // Whether we are a read-only view of a previously published model, created by snapshot()
+        private final boolean snapshot;
 
         private volatile boolean published;
 
         ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
                             final Resource rootResource,
                             final CapabilityRegistry capabilityRegistry) {
+            this(resourceRegistration, rootResource, capabilityRegistry, null, false);
+        }
+
+        private ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
+                            final Resource rootResource,
+                            final CapabilityRegistry capabilityRegistry,
+                            final CopyOnWriteResourceTree resourceTree,
+                            final boolean snapshot) {
+            this.resourceTree = resourceTree;
+            this.snapshot = snapshot;
             this.resourceRegistration = resourceRegistration;
             this.rootResource = rootResource;
             assert capabilityRegistry != null;
@@ -1098,7 +1182,7 @@ class ModelControllerImpl implements ModelController {
             // What we expose depends on the state of our 'published' field. If 'true' we've been published
             // to the ModelController, and from then on callers should get whatever the MC has as current.
             // If 'false' we haven't been published; we are a local copy created by some OperationContext,
-            // so callers should see our local members
+            // or a snapshot of a published model, so callers should see our local members
 
             // TODO use this if we ever actually support cloning the MRR
 //            this.delegatingResourceRegistration = new DelegatingManagementResourceRegistration(new DelegatingManagementResourceRegistration.RegistrationDelegateProvider() {
@@ -1187,9 +1271,11 @@ class ModelControllerImpl implements ModelController {
             ManagementResourceRegistration mrr;
             Resource currentResource;
             CapabilityRegistry currentCaps;
-            if (published) {
+            final boolean basedOnPublished = published || snapshot;
+            if (basedOnPublished) {
                 // This is the first clone since this was published. Use the current stuff as the basis
                 // to ensure that the clone is based on the latest even if we are not the latest.
+                // A snapshot may well no longer be the latest, so it is treated the same way
                 ManagementModelImpl currentPublished = ModelControllerImpl.this.managementModel.get();
                 mrr = currentPublished.resourceRegistration;
                 currentResource = currentPublished.rootResource;
@@ -1201,12 +1287,82 @@ class ModelControllerImpl implements ModelController {
                 currentResource = rootResource;
                 currentCaps = capabilityRegistry;
             }
-            Resource clone = currentResource.clone();
-            ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps);
+            // If we are published, the resources will not change underneath us, so only copy
+            // them as they get modified. Otherwise, take a full copy
+            CopyOnWriteResourceTree tree = basedOnPublished
+                    ? CopyOnWriteResourceTree.of(currentResource)
+                    : CopyOnWriteResourceTree.ofPrivateCopy(currentResource.clone());
+            Resource clone = tree.getRoot();
+            ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps, tree, false);
             ControllerLogger.MGMT_OP_LOGGER.tracef("cloned to %s to create %s and %s", currentResource, clone, result);
             return result;
         }
 
+        /**
+         * Creates a read-only view of the currently published model whose root {@link Resource} will not change
+         * if another model is subsequently published. Published resources are never modified once published,
+         * so reads against the view are consistent as of the time it was created, without needing the controller
+         * lock. If the view is {@link #cloneRootResource() cloned} for update, the clone is based on the latest
+         * published model, not on the view. The view itself is never published.
+         * <p>
+         * Handlers never receive the view's resources directly: {@code readResource} and {@code readResourceFromRoot}
+         * return a {@link Resource#clone() clone} or {@link Resource#shallowCopy() shallow copy}, so modifying what
+         * they return cannot alter the view or the published model it shares resources with.
+         *
+         * @return the view. Will not return {@code null}
+         */
+        ManagementModelImpl snapshot() {
+            ManagementModelImpl current = published ? ModelControllerImpl.this.managementModel.get() : this;
+            return new ManagementModelImpl(current.resourceRegistration, current.rootResource, current.capabilityRegistry, null, true);
+        }
+
+        /**
+         * Gets the root {@link Resource} for modification. Only valid on a {@code ManagementModelImpl} created by
+         * {@link #cloneRootResource()}.
+         *
+         * @param wholeTree {@code true} if the caller may modify any resource in the tree by navigating from the root
+         * @return the root resource. Will not return {@code null}
+         */
+        Resource getRootResourceForUpdate(boolean wholeTree) {
+            assert resourceTree != null && !published && !snapshot;
+            return wholeTree ? resourceTree.getRootForWholeTreeUpdate() : resourceTree.getRoot();
+        }
+
+        /**
+         * Gets a child of a resource obtained from {@link #getRootResourceForUpdate(boolean)} or from a previous call
+         * to this method, copying it first if it is still shared with the published model.
+         *
+         * @param parent the parent resource. Cannot be {@code null}
+         * @param element the address of the child. Cannot be {@code null}
+         * @param wholeSubtree {@code true} if the caller may modify any resource below the child by navigating from it
+         * @return the child, or {@code null} if there is no such child
+         */
+        Resource getChildForUpdate(Resource parent, PathElement element, boolean wholeSubtree) {
+            assert resourceTree != null && !published;
+            return resourceTree.getChildForUpdate(parent, element, wholeSubtree);
+        }
+
+        /**
+         * Records that a resource was added to our root {@link Resource}.
+         *
+         * @param added the added resource. Cannot be {@code null}
+         */
+        void resourceAdded(Resource added) {
+            assert resourceTree != null && !published;
+            resourceTree.adopt(added);
+        }
+
+        /**
+         * Records that a resource was removed from our root {@link Resource}.
+         *
+         * @param removed the removed resource. May be {@code null}
+         * @return a copy of {@code removed} that is safe for the caller to use
+         */
+        Resource resourceRemoved(Resource removed) {
+            assert resourceTree != null && !published;
+            return resourceTree.detach(removed);
+        }
+
         /**
          * Compares the registered requirements to the registered capabilities, returning any missing
          * or inconsistent requirements.
@@ -1218,16 +1374,22 @@ class ModelControllerImpl implements ModelController {
          * @return a validation result object. Will not return {@code null}
          */
       CapabilityRegistry.CapabilityValidation validateCapabilityRegistry(boolean forceCheck, boolean hostXmlOnly) {
-          if (!published || capabilityRegistry.isModified() || forceCheck) {
-                return capabilityRegistry.resolveCapabilities(getRootResource(), hostXmlOnly);
+          if ((!published && !snapshot) || capabilityRegistry.isModified() || forceCheck) {
+                return capabilityRegistry.resolveCapabilities(getRootResource(), hostXmlOnly, !forceCheck);
             } else {
                 // we're unmodified so nothing to validate
                 return CapabilityRegistry.CapabilityValidation.OK;
             }
         }
         private void publish() {
+            // A snapshot is a read-only view; only a clone taken for update may replace the published model
+            assert !snapshot;
             ModelControllerImpl.this.managementModel.set(this);
+            // Only after the model is visible, so a reader never sees the new generation with the old model
+            modelGeneration.incrementAndGet();
             published = true;
+            // Bookkeeping for unpublished copies no longer needed
+            resourceTree = null;
             ControllerLogger.MGMT_OP_LOGGER.tracef("published %s", this);
         }
 
@@ -1237,6 +1399,7 @@ class ModelControllerImpl implements ModelController {
             // will now see the value of ModelControllerImpl.this.managementModel.get,
             // which will be
             published = true;
+            resourceTree = null;
             // Don't roll back the capability registry here; let that happen via finally block calls to MCI.discardModel
             // capabilityRegistry.rollback();
             ControllerLogger.MGMT_OP_LOGGER.tracef("discarded %s", this);
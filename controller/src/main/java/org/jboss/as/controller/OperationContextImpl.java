@@ -943,6 +943,8 @@ final class OperationContextImpl extends AbstractOperationContext {
                 model = requireChild(model, element, address);
             }
         }
+        // Always hand out a copy. The model may be a snapshot sharing its resources with the published model,
+        // which must not be changed by a handler modifying what it read
         if(recursive) {
             return model.clone();
         } else {
@@ -971,12 +973,17 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorize(false, runtimeOnly ? READ_WRITE_RUNTIME : READ_WRITE_CONFIG);
         ensureLocalRootResource();
         affectsModel.put(address, NULL);
-        Resource resource = this.managementModel.getRootResource();
-        for (PathElement element : address) {
+        // The caller may navigate from the returned resource and modify its descendants, so the whole subtree
+        // below the target must be private to us; anything above it only needs to be copied along the path
+        Resource resource = this.managementModel.getRootResourceForUpdate(address.size() == 0);
+        final Iterator<PathElement> i = address.iterator();
+        while (i.hasNext()) {
+            final PathElement element = i.next();
             if (element.isMultiTarget()) {
                 throw ControllerLogger.ROOT_LOGGER.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            requireChild(resource, element, address);
+            resource = this.managementModel.getChildForUpdate(resource, element, !i.hasNext());
         }
         return resource;
     }
@@ -1051,7 +1058,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorizeAdd(runtimeOnly);
         ensureLocalRootResource();
         affectsModel.put(absoluteAddress, NULL);
-        Resource model = this.managementModel.getRootResource();
+        Resource model = this.managementModel.getRootResourceForUpdate(false);
         final Iterator<PathElement> i = absoluteAddress.iterator();
         while (i.hasNext()) {
             final PathElement element = i.next();
@@ -1073,10 +1080,11 @@ final class OperationContextImpl extends AbstractOperationContext {
                     } else {
                         model.registerChild(element, index, toAdd);
                     }
+                    this.managementModel.resourceAdded(toAdd);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = this.managementModel.getChildForUpdate(model, element, false);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -1114,7 +1122,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         authorize(false, runtimeOnly ? READ_WRITE_RUNTIME : READ_WRITE_CONFIG);
         ensureLocalRootResource();
         affectsModel.put(address, NULL);
-        Resource model = this.managementModel.getRootResource();
+        Resource model = this.managementModel.getRootResourceForUpdate(false);
         final Iterator<PathElement> i = address.iterator();
         while (i.hasNext()) {
             final PathElement element = i.next();
@@ -1122,9 +1130,10 @@ final class OperationContextImpl extends AbstractOperationContext {
                 throw ControllerLogger.ROOT_LOGGER.cannotRemove("*");
             }
             if (!i.hasNext()) {
-                model = model.removeChild(element);
+                model = this.managementModel.resourceRemoved(model.removeChild(element));
             } else {
-                model = requireChild(model, element, address);
+                requireChild(model, element, address);
+                model = this.managementModel.getChildForUpdate(model, element, false);
             }
         }
 
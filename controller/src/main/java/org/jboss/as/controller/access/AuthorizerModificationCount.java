@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the modifications made in the process to configuration that affects how permissions are evaluated, such as
+ * scoped roles, the permission combination policy and sensitivity classifications, so that authorization decisions
+ * can be cached until the configuration changes.
+ * <p>
+ * The count is incremented after a modification is complete, so a cache that reads the count before making its
+ * decision and stores the decision along with that count will see the count change if a modification raced with it.
+ *
+ * <p>Concurrency note: this class is thread safe</p>
+ */
+public final class AuthorizerModificationCount {
+
+    private static final AtomicLong COUNT = new AtomicLong();
+
+    private AuthorizerModificationCount() {
+    }
+
+    /**
+     * Gets the number of modifications made so far.
+     *
+     * @return the count
+     */
+    public static long get() {
+        return COUNT.get();
+    }
+
+    /**
+     * Records a modification. Must be called after the modification is complete.
+     */
+    public static void increment() {
+        COUNT.incrementAndGet();
+    }
+}
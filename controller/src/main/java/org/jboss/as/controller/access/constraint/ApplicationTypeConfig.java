@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.access.constraint;
 
+import org.jboss.as.controller.access.AuthorizerModificationCount;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 
 /**
@@ -92,6 +93,7 @@ public class ApplicationTypeConfig {
 
     public void setConfiguredApplication(Boolean configuredApplication) {
         this.configuredApplication = configuredApplication;
+        AuthorizerModificationCount.increment();
     }
 
     @Override
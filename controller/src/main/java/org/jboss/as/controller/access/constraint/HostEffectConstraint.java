@@ -29,6 +29,7 @@ import java.util.Set;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
 import org.jboss.as.controller.access.HostEffect;
 import org.jboss.as.controller.access.JmxAction;
 import org.jboss.as.controller.access.JmxTarget;
@@ -99,6 +100,7 @@ public class HostEffectConstraint extends AbstractConstraint implements Constrai
         assert !global : "constraint is global";
         assert readOnlyConstraint != null : "invalid cast";
         this.hostsHolder.specific = new LinkedHashSet<String>(allowed);
+        AuthorizerModificationCount.increment();
     }
 
     @Override
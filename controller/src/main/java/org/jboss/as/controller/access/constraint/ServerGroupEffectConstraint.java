@@ -30,6 +30,7 @@ import java.util.Set;
 import org.jboss.as.controller.access.HostEffect;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
 import org.jboss.as.controller.access.JmxAction;
 import org.jboss.as.controller.access.JmxTarget;
 import org.jboss.as.controller.access.ServerGroupEffect;
@@ -135,6 +136,7 @@ public class ServerGroupEffectConstraint extends AbstractConstraint implements C
         assert !global : "constraint is global";
         assert readOnlyConstraint != null : "invalid cast";
         this.groupsHolder.specific = new LinkedHashSet<String>(allowed);
+        AuthorizerModificationCount.increment();
     }
 
     @Override
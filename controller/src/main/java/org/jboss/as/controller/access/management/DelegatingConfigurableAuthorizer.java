@@ -34,6 +34,7 @@ import org.jboss.as.controller.access.JmxAction;
 import org.jboss.as.controller.access.JmxTarget;
 import org.jboss.as.controller.access.TargetAttribute;
 import org.jboss.as.controller.access.TargetResource;
+import org.jboss.as.controller.access.permission.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.rbac.StandardRBACAuthorizer;
 import org.jboss.as.controller.access.rbac.SuperUserRoleMapper;
 
@@ -109,6 +110,16 @@ public final class DelegatingConfigurableAuthorizer implements JmxAuthorizer {
         writableAuthorizerConfiguration.setNonFacadeMBeansSensitive(sensitive);
     }
 
+    /**
+     * Gets the cache of the current delegate's authorization decisions, for its hit and miss counts.
+     *
+     * @return the cache, or {@code null} if the delegate is not a {@link StandardRBACAuthorizer}
+     */
+    public AuthorizationDecisionCache getDecisionCache() {
+        Authorizer current = delegate;
+        return current instanceof StandardRBACAuthorizer ? ((StandardRBACAuthorizer) current).getDecisionCache() : null;
+    }
+
     public void shutdown() {
         if (delegate instanceof CustomAuthorizer) {
             ((CustomAuthorizer) delegate).shutdown();
@@ -34,6 +34,7 @@ import java.util.WeakHashMap;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.access.Authorizer;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.CombinationPolicy;
 import org.jboss.as.controller.access.rbac.StandardRBACAuthorizer;
@@ -84,6 +85,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
                 }
             }
         }
+        AuthorizerModificationCount.increment();
     }
 
     public synchronized void registerScopedRoleListener(ScopedRoleListener listener) {
@@ -146,6 +148,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
         Map<String, ScopedRole> newScopedRoles = new HashMap<String, ScopedRole>(roleMaps.scopedRoles);
         newScopedRoles.put(toAdd.getName(), toAdd);
         roleMaps = new RoleMaps(roleMaps.standardRoles, newScopedRoles);
+        AuthorizerModificationCount.increment();
     }
 
     public synchronized void removeScopedRole(String toRemove) {
@@ -156,6 +159,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
             for (ScopedRoleListener listener : scopedRoleListeners) {
                 listener.scopedRoleRemoved(removed);
             }
+            AuthorizerModificationCount.increment();
         }
     }
 
@@ -256,6 +260,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     public void setPermissionCombinationPolicy(CombinationPolicy combinationPolicy) {
         assert combinationPolicy != null : "combinationPolicy is null";
         this.combinationPolicy = combinationPolicy;
+        AuthorizerModificationCount.increment();
     }
 
     void setNonFacadeMBeansSensitive(boolean nonFacadeMBeansSensitive) {
@@ -265,6 +270,7 @@ public class WritableAuthorizerConfiguration implements AuthorizerConfiguration,
     synchronized void setAuthorizerDescription(Authorizer.AuthorizerDescription authorizerDescription) {
         this.authorizerDescription = authorizerDescription;
         this.roleMaps = new RoleMaps(authorizerDescription.getStandardRoles(), roleMaps.scopedRoles);
+        AuthorizerModificationCount.increment();
     }
 
     private static String getOfficialForm(String roleName) {
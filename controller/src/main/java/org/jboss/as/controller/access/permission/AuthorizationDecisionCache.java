@@ -0,0 +1,177 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.permission;
+
+import java.security.Permission;
+import java.security.PermissionCollection;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
+import org.jboss.as.controller.access.constraint.Constraint;
+import org.jboss.as.controller.logging.ControllerLogger;
+
+/**
+ * Caches the result of checking a caller's permissions against the permissions required for an action.
+ * <p>
+ * A decision is keyed by the caller's permission collection, which is shared by all callers with the same roles,
+ * and by the constraints each required {@link SimpleManagementPermission} places on each action effect. Targets
+ * whose required constraints are the same, such as the attributes of a resource that have no particular
+ * sensitivity, therefore share a decision. Constraints are compared by identity, as the constraint factories
+ * return shared instances for the common cases.
+ * <p>
+ * Decisions are discarded when the {@link AuthorizerModificationCount} changes.
+ *
+ * <p>Concurrency note: this class is thread safe</p>
+ */
+public final class AuthorizationDecisionCache {
+
+    /** Once this many decisions are cached, the cache is cleared rather than grown further */
+    private static final int MAX_SIZE = 8192;
+
+    private static final int EFFECT_COUNT = Action.ActionEffect.values().length;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Generation generation = new Generation(AuthorizerModificationCount.get());
+
+    /**
+     * Gets the decision for the given permissions, making it with {@code decider} if it is not cached.
+     *
+     * @param userPermissions the caller's permissions. Cannot be {@code null}
+     * @param requiredPermissions the permissions required for the action. Cannot be {@code null}
+     * @param decider makes the decision if it is not cached. Cannot be {@code null}
+     * @return the decision. Will not be {@code null}
+     */
+    public AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions,
+                                         BiFunction<PermissionCollection, PermissionCollection, AuthorizationResult> decider) {
+        Key key = Key.create(userPermissions, requiredPermissions);
+        if (key == null) {
+            return decider.apply(userPermissions, requiredPermissions);
+        }
+        Generation current = getGeneration();
+        AuthorizationResult result = current.decisions.get(key);
+        if (result != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            result = decider.apply(userPermissions, requiredPermissions);
+            if (current.decisions.size() >= MAX_SIZE) {
+                current.decisions.clear();
+            }
+            current.decisions.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of decisions that were found in the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of decisions that could be cached but had to be made.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private Generation getGeneration() {
+        Generation current = generation;
+        long count = AuthorizerModificationCount.get();
+        if (current.count != count) {
+            ControllerLogger.ACCESS_LOGGER.tracef("Discarding cached authorization decisions; %d hits and %d misses so far",
+                    hits.get(), misses.get());
+            current = new Generation(count);
+            generation = current;
+        }
+        return current;
+    }
+
+    private static class Generation {
+        private final long count;
+        private final Map<Key, AuthorizationResult> decisions = new ConcurrentHashMap<>();
+
+        private Generation(long count) {
+            this.count = count;
+        }
+    }
+
+    private static class Key {
+        private final PermissionCollection userPermissions;
+        private final Constraint[][] constraints;
+        private final int hashCode;
+
+        private Key(PermissionCollection userPermissions, Constraint[][] constraints) {
+            this.userPermissions = userPermissions;
+            this.constraints = constraints;
+            this.hashCode = 31 * System.identityHashCode(userPermissions) + Arrays.deepHashCode(constraints);
+        }
+
+        /**
+         * Creates a key for the given permissions.
+         *
+         * @return the key, or {@code null} if the required permissions are not all {@link SimpleManagementPermission}s
+         */
+        private static Key create(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
+            // Index by action effect, so the key does not depend on the order of the collection
+            Constraint[][] constraints = new Constraint[EFFECT_COUNT][];
+            Enumeration<Permission> elements = requiredPermissions.elements();
+            while (elements.hasMoreElements()) {
+                Permission permission = elements.nextElement();
+                if (!(permission instanceof SimpleManagementPermission)) {
+                    return null;
+                }
+                SimpleManagementPermission required = (SimpleManagementPermission) permission;
+                constraints[required.getActionEffect().ordinal()] = required.getConstraints();
+            }
+            return new Key(userPermissions, constraints);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return userPermissions == key.userPermissions && Arrays.deepEquals(constraints, key.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
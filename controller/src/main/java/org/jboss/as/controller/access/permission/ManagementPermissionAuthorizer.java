@@ -102,7 +102,14 @@ public class ManagementPermissionAuthorizer implements Authorizer {
         return operation == null || target.getResourceAddress().equals(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
     }
 
-    private AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
+    /**
+     * Checks whether the user permissions imply all of the required permissions.
+     *
+     * @param userPermissions the permissions of the caller
+     * @param requiredPermissions the permissions required for the action
+     * @return the decision. Will not be {@code null}
+     */
+    protected AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
 
         final Enumeration<Permission> enumeration = requiredPermissions.elements();
         while (enumeration.hasMoreElements()){
@@ -87,6 +87,10 @@ public class SimpleManagementPermission extends ManagementPermission {
         return getActionEffect().hashCode();
     }
 
+    Constraint[] getConstraints() {
+        return constraints;
+    }
+
     @Override
     public String getActions() {
         return getActionEffect().toString();
@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.access.rbac;
 
+import java.security.PermissionCollection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,9 +31,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.AuthorizerConfiguration;
 import org.jboss.as.controller.access.Caller;
 import org.jboss.as.controller.access.Environment;
+import org.jboss.as.controller.access.permission.AuthorizationDecisionCache;
 import org.jboss.as.controller.access.permission.ManagementPermissionAuthorizer;
 
 /**
@@ -85,6 +88,7 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
     private final DefaultPermissionFactory permissionFactory;
     private final RoleMapper roleMapper;
     private final Map<String, String> mappedToOfficialForm = Collections.synchronizedMap(new HashMap<String, String>());
+    private final AuthorizationDecisionCache decisionCache = new AuthorizationDecisionCache();
 
     private StandardRBACAuthorizer(final AuthorizerConfiguration configuration,
                                    final DefaultPermissionFactory permissionFactory, final RoleMapper roleMapper) {
@@ -144,6 +148,22 @@ public final class StandardRBACAuthorizer extends ManagementPermissionAuthorizer
         return AUTHORIZER_DESCRIPTION;
     }
 
+    @Override
+    protected AuthorizationResult authorize(PermissionCollection userPermissions, PermissionCollection requiredPermissions) {
+        // The permissions of a role set and the common required constraints are shared instances,
+        // so the same few decisions are made over and over for reads of large models
+        return decisionCache.authorize(userPermissions, requiredPermissions, super::authorize);
+    }
+
+    /**
+     * Gets the cache of this authorizer's decisions, for its hit and miss counts.
+     *
+     * @return the cache. Will not be {@code null}
+     */
+    public AuthorizationDecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
     public void shutdown() {
         configuration.unregisterScopedRoleListener(permissionFactory);
     }
@@ -88,6 +88,52 @@ abstract class AuditLogHandler {
         }
     }
 
+    /**
+     * Formats an item so that it can be written as part of a batch by {@link #writeLogItems(List)}. As with
+     * {@link #writeLogItem(AuditLogItem)}, a failure to format the item counts as a failure to write it.
+     *
+     * @param item the log item
+     * @return the formatted item, or {@code null} if it could not be formatted
+     */
+    String formatLogItem(AuditLogItem item) {
+        try {
+            return item.format(formatter);
+        } catch (Throwable t) {
+            getFailureCountHandler().failure(t);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a batch of items formatted by {@link #formatLogItem(AuditLogItem)}, initializing the handler and
+     * counting the batch as a single success or failure.
+     *
+     * @param formattedItems the formatted items
+     */
+    void writeLogItems(List<String> formattedItems) {
+        FailureCountHandler fch = getFailureCountHandler();
+        try {
+            initialize();
+            writeFormattedLogItems(formattedItems);
+            fch.success();
+        } catch (Throwable t) {
+            fch.failure(t);
+        }
+    }
+
+    /**
+     * Writes a batch of formatted items. Handlers which can write several items more cheaply than one at a time
+     * should override this.
+     *
+     * @param formattedItems the formatted items
+     * @throws IOException if the items could not be written
+     */
+    void writeFormattedLogItems(List<String> formattedItems) throws IOException {
+        for (String formattedItem : formattedItems) {
+            writeLogItem(formattedItem);
+        }
+    }
+
     void recycle() {
         this.failureCount = 0;
         stop();
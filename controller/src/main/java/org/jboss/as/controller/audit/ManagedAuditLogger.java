@@ -200,6 +200,35 @@ public interface ManagedAuditLogger extends AuditLogger {
         return Collections.emptyList();
     }
 
+    /**
+     * Gets the number of log items waiting to be written, if items are written asynchronously
+     *
+     * @return the number of queued items
+     */
+    default int getQueuedItemCount() {
+        return 0;
+    }
+
+    /**
+     * Gets how long, in milliseconds, the oldest item in the most recently written batch had been waiting, if items
+     * are written asynchronously
+     *
+     * @return the time the item was queued for
+     */
+    default long getLastQueueTime() {
+        return 0;
+    }
+
+    /**
+     * Gets the number of log items that were discarded because the queue was full, if items are written
+     * asynchronously
+     *
+     * @return the number of discarded items
+     */
+    default long getDiscardedItemCount() {
+        return 0;
+    }
+
     /**
      * Callback for the controller to call before the controller is booted
      */
@@ -210,6 +239,14 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     void bootDone();
 
+    /**
+     * Callback for the controller to call when it is stopped. Writes any items that are waiting to be written and
+     * stops the thread that writes them, if items are written asynchronously. The logger may still be used
+     * afterwards, e.g. when the controller is restarted.
+     */
+    default void shutdown() {
+    }
+
     /**
      * <p>The audit log handler updater. Additive changes will be used for the audit log record as a result of
      * management operations causing updates here. Removals and updates will not take effect until the current audit log
@@ -26,14 +26,21 @@ package org.jboss.as.controller.audit;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -44,9 +51,17 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Audit logger wrapper
+ * <p>
+ * By default items are written to the handlers by the thread that logs them. If the
+ * {@value #ASYNC_QUEUE_SIZE_PROPERTY} system property is set to a positive value, items are instead added to a queue
+ * of that size and written in batches by a separate thread. The {@value #ASYNC_OVERFLOW_POLICY_PROPERTY} system
+ * property determines whether logging blocks ({@code BLOCK}, the default) or the item is discarded ({@code DISCARD})
+ * when the queue is full. Items that do not fit in the queue are never spilled to disk, and syslog handlers still
+ * send one message per item, since the framing is done by the syslog handler itself.
  *
  * @author Brian Stansberry (c) 2012 Red Hat Inc.
  * @author Kabir Khan
@@ -55,6 +70,9 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     /** Maximum number of consecutive logging failures before we stop logging */
     private static final short MAX_FAILURE_COUNT = 10;
 
+    static final String ASYNC_QUEUE_SIZE_PROPERTY = "org.jboss.as.controller.audit.async-queue-size";
+    static final String ASYNC_OVERFLOW_POLICY_PROPERTY = "org.jboss.as.controller.audit.async-overflow-policy";
+
     private final List<ManagedAuditLoggerImpl> childImpls;
 
     /** If we are the core audit logger, list the children */
@@ -76,7 +94,21 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     private final AtomicBoolean runDisabledFastPath = new AtomicBoolean(false);
 
     public ManagedAuditLoggerImpl(String asVersion, boolean server) {
-        config = new CoreAuditLogConfiguration(asVersion, server);
+        this(asVersion, server, Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(ASYNC_QUEUE_SIZE_PROPERTY, "0")),
+                "DISCARD".equals(WildFlySecurityManager.getPropertyPrivileged(ASYNC_OVERFLOW_POLICY_PROPERTY, "BLOCK").toUpperCase(Locale.ENGLISH)));
+    }
+
+    /**
+     * Creates the core audit logger.
+     *
+     * @param asVersion the version of the server
+     * @param server whether this is a server
+     * @param asyncQueueSize the number of items that can be waiting to be written, or {@code 0} to write items
+     *                       synchronously
+     * @param discardOnOverflow {@code true} to discard items rather than block when the queue is full
+     */
+    ManagedAuditLoggerImpl(String asVersion, boolean server, int asyncQueueSize, boolean discardOnOverflow) {
+        config = new CoreAuditLogConfiguration(asVersion, server, asyncQueueSize, discardOnOverflow);
         childImpls = new ArrayList<ManagedAuditLoggerImpl>();
     }
 
@@ -92,7 +124,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
-        config.lock();
+        config.lockQueue();
         try {
             if (skipLogging(readOnly)) {
                 return;
@@ -104,7 +136,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             handleLoggingException(e);
         } finally {
             applyHandlerUpdates();
-            config.unlock();
+            config.unlockQueue();
         }
     }
 
@@ -114,7 +146,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         if (runDisabledFastPath.get())
             return;
 
-        config.lock();
+        config.lockQueue();
         try {
             if (skipLogging(readOnly)) {
                 return;
@@ -126,13 +158,14 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             handleLoggingException(e);
         } finally {
             applyHandlerUpdates();
-            config.unlock();
+            config.unlockQueue();
         }
     }
 
+    /** protected by config's audit lock */
     private boolean skipLogging(boolean readOnly) {
-        if (config.isBooting() && !isLogBoot() || readOnly && !isLogReadOnly()) {
-            if (getLoggerStatus() == Status.DISABLED) {
+        if (config.isBooting() && !config.isLogBoot() || readOnly && !config.isLogReadOnly()) {
+            if (config.getLoggerStatus() == Status.DISABLED) {
                 // switch to the fast path for the next event
                 runDisabledFastPath.set(true);
             }
@@ -203,6 +236,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     public void recycleHandler(String name) {
         config.lock();
         try {
+            flushQueue();
             config.recycleHandler(name);
         } finally {
             config.unlock();
@@ -240,15 +274,15 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
 
     /** protected by config's audit lock */
     private void storeLogItem(AuditLogItem item) throws IOException {
-        switch (getLoggerStatus()) {
+        switch (config.getLoggerStatus()) {
             case QUEUEING:
                 queuedItems.add(item);
                 break;
             case LOGGING:
-                writeLogItem(item);
+                writeOrEnqueueLogItem(item);
                 break;
             case DISABLE_NEXT:
-                writeLogItem(item);
+                writeOrEnqueueLogItem(item);
                 config.setLoggerStatus(Status.DISABLED);
             case DISABLED:
                 // switch to the fast path for the next event
@@ -257,6 +291,16 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /** protected by config's audit lock */
+    private void writeOrEnqueueLogItem(AuditLogItem item) throws IOException {
+        final AsyncLogQueue asyncQueue = config.getAsyncQueue();
+        if (asyncQueue != null) {
+            asyncQueue.enqueue(this, item);
+        } else {
+            writeLogItem(item);
+        }
+    }
+
     /** protected by config's audit lock */
     private void writeLogItem(AuditLogItem item) throws IOException{
         Set<String> formatterNames = new HashSet<String>();
@@ -272,6 +316,16 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
+    /** Call with lock taken - writes any items still waiting in the asynchronous queue */
+    private void flushQueue() {
+        final AsyncLogQueue asyncQueue = config.getAsyncQueue();
+        if (asyncQueue != null) {
+            for (QueuedItem failed : asyncQueue.flush()) {
+                failed.logger.handleLoggingException(failed.failure);
+            }
+        }
+    }
+
     /** protected by config's audit lock */
     private void handleLoggingException(final Exception e) {
         ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
@@ -386,11 +440,18 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         }
     }
 
-    /** Call with lock taken */
+    /** Call with at least the queue lock taken */
     private void applyHandlerUpdates() {
         if (handlerUpdateTask != null) {
-            handlerUpdateTask.applyChanges();
-            handlerUpdateTask = null;
+            // The changes must neither apply to items logged before them nor overlap a batch being written
+            config.lock();
+            try {
+                flushQueue();
+                handlerUpdateTask.applyChanges();
+                handlerUpdateTask = null;
+            } finally {
+                config.unlock();
+            }
         }
     }
 
@@ -398,6 +459,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     public void removeFormatter(String name) {
         config.lock();
         try {
+            flushQueue();
             config.removeFormatter(name);
         } finally {
             config.unlock();
@@ -419,6 +481,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     public void updateHandlerFormatter(String name, String formatterName) {
         config.lock();
         try {
+            flushQueue();
             AuditLogHandler handler = config.getConfiguredHandler(name);
             handler.setFormatterName(formatterName);
             handler.setFormatter(config.getFormatter(formatterName));
@@ -512,12 +575,40 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     public List<ModelNode> listLastEntries(String name) {
         config.lock();
         try {
+            // Items that are still queued would otherwise be missing from the handler's history
+            flushQueue();
             return config.getConfiguredHandler(name).listLastEntries();
         } finally {
             config.unlock();
         }
     }
 
+    @Override
+    public int getQueuedItemCount() {
+        final AsyncLogQueue asyncQueue = config.getAsyncQueue();
+        if (asyncQueue == null) {
+            return 0;
+        }
+        config.lockQueue();
+        try {
+            return asyncQueue.size();
+        } finally {
+            config.unlockQueue();
+        }
+    }
+
+    @Override
+    public long getLastQueueTime() {
+        final AsyncLogQueue asyncQueue = config.getAsyncQueue();
+        return asyncQueue == null ? 0 : asyncQueue.getLastQueueTime();
+    }
+
+    @Override
+    public long getDiscardedItemCount() {
+        final AsyncLogQueue asyncQueue = config.getAsyncQueue();
+        return asyncQueue == null ? 0 : asyncQueue.getDiscardedCount();
+    }
+
     @Override
     public void updateInMemoryHandlerMaxHistory(String name, int maxHistory) {
         config.lock();
@@ -588,6 +679,18 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             sharedConfiguration.unlock();
         }
 
+        void lockQueue() {
+            sharedConfiguration.lockQueue();
+        }
+
+        void unlockQueue() {
+            sharedConfiguration.unlockQueue();
+        }
+
+        AsyncLogQueue getAsyncQueue() {
+            return sharedConfiguration.getAsyncQueue();
+        }
+
         String getAsVersion() {
             return sharedConfiguration.getAsVersion();
         }
@@ -666,8 +769,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
      */
     private static class CoreAuditLogConfiguration extends ManagedAuditLogConfiguration {
 
-        CoreAuditLogConfiguration(String asVersion, boolean server) {
-            super(new SharedConfiguration(asVersion, server), true, false);
+        CoreAuditLogConfiguration(String asVersion, boolean server, int asyncQueueSize, boolean discardOnOverflow) {
+            super(new SharedConfiguration(asVersion, server, asyncQueueSize, discardOnOverflow), true, false);
         }
 
         @Override
@@ -742,6 +845,9 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         private final String asVersion;
         private final boolean server;
 
+        /** The queue used to write items asynchronously, or {@code null} if they are written synchronously */
+        private final AsyncLogQueue asyncQueue;
+
         /** Guarded by auditLock - the formatters configured in the global json-formatters section */
         private final Map<String, AuditLogItemFormatter> formatters = new HashMap<String, AuditLogItemFormatter>();
 
@@ -752,9 +858,10 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         private boolean booting = true;
 
 
-        SharedConfiguration(String asVersion, boolean server) {
+        SharedConfiguration(String asVersion, boolean server, int asyncQueueSize, boolean discardOnOverflow) {
             this.asVersion = asVersion;
             this.server = server;
+            this.asyncQueue = asyncQueueSize > 0 ? new AsyncLogQueue(this, asyncQueueSize, discardOnOverflow) : null;
         }
 
         public void recycleHandler(String name) {
@@ -762,14 +869,39 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             handler.recycle();
         }
 
+        /**
+         * Takes the audit lock and, if items are written asynchronously, the writer lock, which excludes the writer
+         * thread while it is writing a batch to the handlers.
+         */
         void lock() {
             auditLock.lock();
+            if (asyncQueue != null) {
+                asyncQueue.writerLock.lock();
+            }
         }
 
         void unlock() {
+            if (asyncQueue != null) {
+                asyncQueue.writerLock.unlock();
+            }
             auditLock.unlock();
         }
 
+        /**
+         * Takes only the audit lock, which is enough to decide whether to log an item and to queue it.
+         */
+        void lockQueue() {
+            auditLock.lock();
+        }
+
+        void unlockQueue() {
+            auditLock.unlock();
+        }
+
+        AsyncLogQueue getAsyncQueue() {
+            return asyncQueue;
+        }
+
         String getAsVersion() {
             return asVersion;
         }
@@ -973,6 +1105,266 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
 
+    /**
+     * An item waiting to be written by the {@link AsyncLogQueue}.
+     */
+    private static final class QueuedItem {
+        private final ManagedAuditLoggerImpl logger;
+        private final AuditLogItem item;
+        private final long queuedAt = System.nanoTime();
+        private Exception failure;
+
+        QueuedItem(ManagedAuditLoggerImpl logger, AuditLogItem item) {
+            this.logger = logger;
+            this.item = item;
+        }
+    }
+
+    /**
+     * A bounded queue of items which are written to the handlers in batches by a dedicated thread.
+     * <p>
+     * The queue is guarded by the audit lock, so the logging threads only ever contend with the writer thread
+     * briefly, while it removes a batch. The handlers are guarded by the writer lock, which the writer thread
+     * takes before releasing the audit lock and holds while writing the batch. Anything else that uses the
+     * handlers takes both locks (see {@link SharedConfiguration#lock()}) and so waits for the current batch,
+     * and anything that changes them {@link #flush() flushes} the queue first, so items are always written
+     * in the order they were logged and with the configuration that was in place when they were logged.
+     */
+    private static final class AsyncLogQueue implements Runnable {
+        private final SharedConfiguration sharedConfiguration;
+        private final Lock writerLock = new ReentrantLock();
+        private final Condition notEmpty;
+        private final Condition notFull;
+        private final int capacity;
+        private final boolean discardOnOverflow;
+
+        /** Guarded by the audit lock */
+        private final ArrayDeque<QueuedItem> queue;
+        /** Guarded by the audit lock - the writer thread, or {@code null} if it has not been started or was stopped */
+        private Thread thread;
+        /** Guarded by the audit lock - the hook that flushes the queue when the process exits */
+        private Thread shutdownHook;
+        /** Guarded by the audit lock - whether items have been discarded since the queue was last not full */
+        private boolean discarding;
+
+        private volatile long discardedCount;
+        private volatile long lastQueueTime;
+
+        AsyncLogQueue(SharedConfiguration sharedConfiguration, int capacity, boolean discardOnOverflow) {
+            this.sharedConfiguration = sharedConfiguration;
+            this.notEmpty = sharedConfiguration.auditLock.newCondition();
+            this.notFull = sharedConfiguration.auditLock.newCondition();
+            this.capacity = capacity;
+            this.discardOnOverflow = discardOnOverflow;
+            this.queue = new ArrayDeque<>(capacity);
+        }
+
+        /** Call with the audit lock taken */
+        void enqueue(ManagedAuditLoggerImpl logger, AuditLogItem item) {
+            while (queue.size() >= capacity) {
+                if (discardOnOverflow) {
+                    if (!discarding) {
+                        discarding = true;
+                        ControllerLogger.MGMT_OP_LOGGER.discardingAuditLogRecords(capacity);
+                    }
+                    discardedCount++;
+                    return;
+                }
+                notFull.awaitUninterruptibly();
+            }
+            discarding = false;
+            queue.add(new QueuedItem(logger, item));
+            if (thread == null) {
+                start();
+            }
+            notEmpty.signal();
+        }
+
+        /** Call with the audit lock taken */
+        int size() {
+            return queue.size();
+        }
+
+        long getLastQueueTime() {
+            return lastQueueTime;
+        }
+
+        long getDiscardedCount() {
+            return discardedCount;
+        }
+
+        /**
+         * Writes everything that is queued. Call with both the audit lock and the writer lock taken.
+         *
+         * @return the items that could not be written
+         */
+        List<QueuedItem> flush() {
+            if (queue.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return write(drain());
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                final List<QueuedItem> batch;
+                sharedConfiguration.auditLock.lock();
+                try {
+                    while (queue.isEmpty()) {
+                        if (thread != Thread.currentThread()) {
+                            // Stopped, or replaced by a writer started after this one was stopped
+                            return;
+                        }
+                        notEmpty.awaitUninterruptibly();
+                    }
+                    batch = drain();
+                    // Taken before the audit lock is released so nothing can be flushed or reconfigured in between
+                    writerLock.lock();
+                } finally {
+                    sharedConfiguration.auditLock.unlock();
+                }
+                final List<QueuedItem> failed;
+                try {
+                    failed = write(batch);
+                } finally {
+                    writerLock.unlock();
+                }
+                if (!failed.isEmpty()) {
+                    sharedConfiguration.lock();
+                    try {
+                        for (QueuedItem queued : failed) {
+                            queued.logger.handleLoggingException(queued.failure);
+                        }
+                    } finally {
+                        sharedConfiguration.unlock();
+                    }
+                }
+            }
+        }
+
+        /** Call with the audit lock taken */
+        private List<QueuedItem> drain() {
+            final List<QueuedItem> batch = new ArrayList<>(queue);
+            queue.clear();
+            notFull.signalAll();
+            return batch;
+        }
+
+        /** Call with the writer lock taken */
+        private List<QueuedItem> write(List<QueuedItem> batch) {
+            lastQueueTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.get(0).queuedAt);
+            final Map<AuditLogHandler, List<String>> formattedItems = new IdentityHashMap<>();
+            List<QueuedItem> failed = Collections.emptyList();
+            // Format each item for all its handlers before moving on to the next, since the formatters only cache one item
+            for (QueuedItem queued : batch) {
+                final ManagedAuditLogConfiguration config = queued.logger.config;
+                final Set<String> formatterNames = new HashSet<String>();
+                try {
+                    for (AuditLogHandler handler : config.getHandlersForLogging()) {
+                        formatterNames.add(handler.getFormatterName());
+                        final String formattedItem = handler.formatLogItem(queued.item);
+                        if (formattedItem != null) {
+                            formattedItems.computeIfAbsent(handler, h -> new ArrayList<>()).add(formattedItem);
+                        }
+                    }
+                } catch (Exception e) {
+                    queued.failure = e;
+                    if (failed.isEmpty()) {
+                        failed = new ArrayList<>();
+                    }
+                    failed.add(queued);
+                } finally {
+                    for (String formatterName : formatterNames) {
+                        config.getFormatter(formatterName).clear();
+                    }
+                }
+            }
+            // Then give each handler the whole batch, so that e.g. a file is only opened and synced once
+            for (Map.Entry<AuditLogHandler, List<String>> entry : formattedItems.entrySet()) {
+                entry.getKey().writeLogItems(entry.getValue());
+            }
+            return failed;
+        }
+
+        /** Call with the audit lock taken */
+        private void start() {
+            final Thread writer = new Thread(this, "management-audit-log-writer");
+            writer.setDaemon(true);
+            // Write whatever is still queued when the process exits normally
+            final Thread hook = new Thread(() -> {
+                sharedConfiguration.lock();
+                try {
+                    for (QueuedItem queued : flush()) {
+                        ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(queued.failure);
+                    }
+                } finally {
+                    sharedConfiguration.unlock();
+                }
+            }, "management-audit-log-flush");
+            doPrivileged(() -> {
+                writer.start();
+                Runtime.getRuntime().addShutdownHook(hook);
+                return null;
+            });
+            thread = writer;
+            shutdownHook = hook;
+        }
+
+        /**
+         * Stops the writer thread, once it has written what it has already taken from the queue, and removes the
+         * shutdown hook. Items queued afterwards start a new writer. Call without any locks taken.
+         */
+        void stop() {
+            final Thread writer;
+            final Thread hook;
+            sharedConfiguration.auditLock.lock();
+            try {
+                writer = thread;
+                hook = shutdownHook;
+                thread = null;
+                shutdownHook = null;
+                notEmpty.signalAll();
+            } finally {
+                sharedConfiguration.auditLock.unlock();
+            }
+            if (writer == null) {
+                return;
+            }
+            doPrivileged(() -> {
+                try {
+                    Runtime.getRuntime().removeShutdownHook(hook);
+                } catch (IllegalStateException e) {
+                    // The process is exiting, so the hook is already running
+                }
+                return null;
+            });
+            boolean interrupted = false;
+            try {
+                for (;;) {
+                    try {
+                        writer.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private static void doPrivileged(PrivilegedAction<Void> action) {
+            if (WildFlySecurityManager.isChecking()) {
+                AccessController.doPrivileged(action);
+            } else {
+                action.run();
+            }
+        }
+    }
+
     @Override
     public void bootDone() {
         config.lock();
@@ -993,10 +1385,25 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
 
+    @Override
+    public void shutdown() {
+        final AsyncLogQueue asyncQueue = config.getAsyncQueue();
+        if (asyncQueue != null) {
+            asyncQueue.stop();
+            config.lock();
+            try {
+                flushQueue();
+            } finally {
+                config.unlock();
+            }
+        }
+    }
+
     @Override
     public void startBoot() {
         config.lock();
         try {
+            flushQueue();
             config.setBooting(true);
             if (childImpls != null) {
                 childImpls.clear();
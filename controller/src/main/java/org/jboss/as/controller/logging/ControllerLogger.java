@@ -3552,4 +3552,8 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 455, value = "Can't take snapshot %s because it already exists")
     ConfigurationPersistenceException snapshotAlreadyExistError(String name);
+
+    @LogMessage(level = WARN)
+    @Message(id = 456, value = "The management audit log queue is full (%d records); audit log records will be discarded until it has been drained")
+    void discardingAuditLogRecords(int queueSize);
 }
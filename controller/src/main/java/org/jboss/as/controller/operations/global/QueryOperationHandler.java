@@ -26,13 +26,17 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATOR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ExpressionResolver;
@@ -46,13 +50,17 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.PropertiesAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.OperationResultTransformer;
 import org.jboss.as.controller.transform.OperationTransformer;
 import org.jboss.as.controller.transform.TransformationContext;
@@ -68,6 +76,8 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
 
     public static final QueryOperationHandler INSTANCE = new QueryOperationHandler();
 
+    private static final Set<Action.ActionEffect> READ_EFFECTS = EnumSet.of(Action.ActionEffect.ADDRESS, Action.ActionEffect.READ_CONFIG);
+
     public enum Operator {
         AND, OR
     }
@@ -121,6 +131,15 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         readResourceOp.get(OP).set(READ_RESOURCE_OPERATION);
         readResourceOp.get(INCLUDE_RUNTIME).set(true);
 
+        // Push the filter down: if the filtered attributes can be read from the model, skip reading the whole
+        // resource, including its runtime attributes, when it cannot match
+        if (where.isDefined() && readResourceHandler instanceof ReadResourceHandler
+                && cannotMatch(parentContext, operation, mrr, where, operator, readResourceOp.get(INCLUDE_RUNTIME).asBoolean())) {
+            // Same result as when the filter/reduce phase discards the resource
+            parentContext.getResult();
+            return;
+        }
+
         // filter/reduce phase
         parentContext.addStep(operation, new FilterReduceHandler(where, operator, select), OperationContext.Stage.MODEL);
 
@@ -129,6 +148,81 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
 
     }
 
+    /**
+     * Evaluates the filter against the filtered attributes as read-resource would read them, if they are all read
+     * from the model and the caller is allowed to read them.
+     *
+     * @param includeRuntime whether the read-resource step includes runtime attributes. If not, it leaves them out of
+     *                       its result, so filtering on them cannot be evaluated from the model
+     * @return {@code true} if the resource certainly does not match; {@code false} if it matches, or if it is not
+     *         known without reading the resource
+     */
+    private static boolean cannotMatch(final OperationContext context, final ModelNode operation,
+                                       final ImmutableManagementResourceRegistration registration,
+                                       final ModelNode filter, final Operator operator, final boolean includeRuntime) {
+        if (registration.isRemote() || hasReadAttributeOverride(registration)) {
+            return false;
+        }
+        final PathAddress address = context.getCurrentAddress();
+        final ModelNode readResourceOp = Util.createEmptyOperation(READ_RESOURCE_OPERATION, address);
+        // Authorize as the read-resource step would, which inherits the headers, e.g. run-as roles, of the query
+        copyHeaders(operation, readResourceOp);
+        if (context.authorize(readResourceOp, READ_EFFECTS).getDecision() == AuthorizationResult.Decision.DENY) {
+            return false;
+        }
+        final ModelNode model;
+        try {
+            model = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+        } catch (Resource.NoSuchResourceException e) {
+            return false;
+        }
+        final Set<String> childTypes = registration.getChildNames(PathAddress.EMPTY_ADDRESS);
+        final ModelNode attributes = new ModelNode();
+        for (String name : filter.keys()) {
+            final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name);
+            // Children, aliases and attributes with read handlers are not read from the model
+            if (access == null || access.getReadHandler() != null || access.getFlags().contains(AttributeAccess.Flag.ALIAS)
+                    || childTypes.contains(name)) {
+                return false;
+            }
+            if (access.getStorageType() != AttributeAccess.Storage.CONFIGURATION && !includeRuntime) {
+                return false;
+            }
+            final ModelNode value;
+            if (model.hasDefined(name)) {
+                value = model.get(name);
+            } else if (access.getAttributeDefinition().getDefaultValue() != null) {
+                value = access.getAttributeDefinition().getDefaultValue();
+            } else {
+                value = new ModelNode();
+            }
+            // Do not let the filter reveal values the caller could not read
+            final ModelNode readAttributeOp = Util.getReadAttributeOperation(address, name);
+            copyHeaders(operation, readAttributeOp);
+            if (context.authorize(readAttributeOp, name, value).getDecision() == AuthorizationResult.Decision.DENY) {
+                return false;
+            }
+            attributes.get(name).set(value);
+        }
+        try {
+            return !FilterReduceHandler.matchesFilter(attributes, filter, operator);
+        } catch (OperationFailedException e) {
+            // Let the filter/reduce phase report the failure
+            return false;
+        }
+    }
+
+    private static void copyHeaders(final ModelNode from, final ModelNode to) {
+        if (from.hasDefined(OPERATION_HEADERS)) {
+            to.get(OPERATION_HEADERS).set(from.get(OPERATION_HEADERS));
+        }
+    }
+
+    private static boolean hasReadAttributeOverride(final ImmutableManagementResourceRegistration registration) {
+        final OperationStepHandler readAttribute = registration.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_ATTRIBUTE_OPERATION);
+        return readAttribute != null && readAttribute != ReadAttributeHandler.INSTANCE && readAttribute != ReadAttributeHandler.RESOLVE_INSTANCE;
+    }
+
     static class FilterReduceHandler implements OperationStepHandler {
 
         private static final String UNDEFINED = "undefined";
@@ -190,7 +284,7 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
 
         }
 
-        private static boolean matchesFilter(final ModelNode resource, final ModelNode filter, final Operator operator) throws OperationFailedException {
+        static boolean matchesFilter(final ModelNode resource, final ModelNode filter, final Operator operator) throws OperationFailedException {
             boolean isMatching = false;
             List<Property> filterProperties = filter.asPropertyList();
             List<Boolean> matches = new ArrayList<>(filterProperties.size());
@@ -53,6 +53,7 @@ import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.registry.DescriptionCache;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
@@ -163,7 +164,7 @@ public class ReadOperationDescriptionHandler implements OperationStepHandler {
         private final Set<OperationEntry.Flag> flags;
 
         DescribedOp(OperationEntry operationEntry, Locale locale) {
-            this.description = operationEntry.getDescriptionProvider().getModelDescription(locale);
+            this.description = DescriptionCache.getOperationDescription(operationEntry, locale);
             this.flags = operationEntry.getFlags();
         }
 
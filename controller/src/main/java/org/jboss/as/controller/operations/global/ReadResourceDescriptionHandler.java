@@ -84,6 +84,7 @@ import org.jboss.as.controller.registry.AliasEntry;
 import org.jboss.as.controller.registry.AliasStepHandler;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.AttributeAccess.Storage;
+import org.jboss.as.controller.registry.DescriptionCache;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.NotificationEntry;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -187,10 +188,12 @@ public class ReadResourceDescriptionHandler extends GlobalOperationHandlers.Abst
 
         final ImmutableManagementResourceRegistration registry = getResourceRegistrationCheckForAlias(context, opAddr, accessControlContext);
 
-        final DescriptionProvider descriptionProvider = registry.getModelDescription(PathAddress.EMPTY_ADDRESS);
         final Locale locale = GlobalOperationHandlers.getLocale(context, operation);
+        final ProcessType processType = context.getProcessType();
 
-        final ModelNode nodeDescription = descriptionProvider.getModelDescription(locale);
+        // The cached description is shared, so work on a copy
+        final ModelNode nodeDescription = DescriptionCache.getResourceDescription(registry, locale, aliases ? "aliases" : "no-aliases",
+                () -> describeResource(processType, registry, locale, aliases)).clone();
         final Map<String, ModelNode> operations = ops ? new HashMap<String, ModelNode>() : null;
         final Map<String, ModelNode> notifications = nots ? new HashMap<String, ModelNode>() : null;
         final Map<PathElement, ModelNode> childResources = recursive ? new HashMap<PathElement, ModelNode>() : Collections.<PathElement, ModelNode>emptyMap();
@@ -206,16 +209,6 @@ public class ReadResourceDescriptionHandler extends GlobalOperationHandlers.Abst
         final ReadResourceDescriptionAssemblyHandler assemblyHandler = new ReadResourceDescriptionAssemblyHandler(nodeDescription, operations, notifications, childResources, accessControlContext, accessControl);
         context.addStep(assemblyHandler, OperationContext.Stage.MODEL, true);
 
-        //Let's filter the children
-        if (!aliases && nodeDescription.hasDefined(CHILDREN)) {
-            for (Property child : nodeDescription.get(CHILDREN).asPropertyList()) {
-                String key = child.getName();
-                if (isGlobalAlias(registry, child)) {
-                    nodeDescription.get(CHILDREN).remove(key);
-                }
-            }
-        }
-
         if (ops) {
             for (final Map.Entry<String, OperationEntry> entry : registry.getOperationDescriptions(PathAddress.EMPTY_ADDRESS, inherited).entrySet()) {
                 OperationEntry operationEntry = entry.getValue();
@@ -228,41 +221,7 @@ public class ReadResourceDescriptionHandler extends GlobalOperationHandlers.Abst
 
         if (nots) {
             for (final Map.Entry<String, NotificationEntry> entry : registry.getNotificationDescriptions(PathAddress.EMPTY_ADDRESS, inherited).entrySet()) {
-                final DescriptionProvider provider = entry.getValue().getDescriptionProvider();
-                notifications.put(entry.getKey(), provider.getModelDescription(locale));
-            }
-        }
-
-        if (nodeDescription.hasDefined(ATTRIBUTES)) {
-            for (final String attr : nodeDescription.require(ATTRIBUTES).keys()) {
-                final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attr);
-                // If there is metadata for an attribute but no AttributeAccess, assume RO. Can't
-                // be writable without a registered handler. This opens the possibility that out-of-date metadata
-                // for attribute "foo" can lead to a read of non-existent-in-model "foo" with
-                // an unexpected undefined value returned. But it removes the possibility of a
-                // dev forgetting to call registry.registerReadOnlyAttribute("foo", null) resulting
-                // in the valid attribute "foo" not being readable
-                final AttributeAccess.AccessType accessType = access == null ? AttributeAccess.AccessType.READ_ONLY : access.getAccessType();
-                final AttributeAccess.Storage storage = access == null ? AttributeAccess.Storage.CONFIGURATION : access.getStorageType();
-                final ModelNode attrNode = nodeDescription.get(ATTRIBUTES, attr);
-                //AS7-3085 - For a domain mode server show writable attributes as read-only
-                String displayedAccessType =
-                        context.getProcessType() == ProcessType.DOMAIN_SERVER && storage == AttributeAccess.Storage.CONFIGURATION ?
-                                AttributeAccess.AccessType.READ_ONLY.toString() : accessType.toString();
-                attrNode.get(ACCESS_TYPE).set(displayedAccessType);
-                attrNode.get(STORAGE).set(storage.toString());
-                if (accessType == AttributeAccess.AccessType.READ_WRITE) {
-                    Set<AttributeAccess.Flag> flags = access.getFlags();
-                    if (flags.contains(AttributeAccess.Flag.RESTART_ALL_SERVICES)) {
-                        attrNode.get(RESTART_REQUIRED).set(ALL_SERVICES);
-                    } else if (flags.contains(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)) {
-                        attrNode.get(RESTART_REQUIRED).set(RESOURCE_SERVICES);
-                    } else if (flags.contains(AttributeAccess.Flag.RESTART_JVM)) {
-                        attrNode.get(RESTART_REQUIRED).set(JVM);
-                    } else {
-                        attrNode.get(RESTART_REQUIRED).set(NO_SERVICES);
-                    }
-                }
+                notifications.put(entry.getKey(), DescriptionCache.getNotificationDescription(entry.getValue(), locale).clone());
             }
         }
 
@@ -327,11 +286,66 @@ public class ReadResourceDescriptionHandler extends GlobalOperationHandlers.Abst
         });
     }
 
-    private boolean isSingletonResource(final ImmutableManagementResourceRegistration registry, final String key) {
+    /**
+     * Creates the description of a resource, with the attribute access information added and, unless
+     * {@code aliases} is {@code true}, the alias children removed. The result only depends on the registration and
+     * the parameters, so it can be cached.
+     */
+    private static ModelNode describeResource(final ProcessType processType, final ImmutableManagementResourceRegistration registry,
+                                              final Locale locale, final boolean aliases) {
+        final DescriptionProvider descriptionProvider = registry.getModelDescription(PathAddress.EMPTY_ADDRESS);
+        final ModelNode nodeDescription = descriptionProvider.getModelDescription(locale);
+
+        //Let's filter the children
+        if (!aliases && nodeDescription.hasDefined(CHILDREN)) {
+            for (Property child : nodeDescription.get(CHILDREN).asPropertyList()) {
+                String key = child.getName();
+                if (isGlobalAlias(registry, child)) {
+                    nodeDescription.get(CHILDREN).remove(key);
+                }
+            }
+        }
+
+        if (nodeDescription.hasDefined(ATTRIBUTES)) {
+            for (final String attr : nodeDescription.require(ATTRIBUTES).keys()) {
+                final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attr);
+                // If there is metadata for an attribute but no AttributeAccess, assume RO. Can't
+                // be writable without a registered handler. This opens the possibility that out-of-date metadata
+                // for attribute "foo" can lead to a read of non-existent-in-model "foo" with
+                // an unexpected undefined value returned. But it removes the possibility of a
+                // dev forgetting to call registry.registerReadOnlyAttribute("foo", null) resulting
+                // in the valid attribute "foo" not being readable
+                final AttributeAccess.AccessType accessType = access == null ? AttributeAccess.AccessType.READ_ONLY : access.getAccessType();
+                final AttributeAccess.Storage storage = access == null ? AttributeAccess.Storage.CONFIGURATION : access.getStorageType();
+                final ModelNode attrNode = nodeDescription.get(ATTRIBUTES, attr);
+                //AS7-3085 - For a domain mode server show writable attributes as read-only
+                String displayedAccessType =
+                        processType == ProcessType.DOMAIN_SERVER && storage == AttributeAccess.Storage.CONFIGURATION ?
+                                AttributeAccess.AccessType.READ_ONLY.toString() : accessType.toString();
+                attrNode.get(ACCESS_TYPE).set(displayedAccessType);
+                attrNode.get(STORAGE).set(storage.toString());
+                if (accessType == AttributeAccess.AccessType.READ_WRITE) {
+                    Set<AttributeAccess.Flag> flags = access.getFlags();
+                    if (flags.contains(AttributeAccess.Flag.RESTART_ALL_SERVICES)) {
+                        attrNode.get(RESTART_REQUIRED).set(ALL_SERVICES);
+                    } else if (flags.contains(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)) {
+                        attrNode.get(RESTART_REQUIRED).set(RESOURCE_SERVICES);
+                    } else if (flags.contains(AttributeAccess.Flag.RESTART_JVM)) {
+                        attrNode.get(RESTART_REQUIRED).set(JVM);
+                    } else {
+                        attrNode.get(RESTART_REQUIRED).set(NO_SERVICES);
+                    }
+                }
+            }
+        }
+        return nodeDescription;
+    }
+
+    private static boolean isSingletonResource(final ImmutableManagementResourceRegistration registry, final String key) {
         return registry.getSubModel(PathAddress.pathAddress(PathElement.pathElement(key))) == null;
     }
 
-    private boolean isGlobalAlias(final ImmutableManagementResourceRegistration registry, final Property child) {
+    private static boolean isGlobalAlias(final ImmutableManagementResourceRegistration registry, final Property child) {
         if(isSingletonResource(registry, child.getName())) {
             Set<PathElement> childrenPath = registry.getChildAddresses(PathAddress.EMPTY_ADDRESS);
             boolean found = false;
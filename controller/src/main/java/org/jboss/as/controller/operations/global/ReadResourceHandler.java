@@ -27,6 +27,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
@@ -47,6 +48,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -62,13 +64,13 @@ import org.jboss.as.controller.UnauthorizedException;
 import org.jboss.as.controller.access.Action;
 import org.jboss.as.controller.access.AuthorizationResult;
 import org.jboss.as.controller.access.ResourceNotAddressableException;
-import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.validation.ParametersValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.DescriptionCache;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.PlaceholderResource;
 import org.jboss.as.controller.registry.Resource;
@@ -253,6 +255,8 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         final Resource resource = nullSafeReadResource(context, registry);
 
         final Map<String, Set<String>> childrenByType = registry != null ? GlobalOperationHandlers.getChildAddresses(context, address, registry, resource, null) : Collections.<String, Set<String>>emptyMap();
+        // Reads child subtrees without adding a step per child resource and attribute, where possible
+        DirectReader directReader = null;
         if (!attributesOnly) {
             // Next, process child resources
             for (Map.Entry<String, Set<String>> entry : childrenByType.entrySet()) {
@@ -298,17 +302,26 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
                             rrOp.get(ModelDescriptionConstants.INCLUDE_ALIASES).set(aliases);
                             rrOp.get(ModelDescriptionConstants.INCLUDE_DEFAULTS).set(defaults);
                             ModelNode rrRsp = new ModelNode();
-                            childResources.put(childPE, rrRsp);
-
-                            // See if there was an override registered for the standard :read-resource handling (unlikely!!!)
-                            OperationStepHandler overrideHandler = childReg.getOperationHandler(PathAddress.EMPTY_ADDRESS, opName);
-                            if (overrideHandler != null && overrideHandler.getClass() == getClass()) {
-                                // not an override
-                                overrideHandler = null;
+                            if (directReader == null) {
+                                directReader = new DirectReader(context, operation, queryRuntime, proxies, aliases, defaults);
                             }
-                            OperationStepHandler rrHandler = new ReadResourceHandler(localFilteredData, overrideHandler, resolvable);
+                            if (directReader.read(rrOp, absoluteChildAddr, childReg, rrRsp.get(RESULT))) {
+                                // The whole subtree was read without adding any steps
+                                childResources.put(childPE, rrRsp);
+                            } else {
+                                rrRsp = new ModelNode();
+                                childResources.put(childPE, rrRsp);
+
+                                // See if there was an override registered for the standard :read-resource handling (unlikely!!!)
+                                OperationStepHandler overrideHandler = childReg.getOperationHandler(PathAddress.EMPTY_ADDRESS, opName);
+                                if (overrideHandler != null && overrideHandler.getClass() == getClass()) {
+                                    // not an override
+                                    overrideHandler = null;
+                                }
+                                OperationStepHandler rrHandler = new ReadResourceHandler(localFilteredData, overrideHandler, resolvable);
 
-                            context.addStep(rrRsp, rrOp, rrHandler, OperationContext.Stage.MODEL, true);
+                                context.addStep(rrRsp, rrOp, rrHandler, OperationContext.Stage.MODEL, true);
+                            }
                         }
                     } else {
                         // Non-recursive. Just output the names of the children
@@ -365,9 +378,9 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         // by checking the resource description
         if (defaults) {
             //get the model description
-            final DescriptionProvider descriptionProvider = registry.getModelDescription(PathAddress.EMPTY_ADDRESS);
             final Locale locale = GlobalOperationHandlers.getLocale(context, operation);
-            final ModelNode nodeDescription = descriptionProvider.getModelDescription(locale);
+            final ModelNode nodeDescription = DescriptionCache.getResourceDescription(registry, locale, READ_RESOURCE_OPERATION,
+                    () -> registry.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(locale));
 
             if (nodeDescription.isDefined() && nodeDescription.hasDefined(ATTRIBUTES)) {
                 for (String key : nodeDescription.get(ATTRIBUTES).keys()) {
@@ -384,11 +397,11 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         }
     }
 
-    private boolean isSingletonResource(final ImmutableManagementResourceRegistration registry, final String key) {
+    private static boolean isSingletonResource(final ImmutableManagementResourceRegistration registry, final String key) {
         return registry.getSubModel(PathAddress.pathAddress(PathElement.pathElement(key))) == null;
     }
 
-    private boolean isGlobalAlias(final ImmutableManagementResourceRegistration registry, final String childName) {
+    private static boolean isGlobalAlias(final ImmutableManagementResourceRegistration registry, final String childName) {
         if(isSingletonResource(registry, childName)) {
             Set<PathElement> childrenPath = registry.getChildAddresses(PathAddress.EMPTY_ADDRESS);
             boolean found = false;
@@ -471,6 +484,242 @@ public class ReadResourceHandler extends GlobalOperationHandlers.AbstractMultiTa
         return result;
     }
 
+    /**
+     * Reads a resource and, if the read is recursive, its children in a single traversal of the model, without adding
+     * a step for each child resource and attribute. The result is the same as that assembled by the steps added by
+     * {@link #doExecuteInternal(OperationContext, ModelNode, boolean)} for a child resource.
+     * <p>
+     * Only subtrees whose attributes are all read from the model can be read this way, and only if nothing in them
+     * is filtered by authorization. If any resource in the subtree needs something else, e.g. a read handler, an
+     * overridden operation handler, a proxy or an authorization decision that has to be recorded in the
+     * {@link FilteredData}, {@link #read} returns {@code false} without recording anything, and the caller falls back
+     * to adding steps.
+     */
+    private static class DirectReader {
+
+        private static final Set<Action.ActionEffect> READ_EFFECTS = EnumSet.of(Action.ActionEffect.ADDRESS, Action.ActionEffect.READ_CONFIG);
+        private static final Set<Action.ActionEffect> ADDRESS_EFFECTS = EnumSet.of(Action.ActionEffect.ADDRESS);
+
+        private final OperationContext context;
+        private final ModelNode headers;
+        private final boolean queryRuntime;
+        private final boolean proxies;
+        private final boolean aliases;
+        private final boolean defaults;
+
+        private DirectReader(final OperationContext context, final ModelNode operation, final boolean queryRuntime,
+                             final boolean proxies, final boolean aliases, final boolean defaults) {
+            this.context = context;
+            // The steps would inherit these, and authorization depends on them, e.g. for run-as roles
+            this.headers = operation.hasDefined(OPERATION_HEADERS) ? operation.get(OPERATION_HEADERS) : null;
+            this.queryRuntime = queryRuntime;
+            this.proxies = proxies;
+            this.aliases = aliases;
+            this.defaults = defaults;
+        }
+
+        /**
+         * Reads a resource.
+         *
+         * @param operation the read-resource operation that would otherwise be executed for the resource
+         * @param address the address of the resource
+         * @param registry the registration of the resource
+         * @param result node to store the result in. Its content is undefined if {@code false} is returned
+         * @return {@code true} if the resource was read, {@code false} if steps must be used instead
+         */
+        boolean read(final ModelNode operation, final PathAddress address, final ImmutableManagementResourceRegistration registry,
+                     final ModelNode result) throws OperationFailedException {
+            if (registry.isRemote() || registry.isAlias() || hasOverride(registry)) {
+                return false;
+            }
+            // The checks made by the step on reading its registration and resource
+            copyHeaders(operation);
+            if (context.authorize(operation, READ_EFFECTS).getDecision() == AuthorizationResult.Decision.DENY) {
+                return false;
+            }
+            final Resource resource;
+            try {
+                resource = context.readResourceFromRoot(address, false);
+            } catch (Resource.NoSuchResourceException e) {
+                return false;
+            }
+
+            final Map<String, Set<String>> childrenByType = GlobalOperationHandlers.getChildAddresses(context, address, registry, resource, null);
+            final Map<AttributeDefinition.NameAndGroup, ModelNode> attributes = new TreeMap<>();
+            final ModelNode model = resource.getModel();
+
+            // Handle registered attributes
+            for (final String attributeName : registry.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+                final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+                if ((aliases || !access.getFlags().contains(AttributeAccess.Flag.ALIAS))
+                        && (queryRuntime || access.getStorageType() == AttributeAccess.Storage.CONFIGURATION)) {
+                    final AttributeDefinition ad = access.getAttributeDefinition();
+                    final AttributeDefinition.NameAndGroup nag = ad == null ? new AttributeDefinition.NameAndGroup(attributeName) : new AttributeDefinition.NameAndGroup(ad);
+                    if (!readAttribute(address, registry, model, nag, attributes)) {
+                        return false;
+                    }
+                }
+            }
+
+            // Any attributes stored in the model but without a registry entry
+            if (model.isDefined()) {
+                for (String key : model.keys()) {
+                    final AttributeDefinition.NameAndGroup nag = new AttributeDefinition.NameAndGroup(key);
+                    if (!attributes.containsKey(nag) && !childrenByType.containsKey(key)
+                            && !readAttribute(address, registry, model, nag, attributes)) {
+                        return false;
+                    }
+                }
+            }
+
+            // Unregistered attributes with a default in the resource description
+            if (defaults) {
+                final ModelNode nodeDescription = DescriptionCache.getResourceDescription(registry, null, READ_RESOURCE_OPERATION,
+                        () -> registry.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null));
+                if (nodeDescription.isDefined() && nodeDescription.hasDefined(ATTRIBUTES)) {
+                    final ModelNode attributeDescriptions = nodeDescription.get(ATTRIBUTES);
+                    for (String key : attributeDescriptions.keys()) {
+                        final AttributeDefinition.NameAndGroup nag = new AttributeDefinition.NameAndGroup(key);
+                        if (!childrenByType.containsKey(key) && !attributes.containsKey(nag)
+                                && attributeDescriptions.hasDefined(key) && attributeDescriptions.get(key).hasDefined(DEFAULT)
+                                && !readAttribute(address, registry, model, nag, attributes)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+
+            // Work out the children in the same way as for the steps, but without reading them yet, as the
+            // attributes come first in the result
+            final boolean recursive = GlobalOperationHandlers.getRecursive(context, operation);
+            final Set<String> nonExistentChildTypes = new HashSet<>();
+            final Map<String, ModelNode> directChildren = new HashMap<>();
+            final Map<String, Map<PathElement, ModelNode>> childOperations = new HashMap<>();
+            final Map<PathElement, ImmutableManagementResourceRegistration> childRegistrations = new HashMap<>();
+            for (Map.Entry<String, Set<String>> entry : childrenByType.entrySet()) {
+                final String childType = entry.getKey();
+                nonExistentChildTypes.add(childType);
+                if (!aliases && (entry.getValue() == null || entry.getValue().isEmpty())) {
+                    if (isGlobalAlias(registry, childType)) {
+                        nonExistentChildTypes.remove(childType);
+                    }
+                }
+                for (String child : entry.getValue()) {
+                    final PathElement childPE = PathElement.pathElement(childType, child);
+                    final PathAddress absoluteChildAddr = address.append(childPE);
+                    final ModelNode rrOp = Util.createEmptyOperation(READ_RESOURCE_OPERATION, absoluteChildAddr);
+                    if (recursive) {
+                        boolean getChild = false;
+                        final ImmutableManagementResourceRegistration childReg = registry.getSubModel(PathAddress.pathAddress(childPE));
+                        if (childReg != null) {
+                            final boolean proxy = childReg.isRemote();
+                            final boolean runtimeResource = childReg.isRuntimeOnly();
+                            getChild = !runtimeResource || (queryRuntime && !proxy) || (proxies && proxy);
+                            if (!aliases && childReg.isAlias()) {
+                                nonExistentChildTypes.remove(childType);
+                                getChild = false;
+                            }
+                        }
+                        if (getChild) {
+                            nonExistentChildTypes.remove(childType);
+                            GlobalOperationHandlers.setNextRecursive(context, operation, rrOp);
+                            rrOp.get(ModelDescriptionConstants.PROXIES).set(proxies);
+                            rrOp.get(ModelDescriptionConstants.INCLUDE_RUNTIME).set(queryRuntime);
+                            rrOp.get(ModelDescriptionConstants.INCLUDE_ALIASES).set(aliases);
+                            rrOp.get(ModelDescriptionConstants.INCLUDE_DEFAULTS).set(defaults);
+                            childOperations.computeIfAbsent(childType, k -> new LinkedHashMap<>()).put(childPE, rrOp);
+                            childRegistrations.put(childPE, childReg);
+                        }
+                    } else if (context.authorize(copyHeaders(rrOp), ADDRESS_EFFECTS).getDecision() == AuthorizationResult.Decision.DENY) {
+                        return false;
+                    } else {
+                        ModelNode childMap = directChildren.get(childType);
+                        if (childMap == null) {
+                            nonExistentChildTypes.remove(childType);
+                            childMap = new ModelNode();
+                            childMap.setEmptyObject();
+                            directChildren.put(childType, childMap);
+                        }
+                        childMap.get(child);
+                    }
+                }
+            }
+
+            // Assemble the result in the same order as ReadResourceAssemblyHandler, reading the children into it
+            result.setEmptyObject();
+            for (Map.Entry<AttributeDefinition.NameAndGroup, ModelNode> entry : attributes.entrySet()) {
+                result.get(entry.getKey().getName()).set(entry.getValue());
+            }
+            final Set<String> childTypes = new TreeSet<>(childOperations.keySet());
+            childTypes.addAll(directChildren.keySet());
+            childTypes.addAll(nonExistentChildTypes);
+            for (String childType : childTypes) {
+                if (nonExistentChildTypes.contains(childType)) {
+                    result.get(childType).set(new ModelNode());
+                } else if (directChildren.containsKey(childType)) {
+                    result.get(childType).set(directChildren.get(childType));
+                } else {
+                    final ModelNode childTypeNode = result.get(childType);
+                    for (Map.Entry<PathElement, ModelNode> child : childOperations.get(childType).entrySet()) {
+                        final PathElement childPE = child.getKey();
+                        if (!read(child.getValue(), address.append(childPE), childRegistrations.get(childPE), childTypeNode.get(childPE.getValue()))) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads an attribute as {@link ReadAttributeHandler} would for an attribute without a read handler.
+         */
+        private boolean readAttribute(final PathAddress address, final ImmutableManagementResourceRegistration registry, final ModelNode model,
+                                      final AttributeDefinition.NameAndGroup attributeKey,
+                                      final Map<AttributeDefinition.NameAndGroup, ModelNode> attributes) {
+            final String attributeName = attributeKey.getName();
+            final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+            if (access == null || access.getReadHandler() != null) {
+                return false;
+            }
+            final AttributeDefinition attribute = access.getAttributeDefinition();
+            final ModelNode value;
+            if (model.hasDefined(attributeName)) {
+                value = model.get(attributeName);
+            } else if (defaults && attribute.getDefaultValue() != null) {
+                value = attribute.getDefaultValue();
+            } else {
+                value = new ModelNode();
+            }
+            final ModelNode operation = copyHeaders(Util.getReadAttributeOperation(address, attributeName));
+            if (context.authorize(operation, attributeName, value).getDecision() == AuthorizationResult.Decision.DENY) {
+                return false;
+            }
+            attributes.put(attributeKey, value);
+            return true;
+        }
+
+        /**
+         * Copies the headers of the operation being executed onto an operation built for authorization, as
+         * {@link OperationContext#addStep} would for a step executing it.
+         */
+        private ModelNode copyHeaders(final ModelNode operation) {
+            if (headers != null) {
+                operation.get(OPERATION_HEADERS).set(headers);
+            }
+            return operation;
+        }
+
+        private static boolean hasOverride(final ImmutableManagementResourceRegistration registry) {
+            final OperationStepHandler readResource = registry.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_RESOURCE_OPERATION);
+            if (readResource != null && readResource.getClass() != ReadResourceHandler.class) {
+                return true;
+            }
+            final OperationStepHandler readAttribute = registry.getOperationHandler(PathAddress.EMPTY_ADDRESS, READ_ATTRIBUTE_OPERATION);
+            return readAttribute != null && readAttribute != ReadAttributeHandler.INSTANCE && readAttribute != ReadAttributeHandler.RESOLVE_INSTANCE;
+        }
+    }
+
     /**
      * Assembles the response to a read-resource request from the components gathered by earlier steps.
      */
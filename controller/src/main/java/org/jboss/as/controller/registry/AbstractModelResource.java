@@ -259,6 +259,51 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         }
     }
 
+    /**
+     * Copies the providers to the clone, sharing the child resources rather than cloning them. Only
+     * valid if {@link #hasOnlyDefaultProviders()} returns {@code true}.
+     *
+     * @param clone the resource the providers should be copied to
+     */
+    void copyProvidersSharingChildren(AbstractModelResource clone) {
+        synchronized (children) {
+            for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
+                clone.registerResourceProvider(entry.getKey(), ((DefaultResourceProvider) entry.getValue()).copySharingChildren());
+            }
+        }
+    }
+
+    /**
+     * Gets whether all children of this resource are stored by the default provider, i.e. no custom
+     * {@link ResourceProvider} has been registered that computes its children.
+     *
+     * @return {@code true} if the children are all plain registered resources
+     */
+    boolean hasOnlyDefaultProviders() {
+        synchronized (children) {
+            for (ResourceProvider provider : children.values()) {
+                if (!(provider instanceof DefaultResourceProvider)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Replaces an existing child with another resource, preserving the position of the child.
+     *
+     * @param address the address of the child. Cannot be {@code null}
+     * @param resource the replacement. Cannot be {@code null}
+     * @return {@code true} if the child was replaced; {@code false} if there is no such child or it is not
+     *         stored by the default provider
+     */
+    boolean replaceChild(final PathElement address, final Resource resource) {
+        final ResourceProvider provider = getProvider(address.getKey());
+        return provider instanceof DefaultResourceProvider
+                && ((DefaultResourceProvider) provider).replace(address.getValue(), resource);
+    }
+
     private static class DefaultResourceProvider implements ResourceProvider {
 
         private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
@@ -340,6 +385,25 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             }
         }
 
+        boolean replace(String name, Resource resource) {
+            synchronized (children) {
+                if (!children.containsKey(name)) {
+                    return false;
+                }
+                // LinkedHashMap keeps the original insertion position when an existing key is re-mapped
+                children.put(name, resource);
+                return true;
+            }
+        }
+
+        DefaultResourceProvider copySharingChildren() {
+            final DefaultResourceProvider provider = new DefaultResourceProvider();
+            synchronized (children) {
+                provider.children.putAll(children);
+            }
+            return provider;
+        }
+
         @Override
         public ResourceProvider clone() {
             final DefaultResourceProvider provider = new DefaultResourceProvider();
@@ -78,16 +78,33 @@ class BasicResource extends AbstractModelResource implements Resource {
     @Override
     public Resource clone() {
         final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes(), true);
+        copyModel(clone);
+        cloneProviders(clone);
+        return clone;
+    }
+
+    /**
+     * Creates a copy of this resource that has its own model and child registry but shares the
+     * child resources themselves with this resource.
+     *
+     * @return the copy. Will not return {@code null}
+     */
+    BasicResource copySharingChildren() {
+        final BasicResource copy = new BasicResource(isRuntime(), getOrderedChildTypes(), true);
+        copyModel(copy);
+        copyProvidersSharingChildren(copy);
+        return copy;
+    }
+
+    private void copyModel(final BasicResource target) {
         for (;;) {
             try {
-                clone.writeModel(model);
+                target.writeModel(model);
                 break;
             } catch (ConcurrentModificationException ignore) {
                 // TODO horrible hack :(
             }
         }
-        cloneProviders(clone);
-        return clone;
     }
 
 }
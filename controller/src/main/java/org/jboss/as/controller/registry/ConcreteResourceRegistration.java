@@ -129,6 +129,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     }
 
     void initialized() {
+        RegistrationModificationCount.increment();
         writeLock.unlock();
     }
 
@@ -165,6 +166,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         try {
             this.runtimeOnly = runtimeOnly;
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -256,6 +258,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 }
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -293,6 +296,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 constraintUtilizationRegistry.unregisterAccessConstraintUtilizations(getPathAddress().append(address));
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -404,6 +408,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -439,6 +444,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         try {
             attributes.remove(attributeName);
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -462,6 +468,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 notifications.put(type, entry);
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -480,6 +487,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 notifications.remove(notificationType);
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -526,6 +534,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             attributes.put(attributeName, aa);
             registerAttributeAccessConstraints(definition);
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -701,6 +710,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 capabilityRegistry.registerPossibleCapability(capability, getPathAddress());
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -717,6 +727,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 incorporatingCapabilities = Collections.unmodifiableSet(new HashSet<>(capabilities));
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -731,6 +742,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 this.requirements = Collections.unmodifiableSet(new HashSet<>(requirements));
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -776,6 +788,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 return newRegistry;
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -990,6 +1003,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 orderedChildTypes.add(type);
             }
         } finally {
+            RegistrationModificationCount.increment();
             writeLock.unlock();
         }
     }
@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.PathElement;
+
+/**
+ * A private, writable view of a published {@link Resource} tree that copies resources lazily, only along
+ * the paths that are actually modified.
+ * <p>
+ * The root of the tree is copied when the view is created, but its children are shared with the published
+ * tree. Each call to {@link #getChildForUpdate(Resource, PathElement, boolean)} copies the requested child
+ * (again sharing its own children) and replaces it in its already copied parent, so a write to a single
+ * resource only copies the resources between the root and the target. Callers that are handed a resource
+ * whose descendants they may navigate to and modify directly ask for the whole subtree, which is then
+ * fully {@link Resource#clone() cloned}, as it would be without this class.
+ * <p>
+ * Resources that cannot safely share their children (i.e. anything other than the standard implementation
+ * with no custom {@link ResourceProvider}s) are always fully cloned.
+ * <p>
+ * The published tree is never modified.
+ *
+ * <p>Concurrency note: this class is thread safe, but the resources it returns are not</p>
+ */
+public final class CopyOnWriteResourceTree {
+
+    /**
+     * The resources that are private to this tree. The value indicates whether the entire subtree below the
+     * resource is also private ({@code true}) or whether its children may still be shared ({@code false}).
+     */
+    private final Map<Resource, Boolean> owned = new IdentityHashMap<>();
+    private final Resource root;
+
+    /**
+     * Creates a writable view of the given published root resource.
+     *
+     * @param published the published root. Cannot be {@code null}
+     * @return the tree. Will not return {@code null}
+     */
+    public static CopyOnWriteResourceTree of(final Resource published) {
+        if (isPathCopyable(published)) {
+            return new CopyOnWriteResourceTree(((BasicResource) published).copySharingChildren(), false);
+        }
+        return new CopyOnWriteResourceTree(published.clone(), true);
+    }
+
+    /**
+     * Creates a view whose root is already entirely private to the caller, e.g. a resource that has
+     * already been fully cloned.
+     *
+     * @param root the root, which will not be copied. Cannot be {@code null}
+     * @return the tree. Will not return {@code null}
+     */
+    public static CopyOnWriteResourceTree ofPrivateCopy(final Resource root) {
+        return new CopyOnWriteResourceTree(root, true);
+    }
+
+    private CopyOnWriteResourceTree(final Resource root, final boolean wholeTreePrivate) {
+        this.root = root;
+        owned.put(root, wholeTreePrivate);
+    }
+
+    /**
+     * Gets the root of the tree. The root itself may be modified, but its children may not without first
+     * being obtained via {@link #getChildForUpdate(Resource, PathElement, boolean)}.
+     *
+     * @return the root. Will not return {@code null}
+     */
+    public Resource getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets the root of the tree, first ensuring that every resource in the tree is private to it.
+     *
+     * @return the root. Will not return {@code null}
+     */
+    public synchronized Resource getRootForWholeTreeUpdate() {
+        makeSubtreePrivate(root);
+        return root;
+    }
+
+    /**
+     * Gets a child of a resource in this tree, copying it and replacing it in its parent if it is still shared
+     * with the published tree.
+     *
+     * @param parent a resource previously obtained from this tree. Cannot be {@code null}
+     * @param element the address of the child relative to {@code parent}. Cannot be {@code null}
+     * @param wholeSubtree {@code true} if the caller may modify resources below the returned child directly,
+     *                     in which case all of them will be made private to this tree as well
+     * @return the writable child, or {@code null} if {@code parent} has no such child
+     */
+    public synchronized Resource getChildForUpdate(final Resource parent, final PathElement element, final boolean wholeSubtree) {
+        final Boolean parentState = owned.get(parent);
+        assert parentState != null : "parent is not part of this tree";
+        final Resource child = parent.getChild(element);
+        if (child == null) {
+            return null;
+        }
+        Resource result = child;
+        if (parentState) {
+            // The parent's subtree was already private, so the child is as well
+            owned.put(child, Boolean.TRUE);
+        } else {
+            final Boolean childState = owned.get(child);
+            if (childState == null) {
+                final Resource copy;
+                final boolean deep;
+                if (!wholeSubtree && isPathCopyable(child)) {
+                    copy = ((BasicResource) child).copySharingChildren();
+                    deep = false;
+                } else {
+                    copy = child.clone();
+                    deep = true;
+                }
+                if (!((AbstractModelResource) parent).replaceChild(element, copy)) {
+                    // Only path copyable resources have shallow state, so this cannot happen
+                    throw new IllegalStateException();
+                }
+                owned.put(copy, deep);
+                result = copy;
+            }
+        }
+        if (wholeSubtree) {
+            makeSubtreePrivate(result);
+        }
+        return result;
+    }
+
+    /**
+     * Records that a newly added resource, and anything below it, is private to this tree.
+     *
+     * @param added the resource that was added. Cannot be {@code null}
+     */
+    public synchronized void adopt(final Resource added) {
+        owned.put(added, Boolean.TRUE);
+    }
+
+    /**
+     * Gets a version of a resource removed from this tree that the caller can use without affecting the
+     * published tree.
+     *
+     * @param removed the resource that was removed. May be {@code null}
+     * @return a private version of {@code removed}, or {@code null} if {@code removed} was {@code null}
+     */
+    public synchronized Resource detach(final Resource removed) {
+        if (removed == null) {
+            return null;
+        }
+        final Boolean state = owned.remove(removed);
+        if (state != null && state) {
+            return removed;
+        }
+        return removed.clone();
+    }
+
+    private void makeSubtreePrivate(final Resource resource) {
+        final Boolean state = owned.get(resource);
+        if (state != null && state) {
+            return;
+        }
+        // Only path copied resources are owned but not deep, and those are standard resources
+        final AbstractModelResource shallow = (AbstractModelResource) resource;
+        for (String type : shallow.getChildTypes()) {
+            for (String name : shallow.getChildrenNames(type)) {
+                final PathElement element = PathElement.pathElement(type, name);
+                final Resource child = shallow.getChild(element);
+                if (child == null) {
+                    continue;
+                }
+                final Boolean childState = owned.get(child);
+                if (childState == null) {
+                    final Resource copy = child.clone();
+                    shallow.replaceChild(element, copy);
+                    owned.put(copy, Boolean.TRUE);
+                } else if (!childState) {
+                    makeSubtreePrivate(child);
+                }
+            }
+        }
+        owned.put(resource, Boolean.TRUE);
+    }
+
+    /**
+     * Gets whether the children of a published resource are fixed, i.e. whether the resource is the standard
+     * implementation whose children can only change by the resource being replaced with a copy in a newly
+     * published model. If so, finding the same instance in two published models means its set of children has
+     * not changed in between. The children of other resources, e.g. those computed by a custom
+     * {@link ResourceProvider}, may change at any time.
+     *
+     * @param resource the published resource. Cannot be {@code null}
+     * @return {@code true} if the resource's children only change by it being copied
+     */
+    public static boolean hasFixedChildren(final Resource resource) {
+        return isPathCopyable(resource);
+    }
+
+    private static boolean isPathCopyable(final Resource resource) {
+        return resource.getClass() == BasicResource.class && ((BasicResource) resource).hasOnlyDefaultProviders();
+    }
+}
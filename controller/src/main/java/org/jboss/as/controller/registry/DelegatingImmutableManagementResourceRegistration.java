@@ -56,6 +56,10 @@ public class DelegatingImmutableManagementResourceRegistration implements Immuta
         this.delegate = delegate;
     }
 
+    ImmutableManagementResourceRegistration getDelegate() {
+        return delegate;
+    }
+
     @Override
     public PathAddress getPathAddress() {
         return delegate.getPathAddress();
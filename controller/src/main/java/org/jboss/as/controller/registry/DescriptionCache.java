@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the descriptions of resources, operations and notifications resolved for a given locale, so that they are
+ * not rebuilt from the resource bundles for every {@code read-resource-description} and
+ * {@code read-operation-description} request.
+ * <p>
+ * Resource descriptions are cached per registration, so they are shared by all the resources that match a wildcard
+ * registration. Operation and notification descriptions are cached per {@link OperationEntry} and
+ * {@link NotificationEntry}, so inherited ones, such as the global operations, are shared by all the registrations
+ * that inherit them. The whole cache is discarded whenever a {@link RegistrationModificationCount registration is
+ * modified}, e.g. when an extension is added or removed.
+ * <p>
+ * The cached descriptions are {@link ModelNode#protect() protected} so they can be read concurrently; callers that
+ * need to modify a description must {@link ModelNode#clone() clone} it first.
+ *
+ * <p>Concurrency note: this class is thread safe</p>
+ */
+public final class DescriptionCache {
+
+    private static volatile Generation current = new Generation(-1);
+
+    private DescriptionCache() {
+    }
+
+    /**
+     * Gets the description of a resource, creating it if it is not cached.
+     *
+     * @param registration the registration of the resource
+     * @param locale the locale of the description, or {@code null} for the default locale
+     * @param variant identifies the options used by {@code factory} to create the description, other than the locale
+     * @param factory creates the description
+     * @return the protected description
+     */
+    public static ModelNode getResourceDescription(final ImmutableManagementResourceRegistration registration, final Locale locale,
+                                                   final String variant, final Supplier<ModelNode> factory) {
+        final ImmutableManagementResourceRegistration target = unwrap(registration);
+        // Only concrete registrations are kept for the lifetime of the model; aliases and proxies resolve their
+        // descriptions from elsewhere
+        if (!(target instanceof ConcreteResourceRegistration)) {
+            return protect(factory.get());
+        }
+        return get(new Key(target, locale, variant), factory);
+    }
+
+    /**
+     * Gets the description of an operation, creating it if it is not cached.
+     *
+     * @param entry the operation entry
+     * @param locale the locale of the description, or {@code null} for the default locale
+     * @return the protected description
+     */
+    public static ModelNode getOperationDescription(final OperationEntry entry, final Locale locale) {
+        return get(new Key(entry, locale, null), () -> entry.getDescriptionProvider().getModelDescription(locale));
+    }
+
+    /**
+     * Gets the description of a notification, creating it if it is not cached.
+     *
+     * @param entry the notification entry
+     * @param locale the locale of the description, or {@code null} for the default locale
+     * @return the protected description
+     */
+    public static ModelNode getNotificationDescription(final NotificationEntry entry, final Locale locale) {
+        return get(new Key(entry, locale, null), () -> entry.getDescriptionProvider().getModelDescription(locale));
+    }
+
+    private static ModelNode get(final Key key, final Supplier<ModelNode> factory) {
+        // Read the count first, so that a description created concurrently with a modification is discarded next time
+        final long modificationCount = RegistrationModificationCount.get();
+        Generation generation = current;
+        if (generation.modificationCount != modificationCount) {
+            generation = new Generation(modificationCount);
+            current = generation;
+        }
+        ModelNode description = generation.descriptions.get(key);
+        if (description == null) {
+            // Do not hold any lock while the description is created, as creating it may be slow
+            description = protect(factory.get());
+            final ModelNode existing = generation.descriptions.putIfAbsent(key, description);
+            if (existing != null) {
+                description = existing;
+            }
+        }
+        return description;
+    }
+
+    private static ImmutableManagementResourceRegistration unwrap(final ImmutableManagementResourceRegistration registration) {
+        ImmutableManagementResourceRegistration result = registration;
+        // Subclasses could change the description, so only unwrap the plain delegating registration
+        while (result != null && result.getClass() == DelegatingImmutableManagementResourceRegistration.class) {
+            result = ((DelegatingImmutableManagementResourceRegistration) result).getDelegate();
+        }
+        return result;
+    }
+
+    private static ModelNode protect(final ModelNode description) {
+        description.protect();
+        return description;
+    }
+
+    private static final class Generation {
+        private final long modificationCount;
+        private final Map<Key, ModelNode> descriptions = new ConcurrentHashMap<>();
+
+        private Generation(final long modificationCount) {
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    /**
+     * Identifies a description by the identity of the object it describes, the locale and the variant.
+     */
+    private static final class Key {
+        private final Object owner;
+        private final Locale locale;
+        private final String variant;
+
+        private Key(final Object owner, final Locale locale, final String variant) {
+            this.owner = owner;
+            this.locale = locale;
+            this.variant = variant;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            final Key key = (Key) o;
+            return owner == key.owner && (locale == null ? key.locale == null : locale.equals(key.locale))
+                    && (variant == null ? key.variant == null : variant.equals(key.variant));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(owner);
+            result = 31 * result + (locale == null ? 0 : locale.hashCode());
+            result = 31 * result + (variant == null ? 0 : variant.hashCode());
+            return result;
+        }
+    }
+}
@@ -138,12 +138,14 @@ final class NodeSubregistry {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
         //register(elementValue, newRegistry);
+        RegistrationModificationCount.increment();
         return newRegistry;
     }
 
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        RegistrationModificationCount.increment();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -152,12 +154,14 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        RegistrationModificationCount.increment();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        RegistrationModificationCount.increment();
     }
 
 
@@ -173,6 +177,7 @@ final class NodeSubregistry {
             for (Capability c : rr.getCapabilities(EMPTY_ITERATOR)) {
                 capabilityRegistry.removePossibleCapability(c, pa);
             }
+            RegistrationModificationCount.increment();
         }
     }
 
@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.controller.registry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the modifications made to any {@link ManagementResourceRegistration} in the process, so that information
+ * derived from registrations, such as resolved descriptions, can be cached until a registration changes.
+ * <p>
+ * Descriptions and operations can be inherited from parent registrations, so the count is not kept per registration.
+ * Registrations are rarely modified once the process has booted, so the coarser invalidation costs little.
+ * <p>
+ * The count is incremented after a modification is complete, so a cache that reads the count before deriving its
+ * information and stores the information along with that count will see the count change if a modification raced
+ * with it.
+ *
+ * <p>Concurrency note: this class is thread safe</p>
+ */
+public final class RegistrationModificationCount {
+
+    private static final AtomicLong COUNT = new AtomicLong();
+
+    private RegistrationModificationCount() {
+    }
+
+    /**
+     * Gets the number of modifications made to registrations so far.
+     *
+     * @return the count
+     */
+    public static long get() {
+        return COUNT.get();
+    }
+
+    static void increment() {
+        COUNT.incrementAndGet();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.capability.registry.CapabilityId;
+import org.jboss.as.controller.capability.registry.CapabilityScope;
+import org.jboss.as.controller.capability.registry.RegistrationPoint;
+import org.jboss.as.controller.capability.registry.RuntimeCapabilityRegistration;
+import org.jboss.as.controller.capability.registry.RuntimeRequirementRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that changes to a shadow copy of a {@link CapabilityRegistry} are published and rolled back correctly,
+ * and that incremental resolution finds the same problems as a full one.
+ */
+public class CapabilityRegistryShadowCopyTestCase {
+
+    private static final RuntimeCapability<Void> BASE = RuntimeCapability.Builder.of("org.wildfly.test.base").build();
+    private static final RuntimeCapability<Void> DEPENDENT = RuntimeCapability.Builder.of("org.wildfly.test.dependent")
+            .addRequirements(BASE.getName())
+            .build();
+    private static final RuntimeCapability<Void> OTHER = RuntimeCapability.Builder.of("org.wildfly.test.other").build();
+
+    private CapabilityRegistry published;
+    private CapabilityRegistry shadow;
+
+    @Before
+    public void setup() {
+        published = new CapabilityRegistry(true);
+        shadow = published.createShadowCopy();
+        register(shadow, BASE, "base");
+        register(shadow, DEPENDENT, "dependent");
+        assertTrue(resolve().isValid());
+        shadow.publish();
+    }
+
+    @Test
+    public void testPublish() {
+        register(shadow, OTHER, "other");
+        assertFalse(published.hasCapability(OTHER.getName(), CapabilityScope.GLOBAL));
+        assertTrue(resolve().isValid());
+        shadow.publish();
+        assertTrue(published.hasCapability(OTHER.getName(), CapabilityScope.GLOBAL));
+        assertEquals(3, published.getCapabilities().size());
+
+        shadow.removeCapability(OTHER.getName(), CapabilityScope.GLOBAL, address("other"));
+        assertTrue(resolve().isValid());
+        shadow.publish();
+        assertFalse(published.hasCapability(OTHER.getName(), CapabilityScope.GLOBAL));
+        assertEquals(2, published.getCapabilities().size());
+    }
+
+    @Test
+    public void testRemoveRequiredCapability() {
+        shadow.removeCapability(BASE.getName(), CapabilityScope.GLOBAL, address("base"));
+
+        CapabilityRegistry.CapabilityValidation validation = resolve();
+        assertFalse(validation.isValid());
+        assertEquals(validation.getMissingRequirements().keySet(),
+                shadow.resolveCapabilities(Resource.Factory.create(), false).getMissingRequirements().keySet());
+        assertTrue(validation.getMissingRequirements().containsKey(new CapabilityId(BASE.getName(), CapabilityScope.GLOBAL)));
+
+        shadow.rollback();
+        assertTrue(shadow.hasCapability(BASE.getName(), CapabilityScope.GLOBAL));
+        assertTrue(resolve().isValid());
+    }
+
+    @Test
+    public void testAddUnsatisfiedRequirement() {
+        shadow.registerAdditionalCapabilityRequirement(new RuntimeRequirementRegistration(OTHER.getName(),
+                DEPENDENT.getName(), CapabilityScope.GLOBAL, new RegistrationPoint(address("dependent"), null)));
+        assertFalse(resolve().isValid());
+
+        register(shadow, OTHER, "other");
+        assertTrue(resolve().isValid());
+        shadow.publish();
+
+        // The published requirement is now checked when the capability satisfying it is removed
+        shadow.removeCapability(OTHER.getName(), CapabilityScope.GLOBAL, address("other"));
+        assertFalse(resolve().isValid());
+        shadow.rollback();
+        assertTrue(resolve().isValid());
+    }
+
+    @Test
+    public void testDirectChangeToPublished() {
+        register(published, OTHER, "other");
+        shadow.removeCapability(BASE.getName(), CapabilityScope.GLOBAL, address("base"));
+        assertFalse(resolve().isValid());
+
+        shadow.rollback();
+        assertTrue(shadow.hasCapability(BASE.getName(), CapabilityScope.GLOBAL));
+        assertTrue(shadow.hasCapability(OTHER.getName(), CapabilityScope.GLOBAL));
+        assertTrue(resolve().isValid());
+    }
+
+    private CapabilityRegistry.CapabilityValidation resolve() {
+        return shadow.resolveCapabilities(Resource.Factory.create(), false, true);
+    }
+
+    private static void register(CapabilityRegistry registry, RuntimeCapability<Void> capability, String name) {
+        registry.registerCapability(new RuntimeCapabilityRegistration(capability, CapabilityScope.GLOBAL,
+                new RegistrationPoint(address(name), null)));
+    }
+
+    private static PathAddress address(String name) {
+        return PathAddress.pathAddress("subsystem", name);
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.test.TestUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the execution of read-only operations against a snapshot of the model, without the controller lock.
+ */
+public class SnapshotReadTestCase {
+
+    private static final long TIMEOUT = 30;
+
+    private ServiceContainer container;
+    private ModelControllerService service;
+    private ModelController controller;
+    private ExecutorService executor;
+
+    private final CountDownLatch writeStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseWrite = new CountDownLatch(1);
+    private final CountDownLatch firstRead = new CountDownLatch(1);
+    private final CountDownLatch releaseRead = new CountDownLatch(1);
+
+    @Before
+    public void setupController() throws InterruptedException {
+        executor = Executors.newCachedThreadPool();
+        container = ServiceContainer.Factory.create("test");
+        ServiceTarget target = container.subTarget();
+        service = new ModelControllerService();
+        target.addService(ServiceName.of("ModelController"), service).install();
+        service.awaitStartup(30, TimeUnit.SECONDS);
+        controller = service.getValue();
+        assertSuccess(controller.execute(Util.createEmptyOperation("setup", PathAddress.EMPTY_ADDRESS), null, null, null));
+    }
+
+    @After
+    public void shutdownServiceContainer() throws InterruptedException {
+        releaseWrite.countDown();
+        releaseRead.countDown();
+        executor.shutdownNow();
+        if (container != null) {
+            container.shutdown();
+            try {
+                container.awaitTermination(5, TimeUnit.SECONDS);
+            } finally {
+                container = null;
+            }
+        }
+    }
+
+    @Test
+    public void testReadOnlyOperationsBypassLock() throws Exception {
+        Future<ModelNode> write = startBlockingWrite();
+
+        // Flagged read-only, on its own or as all the steps of a composite
+        assertEquals(1, assertSuccess(service.executeWithLock(readAttribute("attr1"))).asInt());
+        ModelNode result = assertSuccess(service.executeWithLock(composite(readAttribute("attr1"), readAttribute("attr2"))));
+        assertEquals(1, result.get("step-1", RESULT).asInt());
+        assertEquals(2, result.get("step-2", RESULT).asInt());
+
+        // Anything else needs the lock, even if it only reads
+        assertFailed(service.executeWithLock(Util.createEmptyOperation("unflagged-read", PathAddress.EMPTY_ADDRESS)));
+        assertFailed(service.executeWithLock(composite(readAttribute("attr1"), Util.createEmptyOperation("unflagged-read", PathAddress.EMPTY_ADDRESS))));
+        assertFailed(service.executeWithLock(composite(readAttribute("attr1"), write(3))));
+
+        releaseWrite.countDown();
+        assertSuccess(write.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(10, assertSuccess(service.executeWithLock(Util.createEmptyOperation("unflagged-read", PathAddress.EMPTY_ADDRESS))).asInt());
+    }
+
+    @Test
+    public void testSnapshotNotAffectedByUncommittedWrite() throws Exception {
+        Future<ModelNode> write = startBlockingWrite();
+
+        ModelNode model = assertSuccess(controller.execute(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertEquals(1, model.get("attr1").asInt());
+        assertEquals(2, model.get("attr2").asInt());
+
+        releaseWrite.countDown();
+        assertSuccess(write.get(TIMEOUT, TimeUnit.SECONDS));
+        model = assertSuccess(controller.execute(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertEquals(10, model.get("attr1").asInt());
+        assertEquals(20, model.get("attr2").asInt());
+    }
+
+    @Test
+    public void testSnapshotConsistentAcrossConcurrentWrite() throws Exception {
+        Future<ModelNode> read = executor.submit(() -> controller.execute(
+                Util.createEmptyOperation("paused-read", PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertEquals(true, firstRead.await(TIMEOUT, TimeUnit.SECONDS));
+
+        // The read holds no lock, so the write can be published while it is in progress
+        assertSuccess(controller.execute(write(5), null, null, null));
+        releaseRead.countDown();
+
+        ModelNode result = assertSuccess(read.get(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(1, result.get(0).asInt());
+        assertEquals(2, result.get(1).asInt());
+
+        ModelNode model = assertSuccess(controller.execute(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertEquals(5, model.get("attr1").asInt());
+        assertEquals(5, model.get("attr2").asInt());
+    }
+
+    @Test
+    public void testReadResourceResultsAreCopies() throws Exception {
+        assertSuccess(controller.execute(Util.createEmptyOperation("mutating-read", PathAddress.EMPTY_ADDRESS), null, null, null));
+
+        ModelNode model = assertSuccess(controller.execute(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertEquals(1, model.get("attr1").asInt());
+        assertEquals(2, model.get("attr2").asInt());
+    }
+
+    private Future<ModelNode> startBlockingWrite() throws InterruptedException {
+        Future<ModelNode> write = executor.submit(() -> controller.execute(
+                Util.createEmptyOperation("blocking-write", PathAddress.EMPTY_ADDRESS), null, null, null));
+        assertEquals(true, writeStarted.await(TIMEOUT, TimeUnit.SECONDS));
+        return write;
+    }
+
+    private static ModelNode readAttribute(String name) {
+        ModelNode op = Util.createEmptyOperation(READ_ATTRIBUTE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        op.get(NAME).set(name);
+        return op;
+    }
+
+    private static ModelNode write(int value) {
+        ModelNode op = Util.createEmptyOperation("write", PathAddress.EMPTY_ADDRESS);
+        op.get("value").set(value);
+        return op;
+    }
+
+    private static ModelNode composite(ModelNode... steps) {
+        ModelNode op = Util.createEmptyOperation(COMPOSITE, PathAddress.EMPTY_ADDRESS);
+        for (ModelNode step : steps) {
+            op.get(STEPS).add(step);
+        }
+        return op;
+    }
+
+    private static ModelNode assertSuccess(ModelNode response) {
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+        return response.get(RESULT);
+    }
+
+    private static void assertFailed(ModelNode response) {
+        assertEquals(response.toString(), FAILED, response.get(OUTCOME).asString());
+    }
+
+    private class ModelControllerService extends TestModelControllerService {
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerOperationHandler(getOD(COMPOSITE), CompositeOperationHandler.INSTANCE, true);
+            rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attr1", ModelType.INT), null);
+            rootRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attr2", ModelType.INT), null);
+
+            rootRegistration.registerOperationHandler(getOD("setup"), (context, operation) -> {
+                ModelNode model = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel();
+                model.get("attr1").set(1);
+                model.get("attr2").set(2);
+            });
+            rootRegistration.registerOperationHandler(getOD("write"), (context, operation) -> {
+                ModelNode model = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel();
+                model.get("attr1").set(operation.get("value"));
+                model.get("attr2").set(operation.get("value"));
+            });
+            // Holds the controller lock with an uncommitted change until released
+            rootRegistration.registerOperationHandler(getOD("blocking-write"), (context, operation) -> {
+                ModelNode model = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS).getModel();
+                model.get("attr1").set(10);
+                model.get("attr2").set(20);
+                writeStarted.countDown();
+                await(releaseWrite);
+            });
+            rootRegistration.registerOperationHandler(getOD("unflagged-read"), (context, operation) ->
+                    context.getResult().set(context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1")));
+            // Reads the two attributes, pausing in between until released
+            rootRegistration.registerOperationHandler(getODBuilder("paused-read").setReadOnly().build(), (context, operation) -> {
+                ModelNode result = context.getResult();
+                result.add(context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1"));
+                firstRead.countDown();
+                await(releaseRead);
+                result.add(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr2"));
+            });
+            // Modifies what it reads, which must not affect the snapshot or the published model
+            rootRegistration.registerOperationHandler(getODBuilder("mutating-read").setReadOnly().build(), (context, operation) -> {
+                context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1").set(99);
+                context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS).getModel().get("attr2").set(99);
+                context.getResult().set(context.readResource(PathAddress.EMPTY_ADDRESS).getModel().get("attr1"));
+            });
+        }
+
+        ModelNode executeWithLock(ModelNode operation) {
+            return internalExecute(OperationBuilder.create(operation).build(), OperationMessageHandler.DISCARD,
+                    ModelController.OperationTransactionControl.COMMIT, new PrepareHandler(), true).getResponseNode();
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws OperationFailedException {
+        try {
+            if (!latch.await(TIMEOUT, TimeUnit.SECONDS)) {
+                throw new OperationFailedException("Not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException(e);
+        }
+    }
+
+    /**
+     * Adds the step for the operation, as the controller's default prepare step does.
+     */
+    private static class PrepareHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            OperationEntry entry = context.getRootResourceRegistration().getOperationEntry(context.getCurrentAddress(), operation.require(OP).asString());
+            if (entry == null) {
+                throw new OperationFailedException("No handler for " + operation.get(OP));
+            }
+            context.addModelStep(entry.getOperationDefinition(), entry.getOperationHandler(), false);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.access.permission;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.security.PermissionCollection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.jboss.as.controller.access.Action;
+import org.jboss.as.controller.access.AuthorizationResult;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
+import org.jboss.as.controller.access.constraint.Constraint;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link AuthorizationDecisionCache}.
+ */
+public class AuthorizationDecisionCacheTestCase {
+
+    private static final Constraint ALLOWED = new TestConstraint(true);
+    private static final Constraint DISALLOWED = new TestConstraint(false);
+
+    private final AtomicInteger decisions = new AtomicInteger();
+    private final BiFunction<PermissionCollection, PermissionCollection, AuthorizationResult> decider = (user, required) -> {
+        decisions.incrementAndGet();
+        return user.implies(required.elements().nextElement())
+                ? AuthorizationResult.PERMITTED
+                : new AuthorizationResult(AuthorizationResult.Decision.DENY, new ModelNode("denied"));
+    };
+
+    private AuthorizationDecisionCache cache;
+    private PermissionCollection user;
+
+    @Before
+    public void setUp() {
+        cache = new AuthorizationDecisionCache();
+        user = collection(new SimpleManagementPermission(Action.ActionEffect.READ_CONFIG, ALLOWED));
+    }
+
+    @Test
+    public void testSameConstraintsShareDecision() {
+        assertSame(AuthorizationResult.PERMITTED, cache.authorize(user, required(ALLOWED), decider));
+        assertSame(AuthorizationResult.PERMITTED, cache.authorize(user, required(ALLOWED), decider));
+        assertEquals(1, decisions.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        assertEquals(AuthorizationResult.Decision.DENY, cache.authorize(user, required(DISALLOWED), decider).getDecision());
+        assertEquals(AuthorizationResult.Decision.DENY, cache.authorize(user, required(DISALLOWED), decider).getDecision());
+        assertEquals(2, decisions.get());
+    }
+
+    @Test
+    public void testDifferentUserPermissions() {
+        PermissionCollection other = collection(new SimpleManagementPermission(Action.ActionEffect.READ_CONFIG, DISALLOWED));
+        assertEquals(AuthorizationResult.Decision.PERMIT, cache.authorize(user, required(ALLOWED), decider).getDecision());
+        assertEquals(AuthorizationResult.Decision.DENY, cache.authorize(other, required(ALLOWED), decider).getDecision());
+        assertEquals(2, decisions.get());
+    }
+
+    @Test
+    public void testInvalidation() {
+        cache.authorize(user, required(ALLOWED), decider);
+        AuthorizerModificationCount.increment();
+        cache.authorize(user, required(ALLOWED), decider);
+        assertEquals(2, decisions.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private static PermissionCollection required(Constraint constraint) {
+        return collection(new SimpleManagementPermission(Action.ActionEffect.READ_CONFIG, constraint));
+    }
+
+    private static PermissionCollection collection(SimpleManagementPermission permission) {
+        ManagementPermissionCollection result = new ManagementPermissionCollection(SimpleManagementPermission.class);
+        result.add(permission);
+        return result;
+    }
+
+    private static final class TestConstraint implements Constraint {
+        private final boolean allowed;
+
+        private TestConstraint(boolean allowed) {
+            this.allowed = allowed;
+        }
+
+        @Override
+        public boolean violates(Constraint other, Action.ActionEffect actionEffect) {
+            return other instanceof TestConstraint && this.allowed != ((TestConstraint) other).allowed;
+        }
+
+        @Override
+        public boolean replaces(Constraint other) {
+            return false;
+        }
+    }
+}
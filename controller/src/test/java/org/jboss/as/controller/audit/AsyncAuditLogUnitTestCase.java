@@ -0,0 +1,259 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext.ResultAction;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ManagedAuditLoggerImpl} writing items asynchronously.
+ */
+public class AsyncAuditLogUnitTestCase {
+
+    private static final String HANDLER = "test";
+
+    @Test
+    public void testItemsAreWrittenInOrder() throws Exception {
+        ManagedAuditLoggerImpl auditLogger = new ManagedAuditLoggerImpl("1.0", true, 4, false);
+        TestHandler handler = new TestHandler();
+        addHandler(auditLogger, handler);
+
+        for (int i = 0; i < 50; i++) {
+            log(auditLogger, i);
+        }
+        handler.awaitItems(50);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(String.valueOf(i), handler.getItems().get(i));
+        }
+        assertEquals(0, auditLogger.getQueuedItemCount());
+        assertEquals(0, auditLogger.getDiscardedItemCount());
+        auditLogger.shutdown();
+    }
+
+    @Test
+    public void testDiscardWhenFull() throws Exception {
+        ManagedAuditLoggerImpl auditLogger = new ManagedAuditLoggerImpl("1.0", true, 2, true);
+        TestHandler handler = new TestHandler();
+        addHandler(auditLogger, handler);
+        // The first item applies the handler changes
+        log(auditLogger, 0);
+        handler.awaitItems(1);
+
+        handler.block();
+        log(auditLogger, 1);
+        // Wait for the writer to take the item, so that the queue is empty again
+        handler.awaitWriting();
+        log(auditLogger, 2);
+        log(auditLogger, 3);
+        log(auditLogger, 4);
+        log(auditLogger, 5);
+        assertEquals(2, auditLogger.getQueuedItemCount());
+        assertEquals(2, auditLogger.getDiscardedItemCount());
+
+        handler.unblock();
+        handler.awaitItems(4);
+        assertEquals(4, handler.getItems().size());
+        assertEquals("3", handler.getItems().get(3));
+        assertEquals(0, auditLogger.getQueuedItemCount());
+        auditLogger.shutdown();
+    }
+
+    @Test
+    public void testListLastEntriesIncludesQueuedItems() throws Exception {
+        ManagedAuditLoggerImpl auditLogger = new ManagedAuditLoggerImpl("1.0", true, 4, false);
+        TestHandler handler = new TestHandler();
+        addHandler(auditLogger, handler);
+        log(auditLogger, 0);
+        handler.awaitItems(1);
+
+        handler.block();
+        log(auditLogger, 1);
+        handler.awaitWriting();
+        // Queued while the writer is busy with item 1, and only written by the flush in listLastEntries, as the
+        // lister holds the queue while it waits for the writer
+        log(auditLogger, 2);
+        FutureTask<List<ModelNode>> lister = new FutureTask<>(() -> auditLogger.listLastEntries(HANDLER));
+        new Thread(lister).start();
+        handler.unblock();
+        List<ModelNode> entries = lister.get(10, TimeUnit.SECONDS);
+        assertEquals(3, entries.size());
+        assertEquals("2", entries.get(2).asString());
+        auditLogger.shutdown();
+    }
+
+    @Test
+    public void testShutdownStopsWriter() throws Exception {
+        ManagedAuditLoggerImpl auditLogger = new ManagedAuditLoggerImpl("1.0", true, 4, false);
+        TestHandler handler = new TestHandler();
+        addHandler(auditLogger, handler);
+        int writers = countWriterThreads();
+
+        log(auditLogger, 0);
+        handler.awaitItems(1);
+        assertEquals(writers + 1, countWriterThreads());
+
+        handler.block();
+        log(auditLogger, 1);
+        handler.awaitWriting();
+        log(auditLogger, 2);
+        handler.unblock();
+        auditLogger.shutdown();
+        // Everything logged before the shutdown has been written, and the writer is gone
+        assertEquals(3, handler.getItems().size());
+        assertEquals(writers, countWriterThreads());
+
+        // A controller that is restarted keeps using the logger
+        log(auditLogger, 3);
+        handler.awaitItems(4);
+        auditLogger.shutdown();
+        assertEquals(writers, countWriterThreads());
+        assertEquals("3", handler.getItems().get(3));
+    }
+
+    private static int countWriterThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().equals("management-audit-log-writer")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void addHandler(ManagedAuditLoggerImpl auditLogger, TestHandler handler) {
+        auditLogger.addFormatter(handler.formatter);
+        auditLogger.getUpdater().addHandler(handler);
+        auditLogger.getUpdater().addHandlerReference(PathAddress.pathAddress(PathElement.pathElement("handler", HANDLER)));
+        auditLogger.setLoggerStatus(AuditLogger.Status.LOGGING);
+        auditLogger.bootDone();
+    }
+
+    private static void log(ManagedAuditLoggerImpl auditLogger, int i) {
+        auditLogger.log(false, ResultAction.KEEP, String.valueOf(i), null, null, null, null,
+                Collections.singletonList(new ModelNode()));
+    }
+
+    private static class TestHandler extends AuditLogHandler {
+        private final AuditLogItemFormatter formatter;
+        private final List<String> items = new ArrayList<>();
+        private volatile CountDownLatch writing = new CountDownLatch(1);
+        private volatile CountDownLatch blocked = new CountDownLatch(0);
+
+        TestHandler() {
+            super(HANDLER, "test-formatter", 0);
+            formatter = new AuditLogItemFormatter("test-formatter", false, "", "yyyy-MM-dd") {
+                @Override
+                String formatAuditLogItem(AuditLogItem.ModelControllerAuditLogItem item) {
+                    return item.getUserId();
+                }
+
+                @Override
+                String formatAuditLogItem(AuditLogItem.JmxAccessAuditLogItem item) {
+                    return item.getUserId();
+                }
+            };
+            setFormatter(formatter);
+        }
+
+        void block() {
+            writing = new CountDownLatch(1);
+            blocked = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            blocked.countDown();
+        }
+
+        void awaitWriting() throws InterruptedException {
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+        }
+
+        synchronized void awaitItems(int count) throws InterruptedException {
+            long end = System.currentTimeMillis() + 10000;
+            while (items.size() < count) {
+                long wait = end - System.currentTimeMillis();
+                assertTrue("Timed out waiting for " + count + " items", wait > 0);
+                wait(wait);
+            }
+        }
+
+        synchronized List<String> getItems() {
+            return new ArrayList<>(items);
+        }
+
+        @Override
+        void writeFormattedLogItems(List<String> formattedItems) throws IOException {
+            writing.countDown();
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            synchronized (this) {
+                items.addAll(formattedItems);
+                notifyAll();
+            }
+        }
+
+        @Override
+        void writeLogItem(String formattedItem) throws IOException {
+            writeFormattedLogItems(Collections.singletonList(formattedItem));
+        }
+
+        @Override
+        synchronized List<ModelNode> listLastEntries() {
+            List<ModelNode> entries = new ArrayList<>();
+            for (String item : items) {
+                entries.add(new ModelNode(item));
+            }
+            return entries;
+        }
+
+        @Override
+        boolean isDifferent(AuditLogHandler other) {
+            return other != this;
+        }
+
+        @Override
+        void initialize() {
+        }
+
+        @Override
+        void stop() {
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.controller.PathElement;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link CopyOnWriteResourceTree}.
+ */
+public class CopyOnWriteResourceTreeUnitTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement CHILD_1 = PathElement.pathElement("child", "1");
+    private static final PathElement CHILD_2 = PathElement.pathElement("child", "2");
+    private static final PathElement CHILD_3 = PathElement.pathElement("child", "3");
+
+    private Resource published;
+
+    @Before
+    public void setUp() {
+        published = Resource.Factory.create();
+        published.getModel().get("attr").set("root");
+        for (PathElement subsystem : Arrays.asList(SUBSYSTEM_A, SUBSYSTEM_B)) {
+            Resource resource = Resource.Factory.create();
+            resource.getModel().get("attr").set(subsystem.getValue());
+            for (PathElement child : Arrays.asList(CHILD_1, CHILD_2, CHILD_3)) {
+                Resource childResource = Resource.Factory.create();
+                childResource.getModel().get("attr").set(child.getValue());
+                resource.registerChild(child, childResource);
+            }
+            published.registerChild(subsystem, resource);
+        }
+    }
+
+    @Test
+    public void testOnlyPathIsCopied() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.of(published);
+        Resource root = tree.getRoot();
+        assertNotSame(published, root);
+        assertSame(published.getChild(SUBSYSTEM_A), root.getChild(SUBSYSTEM_A));
+
+        Resource a = tree.getChildForUpdate(root, SUBSYSTEM_A, false);
+        assertNotSame(published.getChild(SUBSYSTEM_A), a);
+        assertSame(a, root.getChild(SUBSYSTEM_A));
+        // Siblings are still shared
+        assertSame(published.getChild(SUBSYSTEM_B), root.getChild(SUBSYSTEM_B));
+        assertSame(published.getChild(SUBSYSTEM_A).getChild(CHILD_2), a.getChild(CHILD_2));
+
+        Resource child = tree.getChildForUpdate(a, CHILD_2, false);
+        child.getModel().get("attr").set("changed");
+        assertEquals("2", published.getChild(SUBSYSTEM_A).getChild(CHILD_2).getModel().get("attr").asString());
+        assertEquals("changed", root.getChild(SUBSYSTEM_A).getChild(CHILD_2).getModel().get("attr").asString());
+
+        // A second request returns the same copy
+        assertSame(a, tree.getChildForUpdate(root, SUBSYSTEM_A, false));
+        assertSame(child, tree.getChildForUpdate(a, CHILD_2, false));
+    }
+
+    @Test
+    public void testChildOrderIsPreserved() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.of(published);
+        Resource root = tree.getRoot();
+        Resource a = tree.getChildForUpdate(root, SUBSYSTEM_A, false);
+        tree.getChildForUpdate(a, CHILD_1, false);
+        assertEquals(Arrays.asList("a", "b"), Arrays.asList(root.getChildrenNames("subsystem").toArray()));
+        assertEquals(Arrays.asList("1", "2", "3"), Arrays.asList(a.getChildrenNames("child").toArray()));
+    }
+
+    @Test
+    public void testWholeSubtree() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.of(published);
+        Resource root = tree.getRoot();
+        Resource a = tree.getChildForUpdate(root, SUBSYSTEM_A, false);
+        Resource child1 = tree.getChildForUpdate(a, CHILD_1, false);
+
+        assertSame(a, tree.getChildForUpdate(root, SUBSYSTEM_A, true));
+        // The existing copy is retained, the others are now private as well
+        assertSame(child1, a.getChild(CHILD_1));
+        a.getChild(CHILD_3).getModel().get("attr").set("changed");
+        assertEquals("3", published.getChild(SUBSYSTEM_A).getChild(CHILD_3).getModel().get("attr").asString());
+        assertSame(published.getChild(SUBSYSTEM_B), root.getChild(SUBSYSTEM_B));
+
+        Resource wholeRoot = tree.getRootForWholeTreeUpdate();
+        assertSame(root, wholeRoot);
+        assertNotSame(published.getChild(SUBSYSTEM_B), root.getChild(SUBSYSTEM_B));
+        assertSame(a, root.getChild(SUBSYSTEM_A));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.of(published);
+        Resource root = tree.getRoot();
+        Resource b = tree.getChildForUpdate(root, SUBSYSTEM_B, false);
+
+        Resource removed = tree.detach(b.removeChild(CHILD_1));
+        assertNotSame(published.getChild(SUBSYSTEM_B).getChild(CHILD_1), removed);
+        assertTrue(published.getChild(SUBSYSTEM_B).hasChild(CHILD_1));
+        assertFalse(b.hasChild(CHILD_1));
+
+        Resource added = Resource.Factory.create();
+        b.registerChild(PathElement.pathElement("child", "4"), added);
+        tree.adopt(added);
+        assertSame(added, tree.getChildForUpdate(b, PathElement.pathElement("child", "4"), true));
+        assertFalse(published.getChild(SUBSYSTEM_B).hasChild(PathElement.pathElement("child", "4")));
+
+        assertNull(tree.getChildForUpdate(b, PathElement.pathElement("child", "5"), false));
+    }
+
+    @Test
+    public void testCustomResourcesAreCloned() {
+        Resource custom = new DelegatingResource(Resource.Factory.create());
+        published.registerChild(PathElement.pathElement("custom", "x"), custom);
+        CopyOnWriteResourceTree tree = CopyOnWriteResourceTree.of(published);
+        Resource copy = tree.getChildForUpdate(tree.getRoot(), PathElement.pathElement("custom", "x"), false);
+        assertNotSame(custom, copy);
+        assertEquals(Collections.emptySet(), copy.getChildTypes());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.jboss.as.controller.PathElement.pathElement;
+import static org.jboss.as.controller.registry.CoreManagementResourceRegistrationUnitTestCase.getOpDef;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DescriptionCache}.
+ */
+public class DescriptionCacheUnitTestCase {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private ManagementResourceRegistration root;
+    private ManagementResourceRegistration child;
+
+    @Before
+    public void setUp() {
+        NonResolvingResourceDescriptionResolver resolver = NonResolvingResourceDescriptionResolver.INSTANCE;
+        root = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(ResourceBuilder.Factory.create(pathElement("test"), resolver).build());
+        root.registerOperationHandler(getOpDef("global"), (context, operation) -> {}, true);
+        child = root.registerSubModel(new SimpleResourceDefinition(pathElement("child"), resolver));
+    }
+
+    @Test
+    public void testResourceDescriptionIsCached() {
+        ModelNode description = DescriptionCache.getResourceDescription(child, Locale.ENGLISH, "a", factory());
+        assertEquals(1, created.get());
+        // Resources matching the wildcard registration share the description, whichever wrapper they are read through
+        assertSame(description, DescriptionCache.getResourceDescription(root.getSubModel(PathAddress.pathAddress("child", "one")),
+                Locale.ENGLISH, "a", factory()));
+        assertSame(description, DescriptionCache.getResourceDescription(new DelegatingImmutableManagementResourceRegistration(child),
+                Locale.ENGLISH, "a", factory()));
+        assertEquals(1, created.get());
+
+        assertNotSame(description, DescriptionCache.getResourceDescription(child, Locale.GERMAN, "a", factory()));
+        assertNotSame(description, DescriptionCache.getResourceDescription(child, Locale.ENGLISH, "b", factory()));
+        assertNotSame(description, DescriptionCache.getResourceDescription(root, Locale.ENGLISH, "a", factory()));
+        assertEquals(4, created.get());
+    }
+
+    @Test
+    public void testModificationInvalidatesCache() {
+        ModelNode description = DescriptionCache.getResourceDescription(child, null, null, factory());
+        child.registerSubModel(new SimpleResourceDefinition(pathElement("grandchild"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        assertNotSame(description, DescriptionCache.getResourceDescription(child, null, null, factory()));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testInheritedOperationDescriptionIsShared() {
+        OperationEntry rootEntry = root.getOperationEntry(PathAddress.EMPTY_ADDRESS, "global");
+        OperationEntry childEntry = child.getOperationEntry(PathAddress.EMPTY_ADDRESS, "global");
+        ModelNode description = DescriptionCache.getOperationDescription(rootEntry, null);
+        assertEquals("global", description.get("operation-name").asString());
+        assertSame(description, DescriptionCache.getOperationDescription(childEntry, null));
+    }
+
+    @Test
+    public void testDescriptionIsProtected() {
+        ModelNode description = DescriptionCache.getResourceDescription(child, null, null, factory());
+        try {
+            description.get("other").set(true);
+            fail("Cached description was modified");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        ModelNode copy = description.clone();
+        copy.get("other").set(true);
+        assertEquals("value", copy.get("key").asString());
+    }
+
+    private Supplier<ModelNode> factory() {
+        return () -> {
+            created.incrementAndGet();
+            ModelNode result = new ModelNode();
+            result.get("key").set("value");
+            return result;
+        };
+    }
+}
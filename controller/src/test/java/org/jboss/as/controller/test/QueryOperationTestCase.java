@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATOR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WHERE;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.constraint.SensitivityClassification;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.access.rbac.StandardRole;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Tests that the query operation returns the same results whether a resource that cannot match is discarded before
+ * or after it is read.
+ */
+public class QueryOperationTestCase extends AbstractControllerTestBase {
+
+    private static final PathAddress ITEMS_ADDRESS = PathAddress.pathAddress(SUBSYSTEM, "test").append("item", "*");
+
+    private static final SensitiveTargetAccessConstraintDefinition SECRET_CONSTRAINT = new SensitiveTargetAccessConstraintDefinition(
+            new SensitivityClassification("test", "query-secret", false, true, true));
+
+    private final AtomicInteger metricReads = new AtomicInteger();
+    private final ModelNode model = new ModelNode();
+
+    public QueryOperationTestCase() {
+        ModelNode items = model.get(SUBSYSTEM, "test", "item");
+        items.get("a", "type").set("x");
+        items.get("a", "secret").set("s3cr3t");
+        items.get("b", "type").set("y");
+        items.get("c", "type").set("x");
+        items.get("c", "mode").set("manual");
+        items.get("d").setEmptyObject();
+    }
+
+    @Test
+    public void testQueryConfigurationAttribute() throws Exception {
+        ModelNode op = query();
+        op.get(WHERE, "type").set("x");
+
+        List<ModelNode> result = executeForResult(op).asList();
+        assertEquals(set("a", "c"), names(result));
+        for (ModelNode item : result) {
+            assertEquals(42, item.get(RESULT, "metric").asInt());
+        }
+        // Only the matching resources are read
+        assertEquals(2, metricReads.get());
+    }
+
+    @Test
+    public void testQueryDefaultValue() throws Exception {
+        ModelNode op = query();
+        op.get(WHERE, "mode").set("auto");
+        assertEquals(set("a", "b", "d"), names(executeForResult(op).asList()));
+        assertEquals(3, metricReads.get());
+
+        op.get(WHERE, "type").set("x");
+        assertEquals(set("a"), names(executeForResult(op).asList()));
+        assertEquals(4, metricReads.get());
+
+        op.get(OPERATOR).set("OR");
+        assertEquals(set("a", "b", "c", "d"), names(executeForResult(op).asList()));
+    }
+
+    @Test
+    public void testQueryUndefined() throws Exception {
+        ModelNode op = query();
+        op.get(WHERE, "type").set("undefined");
+        assertEquals(set("d"), names(executeForResult(op).asList()));
+        assertEquals(1, metricReads.get());
+    }
+
+    @Test
+    public void testQueryMetric() throws Exception {
+        ModelNode op = query();
+        op.get(WHERE, "metric").set(42);
+        // Runtime attributes can only be filtered once the resources are read
+        assertEquals(set("a", "b", "c", "d"), names(executeForResult(op).asList()));
+        assertEquals(4, metricReads.get());
+    }
+
+    @Test
+    public void testQuerySensitiveAttribute() throws Exception {
+        ModelNode op = query();
+        op.get(WHERE, "secret").set("s3cr3t");
+        assertEquals(set("a"), names(executeForResult(op).asList()));
+
+        // A role that cannot read the attribute must not be able to tell from the result which resources have
+        // a given value
+        op.get(OPERATION_HEADERS, ROLES).add(StandardRole.MONITOR.name());
+        assertEquals(set(), names(executeForResult(op).asList()));
+        op.get(WHERE, "secret").set("other");
+        assertEquals(set(), names(executeForResult(op).asList()));
+        op.get(WHERE, "secret").set("undefined");
+        assertEquals(set("a", "b", "c", "d"), names(executeForResult(op).asList()));
+    }
+
+    private static ModelNode query() {
+        return Util.createEmptyOperation(QUERY, ITEMS_ADDRESS);
+    }
+
+    private static Set<String> names(List<ModelNode> result) {
+        Set<String> names = new TreeSet<>();
+        for (ModelNode item : result) {
+            names.add(PathAddress.pathAddress(item.get(ADDRESS)).getLastElement().getValue());
+        }
+        return names;
+    }
+
+    private static Set<String> set(String... names) {
+        return new TreeSet<>(Arrays.asList(names));
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+        registration.registerOperationHandler(TestUtils.SETUP_OPERATION_DEF, (context, operation) -> createModel(context, model));
+
+        NonResolvingResourceDescriptionResolver resolver = NonResolvingResourceDescriptionResolver.INSTANCE;
+        ManagementResourceRegistration subsystem = registration.registerSubModel(
+                new SimpleResourceDefinition(PathElement.pathElement(SUBSYSTEM, "test"), resolver));
+
+        ManagementResourceRegistration item = subsystem.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("item"), resolver));
+        item.registerReadOnlyAttribute(TestUtils.createNillableAttribute("type", ModelType.STRING), null);
+        item.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("mode", ModelType.STRING, true)
+                .setDefaultValue(new ModelNode("auto"))
+                .build(), null);
+        item.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("secret", ModelType.STRING, true)
+                .setAccessConstraints(SECRET_CONSTRAINT)
+                .build(), null);
+        item.registerMetric(TestUtils.createAttribute("metric", ModelType.INT, true), (context, operation) -> {
+            metricReads.incrementAndGet();
+            context.getResult().set(42);
+        });
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_CONTROL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FILTERED_ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_DEFAULTS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.constraint.SensitivityClassification;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.access.rbac.StandardRole;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Tests that a recursive read-resource produces the same result whether children are read directly from the model
+ * or, where they need read handlers, by their own steps.
+ */
+public class RecursiveReadResourceTestCase extends AbstractControllerTestBase {
+
+    private static final PathAddress SUBSYSTEM_ADDRESS = PathAddress.pathAddress(SUBSYSTEM, "test");
+
+    private static final SensitiveTargetAccessConstraintDefinition SECRET_CONSTRAINT = new SensitiveTargetAccessConstraintDefinition(
+            new SensitivityClassification("test", "recursive-read-secret", false, true, true));
+
+    private final AtomicInteger metricReads = new AtomicInteger();
+    private final ModelNode model = new ModelNode();
+
+    public RecursiveReadResourceTestCase() {
+        ModelNode subsystem = model.get(SUBSYSTEM, "test");
+        subsystem.get("value").set("subsystem");
+        subsystem.get("item", "a", "value").set("A");
+        subsystem.get("item", "a", "secret").set("s3cr3t");
+        subsystem.get("item", "a", "nested", "x").setEmptyObject();
+        subsystem.get("item", "b").setEmptyObject();
+        subsystem.get("runtime-item", "r").setEmptyObject();
+    }
+
+    @Test
+    public void testRecursiveRead() throws Exception {
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM_ADDRESS);
+        op.get(RECURSIVE).set(true);
+
+        ModelNode expected = new ModelNode();
+        expected.get("value").set("subsystem");
+        expected.get("item", "a").set(item("A", "default"));
+        expected.get("item", "a", "secret").set("s3cr3t");
+        expected.get("item", "a", "nested", "x").setEmptyObject();
+        // value is stored as a runtime attribute, so it is only included for item=a, which has it in its model
+        expected.get("item", "b", "default").set("default");
+        expected.get("item", "b", "secret");
+        expected.get("item", "b", "nested");
+        expected.get("runtime-item");
+        assertEquals(expected, executeForResult(op));
+        assertEquals(0, metricReads.get());
+
+        op.get(INCLUDE_DEFAULTS).set(false);
+        expected.get("item", "a", "default").set(new ModelNode());
+        expected.get("item", "b", "default").set(new ModelNode());
+        assertEquals(expected, executeForResult(op));
+    }
+
+    @Test
+    public void testRecursiveReadWithRuntime() throws Exception {
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM_ADDRESS);
+        op.get(RECURSIVE).set(true);
+        op.get(INCLUDE_RUNTIME).set(true);
+
+        ModelNode result = executeForResult(op);
+        assertEquals("A", result.get("item", "a", "value").asString());
+        assertEquals(new ModelNode().setEmptyObject(), result.get("item", "a", "nested", "x"));
+        // The runtime resource is read by its own step, so its read handler is invoked
+        assertEquals(42, result.get("runtime-item", "r", "metric").asInt());
+        assertEquals(1, metricReads.get());
+    }
+
+    @Test
+    public void testRecursiveDepth() throws Exception {
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM_ADDRESS);
+        op.get(RECURSIVE_DEPTH).set(1);
+
+        ModelNode result = executeForResult(op);
+        assertEquals("A", result.get("item", "a", "value").asString());
+        // Children of the items are only listed
+        ModelNode nested = new ModelNode();
+        nested.get("x");
+        assertEquals(nested, result.get("item", "a", "nested"));
+    }
+
+    @Test
+    public void testSameResultAsNonRecursiveReads() throws Exception {
+        for (boolean includeRuntime : new boolean[] {false, true}) {
+            for (boolean includeDefaults : new boolean[] {false, true}) {
+                ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM_ADDRESS);
+                op.get(RECURSIVE).set(true);
+                op.get(INCLUDE_RUNTIME).set(includeRuntime);
+                op.get(INCLUDE_DEFAULTS).set(includeDefaults);
+
+                ModelNode expected = readEachResource(SUBSYSTEM_ADDRESS, includeRuntime, includeDefaults, null);
+                assertEquals("include-runtime=" + includeRuntime + ", include-defaults=" + includeDefaults,
+                        expected, executeForResult(op));
+            }
+        }
+    }
+
+    @Test
+    public void testRecursiveReadWithRestrictedRole() throws Exception {
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, SUBSYSTEM_ADDRESS);
+        op.get(RECURSIVE).set(true);
+        op.get(OPERATION_HEADERS, ROLES).add(StandardRole.MONITOR.name());
+
+        ModelNode response = executeCheckNoFailure(op);
+        ModelNode result = response.get(RESULT);
+        assertEquals(readEachResource(SUBSYSTEM_ADDRESS, false, true, StandardRole.MONITOR), result);
+        assertFalse(result.get("item", "a").hasDefined("secret"));
+        assertFalse(result.toString().contains("s3cr3t"));
+
+        // The filtered attributes are reported just as when every attribute is read by its own step
+        ModelNode accessControl = response.get(RESPONSE_HEADERS, ACCESS_CONTROL);
+        assertEquals(2, accessControl.asInt());
+        for (ModelNode filtered : accessControl.asList()) {
+            assertEquals("secret", filtered.get(FILTERED_ATTRIBUTES).get(0).asString());
+        }
+
+        op.get(OPERATION_HEADERS, ROLES).set(new ModelNode().add(StandardRole.SUPERUSER.name()));
+        result = executeForResult(op);
+        assertEquals(readEachResource(SUBSYSTEM_ADDRESS, false, true, StandardRole.SUPERUSER), result);
+        assertEquals("s3cr3t", result.get("item", "a", "secret").asString());
+    }
+
+    /**
+     * Reads a resource and its children with a non-recursive read-resource each, so that every attribute is read by
+     * its own step, and assembles the result as a recursive read-resource would.
+     */
+    private ModelNode readEachResource(PathAddress address, boolean includeRuntime, boolean includeDefaults,
+                                       StandardRole role) throws Exception {
+        ModelNode op = Util.createEmptyOperation(READ_RESOURCE_OPERATION, address);
+        op.get(INCLUDE_RUNTIME).set(includeRuntime);
+        op.get(INCLUDE_DEFAULTS).set(includeDefaults);
+        if (role != null) {
+            op.get(OPERATION_HEADERS, ROLES).add(role.name());
+        }
+        ModelNode result = executeForResult(op);
+        for (String childType : new String[] {"item", "nested", "runtime-item"}) {
+            if (!result.hasDefined(childType)) {
+                continue;
+            }
+            if ("runtime-item".equals(childType) && !includeRuntime) {
+                // Runtime resources are only listed by a non-recursive read
+                result.get(childType).set(new ModelNode());
+                continue;
+            }
+            for (String child : result.get(childType).keys()) {
+                result.get(childType, child).set(readEachResource(address.append(childType, child), includeRuntime, includeDefaults, role));
+            }
+        }
+        return result;
+    }
+
+    private static ModelNode item(String value, String defaultValue) {
+        ModelNode result = new ModelNode();
+        result.get("value").set(value);
+        result.get("default").set(defaultValue);
+        return result;
+    }
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration registration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(registration, processType);
+        GlobalNotifications.registerGlobalNotifications(registration, processType);
+        registration.registerOperationHandler(TestUtils.SETUP_OPERATION_DEF, (context, operation) -> createModel(context, model));
+
+        NonResolvingResourceDescriptionResolver resolver = NonResolvingResourceDescriptionResolver.INSTANCE;
+        ManagementResourceRegistration subsystem = registration.registerSubModel(
+                new SimpleResourceDefinition(PathElement.pathElement(SUBSYSTEM, "test"), resolver));
+        subsystem.registerReadOnlyAttribute(TestUtils.createNillableAttribute("value", ModelType.STRING), null);
+
+        ManagementResourceRegistration item = subsystem.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("item"), resolver));
+        item.registerReadOnlyAttribute(TestUtils.createNillableAttribute("value", ModelType.STRING), null);
+        item.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("default", ModelType.STRING, true)
+                .setDefaultValue(new ModelNode("default"))
+                .build(), null);
+        item.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("secret", ModelType.STRING, true)
+                .setAccessConstraints(SECRET_CONSTRAINT)
+                .build(), null);
+        item.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("nested"), resolver));
+
+        ManagementResourceRegistration runtimeItem = subsystem.registerSubModel(new SimpleResourceDefinition(
+                new SimpleResourceDefinition.Parameters(PathElement.pathElement("runtime-item"), resolver).setRuntime()));
+        runtimeItem.registerMetric(TestUtils.createAttribute("metric", ModelType.INT, true), (context, operation) -> {
+            metricReads.incrementAndGet();
+            context.getResult().set(42);
+        });
+    }
+}
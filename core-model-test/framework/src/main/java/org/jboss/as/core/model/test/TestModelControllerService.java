@@ -560,7 +560,7 @@ class TestModelControllerService extends ModelTestModelControllerService {
 
             domainDefinition = new DomainRootDefinition(domainController, env, persister, injectedContentRepository.getValue(),
                     hostFileRepository, true, info, extensionRegistry, null, pathManagerService, authorizer, securityIdentitySupplier, null,
-                    domainHostExcludeRegistry, getMutableRootResourceRegistrationProvider());
+                    domainHostExcludeRegistry, getMutableRootResourceRegistrationProvider(), null);
             }
             domainDefinition.initialize(rootRegistration);
             rootResourceDefinition.setDelegate(domainDefinition);
@@ -40,6 +40,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.security.AccessController;
+import java.security.MessageDigest;
 import java.security.PrivilegedAction;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -49,6 +50,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.hamcrest.CoreMatchers;
@@ -125,6 +129,30 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test of concurrent calls to the addContent method, of class ContentRepository.
+     */
+    @Test
+    public void testAddContentConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final byte[] content = ("content " + (i % 4)).getBytes(StandardCharsets.UTF_8);
+                results.add(executor.submit(() -> repository.addContent(new ByteArrayInputStream(content))));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                byte[] expected = HashUtil.hashContent(MessageDigest.getInstance("SHA-1"),
+                        new ByteArrayInputStream(("content " + (i % 4)).getBytes(StandardCharsets.UTF_8)));
+                byte[] hash = results.get(i).get();
+                assertThat(HashUtil.bytesToHexString(hash), is(HashUtil.bytesToHexString(expected)));
+                assertTrue(repository.hasContent(hash));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test of explodeContent method, of class ContentRepository.
      */
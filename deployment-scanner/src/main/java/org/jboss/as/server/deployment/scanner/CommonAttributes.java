@@ -38,6 +38,10 @@ interface CommonAttributes {
     String SCANNER = "scanner";
     String SCAN_ENABLED = "scan-enabled";
     String SCAN_INTERVAL = "scan-interval";
+    String SCAN_COUNT = "scan-count";
+    String SCAN_DURATION = "scan-duration";
+    String USE_WATCH_SERVICE = "use-watch-service";
+    String RECONCILIATION_INTERVAL = "reconciliation-interval";
     String RUNTIME_FAILURE_CAUSES_ROLLBACK = "runtime-failure-causes-rollback";
 
 }
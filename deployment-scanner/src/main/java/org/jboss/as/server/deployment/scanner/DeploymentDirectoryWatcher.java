@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Tells the {@link FileSystemDeploymentService} which entries of the directories it scans have changed since it last
+ * asked, so that it can skip scans that would find nothing to do and limit the others to the changed entries.
+ * <p>
+ * The deployment directory and any subdirectories the scanner descends into are watched. If requested, the content of
+ * exploded deployments is watched as well, and a change anywhere within it is reported as a change of the exploded
+ * deployment itself. Watch services are not reliable on all file systems (e.g. network file systems), which is why the
+ * scanner still performs a periodic full scan.
+ *
+ * <p>Concurrency note: this class is not thread safe, it is only used with the scan lock held</p>
+ */
+final class DeploymentDirectoryWatcher implements Closeable {
+
+    private final Path directory;
+    private final WatchService watchService;
+    private final Predicate<Path> scannedDirectory;
+    private final boolean watchContent;
+    /** The exploded deployment each watched directory of deployment content belongs to */
+    private final Map<WatchKey, Path> contentKeys = new HashMap<>();
+
+    /**
+     * Creates a watcher and registers the given directory and the subdirectories of it that will be scanned.
+     *
+     * @param directory the deployment directory
+     * @param scannedDirectory tests whether a subdirectory is scanned, rather than being deployment content
+     * @param watchContent whether to watch the content of exploded deployments as well
+     * @throws IOException if the directory cannot be watched
+     */
+    DeploymentDirectoryWatcher(final Path directory, final Predicate<Path> scannedDirectory, final boolean watchContent) throws IOException {
+        this.directory = directory;
+        this.watchService = directory.getFileSystem().newWatchService();
+        this.scannedDirectory = scannedDirectory;
+        this.watchContent = watchContent;
+        try {
+            register(directory);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets whether the content of exploded deployments is watched.
+     *
+     * @return {@code true} if changes within exploded deployments are reported
+     */
+    boolean isWatchingContent() {
+        return watchContent;
+    }
+
+    /**
+     * Consumes any pending events.
+     *
+     * @return the names of the changed entries, keyed by the scanned directory that holds them; or {@code null} if
+     *         changes may have been missed, in which case the watcher should be discarded
+     */
+    Map<Path, Set<String>> pollChanges() {
+        final Map<Path, Set<String>> changes = new HashMap<>();
+        try {
+            WatchKey key;
+            while ((key = watchService.poll()) != null) {
+                final Path dir = (Path) key.watchable();
+                final Path content = contentKeys.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        return null;
+                    }
+                    final Path child = dir.resolve((Path) event.context());
+                    final boolean created = event.kind() == ENTRY_CREATE;
+                    if (content != null) {
+                        if (created && Files.isDirectory(child)) {
+                            registerContent(child, content);
+                        }
+                        addChange(changes, content);
+                    } else if (Files.isDirectory(child) && scannedDirectory.test(child)) {
+                        // Changes to the entries of an existing subdirectory are reported by its own key
+                        if (created) {
+                            register(child);
+                            addChange(changes, child);
+                        }
+                    } else {
+                        if (created && watchContent && Files.isDirectory(child)) {
+                            registerContent(child, child);
+                        }
+                        addChange(changes, child);
+                    }
+                }
+                if (!key.reset()) {
+                    contentKeys.remove(key);
+                    if (dir.equals(directory)) {
+                        // The deployment directory itself is no longer accessible
+                        return null;
+                    }
+                    // else the removal is reported as a change of the parent directory
+                }
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            // We may have missed something
+            return null;
+        }
+        return changes;
+    }
+
+    private static void addChange(final Map<Path, Set<String>> changes, final Path path) {
+        changes.computeIfAbsent(path.getParent(), dir -> new HashSet<>()).add(path.getFileName().toString());
+    }
+
+    private void register(final Path directory) throws IOException {
+        directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                if (Files.isDirectory(child)) {
+                    if (scannedDirectory.test(child)) {
+                        register(child);
+                    } else if (watchContent) {
+                        registerContent(child, child);
+                    }
+                }
+            }
+        }
+    }
+
+    private void registerContent(final Path directory, final Path deployment) throws IOException {
+        contentKeys.put(directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), deployment);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                if (Files.isDirectory(child)) {
+                    registerContent(child, deployment);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -30,10 +30,12 @@ import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_XML;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.AUTO_DEPLOY_ZIPPED;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.DEPLOYMENT_TIMEOUT;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RECONCILIATION_INTERVAL;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RELATIVE_TO;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.RUNTIME_FAILURE_CAUSES_ROLLBACK;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_ENABLED;
 import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.SCAN_INTERVAL;
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerDefinition.USE_WATCH_SERVICE;
 
 import java.io.File;
 import java.io.IOException;
@@ -113,6 +115,8 @@ class DeploymentScannerAdd implements OperationStepHandler {
             final long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, operation).asLong();
             final int scanInterval = SCAN_INTERVAL.resolveModelAttribute(context, operation).asInt();
             final boolean rollback = RUNTIME_FAILURE_CAUSES_ROLLBACK.resolveModelAttribute(context, operation).asBoolean();
+            final boolean useWatchService = USE_WATCH_SERVICE.resolveModelAttribute(context, operation).asBoolean();
+            final int reconciliationInterval = RECONCILIATION_INTERVAL.resolveModelAttribute(context, operation).asInt();
 
             final ScheduledExecutorService scheduledExecutorService = createScannerExecutorService();
 
@@ -132,6 +136,8 @@ class DeploymentScannerAdd implements OperationStepHandler {
                 bootTimeScanner.setDeploymentTimeout(deploymentTimeout);
                 bootTimeScanner.setScanInterval(scanInterval);
                 bootTimeScanner.setRuntimeFailureCausesRollback(rollback);
+                bootTimeScanner.setUseWatchService(useWatchService);
+                bootTimeScanner.setReconciliationInterval(reconciliationInterval);
             } else {
                 bootTimeScanner = null;
             }
@@ -254,8 +260,11 @@ class DeploymentScannerAdd implements OperationStepHandler {
         final Boolean autoDeployXml = AUTO_DEPLOY_XML.resolveModelAttribute(context, model).asBoolean();
         final Long deploymentTimeout = DEPLOYMENT_TIMEOUT.resolveModelAttribute(context, model).asLong();
         final Boolean rollback = RUNTIME_FAILURE_CAUSES_ROLLBACK.resolveModelAttribute(context, model).asBoolean();
+        final Boolean useWatchService = USE_WATCH_SERVICE.resolveModelAttribute(context, model).asBoolean();
+        final Integer reconciliationInterval = RECONCILIATION_INTERVAL.resolveModelAttribute(context, model).asInt();
         DeploymentScannerService.addService(context, address, relativeTo, path, interval, TimeUnit.MILLISECONDS,
-                autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, rollback, bootTimeScanner, executorService);
+                autoDeployZip, autoDeployExp, autoDeployXml, enabled, deploymentTimeout, rollback, useWatchService,
+                reconciliationInterval, bootTimeScanner, executorService);
 
     }
 
@@ -24,10 +24,16 @@ package org.jboss.as.server.deployment.scanner;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FILESYSTEM_PATH;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathInfoHandler;
@@ -35,6 +41,7 @@ import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.server.deployment.scanner.api.DeploymentScanner;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * @author Tomaz Cerar
@@ -126,7 +133,34 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
                     .setDefaultValue(new ModelNode().set(false))
                     .build();
 
-    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT,RUNTIME_FAILURE_CAUSES_ROLLBACK};
+    protected static final SimpleAttributeDefinition USE_WATCH_SERVICE =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.USE_WATCH_SERVICE, ModelType.BOOLEAN, true)
+                    .setXmlName(CommonAttributes.USE_WATCH_SERVICE)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode().set(false))
+                    .build();
+
+    protected static final SimpleAttributeDefinition RECONCILIATION_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.RECONCILIATION_INTERVAL, ModelType.INT, true)
+                    .setXmlName(CommonAttributes.RECONCILIATION_INTERVAL)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setDefaultValue(new ModelNode().set(FileSystemDeploymentService.DEFAULT_RECONCILIATION_INTERVAL))
+                    .build();
+
+    protected static final SimpleAttributeDefinition SCAN_COUNT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SCAN_COUNT, ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
+    protected static final SimpleAttributeDefinition SCAN_DURATION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SCAN_DURATION, ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    protected static final SimpleAttributeDefinition[] ALL_ATTRIBUTES = {PATH,RELATIVE_TO,SCAN_ENABLED,SCAN_INTERVAL,AUTO_DEPLOY_EXPLODED,AUTO_DEPLOY_XML,AUTO_DEPLOY_ZIPPED,DEPLOYMENT_TIMEOUT,RUNTIME_FAILURE_CAUSES_ROLLBACK,USE_WATCH_SERVICE,RECONCILIATION_INTERVAL};
 
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
@@ -141,6 +175,10 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(AUTO_DEPLOY_XML, null, commonHandler);
         resourceRegistration.registerReadWriteAttribute(DEPLOYMENT_TIMEOUT, null, commonHandler);
         resourceRegistration.registerReadWriteAttribute(RUNTIME_FAILURE_CAUSES_ROLLBACK, null, commonHandler);
+        resourceRegistration.registerReadWriteAttribute(USE_WATCH_SERVICE, null, commonHandler);
+        resourceRegistration.registerReadWriteAttribute(RECONCILIATION_INTERVAL, null, commonHandler);
+        resourceRegistration.registerMetric(SCAN_COUNT, ScanMetricHandler.INSTANCE);
+        resourceRegistration.registerMetric(SCAN_DURATION, ScanMetricHandler.INSTANCE);
     }
 
     @Override
@@ -151,4 +189,24 @@ public class DeploymentScannerDefinition extends SimpleResourceDefinition {
                 PathInfoHandler.Builder.of(pathManager).addAttribute(PATH, RELATIVE_TO).build());
     }
 
+    private static class ScanMetricHandler extends AbstractRuntimeOnlyHandler {
+
+        static final ScanMetricHandler INSTANCE = new ScanMetricHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = context.getCurrentAddressValue();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(DeploymentScannerService.getServiceName(name));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                final FileSystemDeploymentService scanner = (FileSystemDeploymentService) controller.getValue();
+                final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+                if (SCAN_COUNT.getName().equals(attributeName)) {
+                    context.getResult().set(scanner.getScanCount());
+                } else if (SCAN_DURATION.getName().equals(attributeName)) {
+                    context.getResult().set(scanner.getLastScanDuration());
+                }
+            }
+        }
+    }
+
 }
@@ -73,6 +73,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private final String relativeTo;
     private final String path;
     private final boolean rollbackOnRuntimeFailure;
+    private final boolean useWatchService;
+    private final long reconciliationInterval;
     private static final NotificationFilter DEPLOYMENT_FILTER = (Notification notification) -> {
         if (DEPLOYMENT_UNDEPLOYED_NOTIFICATION.equals(notification.getType()) || DEPLOYMENT_DEPLOYED_NOTIFICATION.equals(notification.getType())) {
             ModelNode notificationData = notification.getData();
@@ -122,6 +124,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
      * @param rollbackOnRuntimeFailure rollback on runtime failures
+     * @param useWatchService   whether periodic scans use a watch service to find changed content
+     * @param reconciliationInterval max interval between full scans when using a watch service, in {@code unit}
      * @param bootTimeService   the deployment scanner used in the boot time scan
      * @param scheduledExecutorService executor to use for asynchronous tasks
      * @return the controller for the deployment scanner service
@@ -129,9 +133,11 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     public static ServiceController<DeploymentScanner> addService(final OperationContext context, final PathAddress resourceAddress, final String relativeTo, final String path,
                                                                   final int scanInterval, TimeUnit unit, final boolean autoDeployZip,
                                                                   final boolean autoDeployExploded, final boolean autoDeployXml, final boolean scanEnabled, final long deploymentTimeout, boolean rollbackOnRuntimeFailure,
+                                                                  final boolean useWatchService, final int reconciliationInterval,
                                                                   final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService) {
         final DeploymentScannerService service = new DeploymentScannerService(resourceAddress, relativeTo, path, scanInterval, unit, autoDeployZip,
-                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, bootTimeService);
+                autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, rollbackOnRuntimeFailure, useWatchService, reconciliationInterval,
+                bootTimeService);
         final ServiceName serviceName = getServiceName(resourceAddress.getLastElement().getValue());
 
         return context.getServiceTarget().addService(serviceName, service)
@@ -149,7 +155,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
 
     private DeploymentScannerService(PathAddress resourceAddress, final String relativeTo, final String path, final int interval, final TimeUnit unit, final boolean autoDeployZipped,
                                      final boolean autoDeployExploded, final boolean autoDeployXml, final boolean enabled, final long deploymentTimeout,
-                                     final boolean rollbackOnRuntimeFailure, final FileSystemDeploymentService bootTimeService) {
+                                     final boolean rollbackOnRuntimeFailure, final boolean useWatchService, final int reconciliationInterval,
+                                     final FileSystemDeploymentService bootTimeService) {
         this.resourceAddress = resourceAddress;
         this.relativeTo = relativeTo;
         this.path = path;
@@ -161,6 +168,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         this.enabled = enabled;
         this.rollbackOnRuntimeFailure = rollbackOnRuntimeFailure;
         this.deploymentTimeout = deploymentTimeout;
+        this.useWatchService = useWatchService;
+        this.reconciliationInterval = reconciliationInterval;
         this.scanner = bootTimeService;
     }
 
@@ -198,6 +207,8 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                 scanner.setAutoDeployXMLContent(autoDeployXml);
                 scanner.setRuntimeFailureCausesRollback(rollbackOnRuntimeFailure);
                 scanner.setDeploymentTimeout(deploymentTimeout);
+                scanner.setUseWatchService(useWatchService);
+                scanner.setReconciliationInterval(unit.toMillis(reconciliationInterval));
                 this.scanner = scanner;
             } else {
                 // The boot-time scanner should use our DeploymentOperations.Factory
@@ -124,6 +124,16 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
      */
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 600;
 
+    /**
+     * Default max period in milliseconds between full scans when using a watch service, in case it missed changes
+     */
+    static final long DEFAULT_RECONCILIATION_INTERVAL = 300000;
+
+    /**
+     * Suffixes of the marker files that belong to a deployment
+     */
+    private static final String[] MARKER_SUFFIXES = {DEPLOYED, FAILED_DEPLOY, DO_DEPLOY, DEPLOYING, UNDEPLOYING, UNDEPLOYED, SKIP_DEPLOY, PENDING};
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
@@ -154,6 +164,10 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     private volatile long maxNoProgress = MAX_NO_PROGRESS;
     private volatile boolean rollbackOnRuntimeFailure;
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
+    private volatile boolean useWatchService;
+    private volatile long reconciliationInterval = DEFAULT_RECONCILIATION_INTERVAL;
+    /** Set when a configuration change means that content the watcher did not report may now need deploying */
+    private volatile boolean fullScanRequired;
 
     private final ModelNode resourceAddress;
     private final String relativeTo;
@@ -164,6 +178,16 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     private volatile boolean deploymentDirAccessible = true;
     private volatile boolean lastScanSuccessful = true;
 
+    /** Only used with the scan lock held, but closed when the scanner is stopped */
+    private volatile DeploymentDirectoryWatcher watcher;
+    // The following are guarded by scanLock
+    private boolean watcherFailureLogged;
+    private boolean retryScan;
+    private long lastFullScan;
+
+    private volatile long scanCount;
+    private volatile long lastScanDuration;
+
     @Override
     public void handleNotification(Notification notification) {
         if (acquireScanLock()) {
@@ -326,6 +350,9 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
     @Override
     public void setAutoDeployZippedContent(boolean autoDeployZip) {
+        if (autoDeployZip != this.autoDeployZip) {
+            fullScanRequired = true;
+        }
         this.autoDeployZip = autoDeployZip;
     }
 
@@ -339,11 +366,17 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         if (autoDeployExploded && !this.autoDeployExploded) {
             ROOT_LOGGER.explodedAutoDeploymentContentWarning(DO_DEPLOY, CommonAttributes.AUTO_DEPLOY_EXPLODED);
         }
+        if (autoDeployExploded != this.autoDeployExploded) {
+            fullScanRequired = true;
+        }
         this.autoDeployExploded = autoDeployExploded;
     }
 
     @Override
     public void setAutoDeployXMLContent(final boolean autoDeployXML) {
+        if (autoDeployXML != this.autoDeployXml) {
+            fullScanRequired = true;
+        }
         this.autoDeployXml = autoDeployXML;
     }
 
@@ -376,6 +409,26 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    /**
+     * Sets whether periodic scans use a watch service to find out what has changed in the deployment directory, so
+     * that they can be skipped when nothing has changed and otherwise only look at the changed entries.
+     *
+     * @param useWatchService {@code true} if a watch service should be used
+     */
+    void setUseWatchService(boolean useWatchService) {
+        this.useWatchService = useWatchService;
+    }
+
+    /**
+     * Sets the max period between full scans of the deployment directory when a watch service is used, in case the
+     * watch service missed changes.
+     *
+     * @param reconciliationInterval the interval in milliseconds
+     */
+    void setReconciliationInterval(long reconciliationInterval) {
+        this.reconciliationInterval = reconciliationInterval;
+    }
+
     @Override
     public synchronized void startScanner() {
         assert deploymentOperationsFactory != null : "deploymentOperationsFactory is null";
@@ -409,6 +462,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
     public synchronized void stopScanner() {
         this.scanEnabled = false;
         cancelScan();
+        closeWatcher();
         safeClose(deploymentOperations);
         this.deploymentOperations = null;
         if (undeployScanTask != null) {
@@ -471,7 +525,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         deployedContentEstablished = true;
         if (acquireScanLock()) {
             try {
-                scan(true, deploymentOperations);
+                scan(true, deploymentOperations, null);
             } finally {
                 releaseScanLock();
             }
@@ -490,7 +544,10 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         if (acquireScanLock()) {
             boolean scheduleRescan = false;
             try {
-                scheduleRescan = scan(false, deploymentOperations);
+                final Map<File, Set<String>> changes = getChanges();
+                if (changes == null || !changes.isEmpty()) {
+                    scheduleRescan = scan(false, deploymentOperations, changes);
+                }
             } finally {
                 try {
                     if (scheduleRescan) {
@@ -548,6 +605,117 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         }
     }
 
+    /**
+     * Gets how long the most recent scan of the deployment directory took, excluding any deployment operations it
+     * triggered.
+     *
+     * @return the duration in milliseconds
+     */
+    long getLastScanDuration() {
+        return lastScanDuration;
+    }
+
+    /**
+     * Gets the number of times the deployment directory has been scanned, including scans limited to changed entries.
+     *
+     * @return the scan count
+     */
+    long getScanCount() {
+        return scanCount;
+    }
+
+    /**
+     * Determines what a periodic scan should look at. If a watch service is in use, the scan is limited to the
+     * entries it reports as changed, unless the previous scan needs to be retried or a full scan is due anyway.
+     * Invoke with the scan lock held.
+     *
+     * @return the names of the changed entries, keyed by the directory that holds them, with any marker suffix
+     *         removed; or {@code null} if the whole deployment directory should be scanned
+     */
+    private Map<File, Set<String>> getChanges() {
+        if (!useWatchService || !scanEnabled || scanInterval <= 0) {
+            closeWatcher();
+            return null;
+        }
+        DeploymentDirectoryWatcher watcher = this.watcher;
+        final boolean watchContent = autoDeployExploded;
+        if (watcher != null && watcher.isWatchingContent() != watchContent) {
+            closeWatcher();
+            watcher = null;
+        }
+        final Map<Path, Set<String>> changes = watcher == null ? null : watcher.pollChanges();
+        if (changes == null) {
+            // Start watching before the scan so nothing that changes during it is missed
+            closeWatcher();
+            try {
+                this.watcher = new DeploymentDirectoryWatcher(deploymentDir.toPath(),
+                        dir -> !isEEArchive(dir.getFileName().toString()), watchContent);
+                watcherFailureLogged = false;
+            } catch (IOException | RuntimeException e) {
+                if (!watcherFailureLogged) {
+                    watcherFailureLogged = true;
+                    ROOT_LOGGER.cannotWatchDeploymentDirectory(e, deploymentDir.getAbsolutePath());
+                }
+            }
+            return null;
+        }
+        if (retryScan || firstScan || fullScanRequired || System.currentTimeMillis() - lastFullScan >= reconciliationInterval) {
+            return null;
+        }
+        final Map<File, Set<String>> result = new HashMap<File, Set<String>>();
+        for (Map.Entry<Path, Set<String>> entry : changes.entrySet()) {
+            final Set<String> names = new HashSet<String>();
+            for (String fileName : entry.getValue()) {
+                names.add(getDeploymentName(fileName));
+            }
+            result.put(entry.getKey().toFile(), names);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the name of the deployment a file in a scanned directory belongs to.
+     *
+     * @param fileName the name of the file
+     * @return the file name, without the suffix if it is a marker file
+     */
+    private static String getDeploymentName(final String fileName) {
+        for (String suffix : MARKER_SUFFIXES) {
+            if (fileName.endsWith(suffix)) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return fileName;
+    }
+
+    /**
+     * Gets whether an entry of a directory is within the changed entries of a scan.
+     *
+     * @param changes the changed entries, as returned by {@link #getChanges()}
+     * @param directory the directory
+     * @param name the name of the entry
+     * @return {@code true} if the entry, or a directory that contains it, has changed
+     */
+    private static boolean isChanged(final Map<File, Set<String>> changes, final File directory, final String name) {
+        String child = name;
+        for (File dir = directory; dir != null; dir = dir.getParentFile()) {
+            final Set<String> names = changes.get(dir);
+            if (names != null && names.contains(child)) {
+                return true;
+            }
+            child = dir.getName();
+        }
+        return false;
+    }
+
+    private void closeWatcher() {
+        final DeploymentDirectoryWatcher watcher = this.watcher;
+        if (watcher != null) {
+            this.watcher = null;
+            safeClose(watcher);
+        }
+    }
+
     private boolean acquireScanLock() {
         try {
             scanLock.lockInterruptibly();
@@ -562,7 +730,16 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         scanLock.unlock();
     }
 
-    private boolean scan(boolean oneOffScan, final DeploymentOperations deploymentOperations) {
+    /**
+     * Scans the deployment directory.
+     *
+     * @param oneOffScan whether this is a scan at boot or a manual scan, rather than a periodic one
+     * @param deploymentOperations the operations to use
+     * @param changes the changed entries to limit the scan to, as returned by {@link #getChanges()}, or {@code null}
+     *                to scan the whole deployment directory
+     * @return {@code true} if a quick rescan should be scheduled
+     */
+    private boolean scan(boolean oneOffScan, final DeploymentOperations deploymentOperations, final Map<File, Set<String>> changes) {
 
         boolean scheduleRescan = false;
 
@@ -586,7 +763,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
             ScanContext scanContext = null;
             try {
-                scanContext = new ScanContext(deploymentOperations);
+                scanContext = new ScanContext(deploymentOperations, changes);
             } catch (RuntimeException ex) {
                 //scanner has stoppped in the meanwhile so we don't need to pursue
                 if (!scanEnabled) {
@@ -595,11 +772,20 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                 throw ex;
             }
 
-            scanDirectory(deploymentDir, relativePath, scanContext);
+            final long scanStart = System.nanoTime();
+            if (changes == null) {
+                fullScanRequired = false;
+                lastFullScan = scanContext.scanStartTime;
+                scanDirectory(deploymentDir, relativePath, scanContext, null);
+            } else {
+                scanChanges(changes, scanContext);
+            }
+            lastScanDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scanStart);
+            scanCount++;
 
             // WARN about markers with no associated content. Do this first in case any auto-deploy issue
             // is due to a file that wasn't meant to be auto-deployed, but has a misspelled marker
-            ignoredMissingDeployments.retainAll(scanContext.ignoredMissingDeployments);
+            retainScanned(ignoredMissingDeployments, scanContext.ignoredMissingDeployments, scanContext);
             for (String deploymentName : scanContext.ignoredMissingDeployments) {
                 if (ignoredMissingDeployments.add(deploymentName)) {
                     ROOT_LOGGER.deploymentNotFound(deploymentName);
@@ -607,7 +793,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             }
 
             // Log INFO about non-auto-deploy files that have no marker files
-            noticeLogged.retainAll(scanContext.nonDeployable);
+            retainScanned(noticeLogged, scanContext.nonDeployable, scanContext);
             for (String fileName : scanContext.nonDeployable) {
                 if (noticeLogged.add(fileName)) {
                     ROOT_LOGGER.deploymentTriggered(fileName, DO_DEPLOY);
@@ -615,7 +801,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             }
 
             // Log ERROR about META-INF and WEB-INF dirs outside a deployment
-            illegalDirLogged.retainAll(scanContext.illegalDir);
+            retainScanned(illegalDirLogged, scanContext.illegalDir, scanContext);
             for (String fileName : scanContext.illegalDir) {
                 if (illegalDirLogged.add(fileName)) {
                     ROOT_LOGGER.invalidExplodedDeploymentDirectory(fileName, deploymentDir.getAbsolutePath());
@@ -623,7 +809,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             }
 
             // Log about deleting exploded deployments without first triggering undeploy by deleting .deployed
-            prematureExplodedContentDeletionLogged.retainAll(scanContext.prematureExplodedDeletions);
+            retainScanned(prematureExplodedContentDeletionLogged, scanContext.prematureExplodedDeletions, scanContext);
             for (String fileName : scanContext.prematureExplodedDeletions) {
                 if (prematureExplodedContentDeletionLogged.add(fileName)) {
                     ROOT_LOGGER.explodedDeploymentContentDeleted(fileName, DEPLOYED);
@@ -632,6 +818,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
 
             // Deal with any incomplete or non-scannable auto-deploy content
             ScanStatus status = handleAutoDeployFailures(scanContext);
+            retryScan = status != ScanStatus.PROCEED;
             if (status != ScanStatus.PROCEED) {
                 if (status == ScanStatus.RETRY && scanInterval > 1000) {
                     // schedule a non-repeating task to try again more quickly
@@ -659,6 +846,43 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         return scheduleRescan;
     }
 
+    /**
+     * Scans the changed entries of the directories a watch service reported changes in.
+     *
+     * @param changes the changed entries, as returned by {@link #getChanges()}
+     * @param scanContext context of the scan
+     */
+    private void scanChanges(final Map<File, Set<String>> changes, final ScanContext scanContext) {
+        final Path deploymentPath = deploymentDir.toPath();
+        for (Map.Entry<File, Set<String>> entry : changes.entrySet()) {
+            final File directory = entry.getKey();
+            if (isChanged(changes, directory.getParentFile(), directory.getName()) || !directory.isDirectory()) {
+                // Either scanned as part of its parent, or gone
+                continue;
+            }
+            String path = relativePath;
+            if (path != null && !directory.equals(deploymentDir)) {
+                path += deploymentPath.relativize(directory.toPath()) + File.separator;
+            }
+            scanDirectory(directory, path, scanContext, entry.getValue());
+        }
+    }
+
+    /**
+     * Forgets the logged names that a scan no longer found, among those it looked at.
+     *
+     * @param logged the names something has been logged for
+     * @param found the names found by the scan
+     * @param scanContext context of the scan
+     */
+    private static void retainScanned(final Set<String> logged, final Set<String> found, final ScanContext scanContext) {
+        if (scanContext.changedNames == null) {
+            logged.retainAll(found);
+        } else {
+            logged.removeIf(name -> scanContext.changedNames.contains(name) && !found.contains(name));
+        }
+    }
+
     private void executeScannerTasks(List<ScannerTask> scannerTasks, DeploymentOperations deploymentOperations,
                                      boolean oneOffScan) throws InterruptedException {
         // Process the tasks
@@ -753,7 +977,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
             if (acquireScanLock()) {
                 try {
                     DeploymentScannerLogger.ROOT_LOGGER.debug("Manual scan launched");
-                    scan(true, operations);
+                    scan(true, operations, null);
                 } catch (Exception e) {
                     ROOT_LOGGER.scanException(e, deploymentDir.getAbsolutePath());
                 } finally {
@@ -841,9 +1065,12 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
      *
      * @param directory   the directory to scan
      * @param scanContext context of the scan
+     * @param names       the deployment names to limit the scan to, or {@code null} to scan all the children of
+     *                    the directory
      */
-    private void scanDirectory(final File directory, final String relativePath, final ScanContext scanContext) {
-        final List<File> children = listDirectoryChildren(directory, filter);
+    private void scanDirectory(final File directory, final String relativePath, final ScanContext scanContext, final Set<String> names) {
+        final List<File> children = names == null ? listDirectoryChildren(directory, filter)
+                : listDirectoryChildren(directory, entry -> names.contains(getDeploymentName(entry.getFileName().toString())) && filter.accept(entry));
         for (File child : children) {
             final String fileName = child.getName();
             if (fileName.endsWith(DEPLOYED)) {
@@ -1004,7 +1231,7 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
                     // Track for possible ERROR logging
                     scanContext.illegalDir.add(fileName);
                 } else {
-                    scanDirectory(child, relativePath + child.getName() + File.separator, scanContext);
+                    scanDirectory(child, relativePath + child.getName() + File.separator, scanContext, null);
                 }
             }
         }
@@ -1654,6 +1881,10 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
          * Files to undeploy at the end of the scan
          */
         private final Map<String, DeploymentMarker> toRemove = new HashMap<String, DeploymentMarker>(deployed);
+        /**
+         * Deployment names a scan limited to changed entries looks at, or {@code null} for a full scan
+         */
+        private final Set<String> changedNames;
         /**
          * Marker files with no corresponding content
          */
@@ -1688,8 +1919,22 @@ class FileSystemDeploymentService implements DeploymentScanner, NotificationHand
         private final long scanStartTime = System.currentTimeMillis();
 
         private ScanContext(final DeploymentOperations deploymentOperations) {
+            this(deploymentOperations, null);
+        }
+
+        private ScanContext(final DeploymentOperations deploymentOperations, final Map<File, Set<String>> changes) {
             registeredDeployments = deploymentOperations.getDeploymentsStatus();
             persistentDeployments = deploymentOperations.getUnrelatedDeployments(resourceAddress);
+            if (changes == null) {
+                changedNames = null;
+            } else {
+                // Only what the scan looks at can be found to be missing
+                toRemove.entrySet().removeIf(entry -> !isChanged(changes, entry.getValue().parentFolder, entry.getKey()));
+                changedNames = new HashSet<String>();
+                for (Set<String> names : changes.values()) {
+                    changedNames.addAll(names);
+                }
+            }
         }
     }
 
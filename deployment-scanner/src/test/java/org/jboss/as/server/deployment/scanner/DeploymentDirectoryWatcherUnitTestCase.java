@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DeploymentDirectoryWatcher}
+ */
+public class DeploymentDirectoryWatcherUnitTestCase {
+
+    // Some watch service implementations poll, so allow plenty of time for events to arrive
+    private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+    private AutoDeployTestSupport testSupport;
+    private DeploymentDirectoryWatcher watcher;
+
+    @Before
+    public void setup() throws Exception {
+        testSupport = new AutoDeployTestSupport(DeploymentDirectoryWatcherUnitTestCase.class.getSimpleName());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.close();
+        }
+        if (testSupport != null) {
+            testSupport.cleanupFiles();
+        }
+    }
+
+    @Test
+    public void testNoChanges() throws Exception {
+        createWatcher(false);
+        Assert.assertTrue(watcher.pollChanges().isEmpty());
+    }
+
+    @Test
+    public void testNewFile() throws Exception {
+        createWatcher(false);
+        testSupport.getFile("foo.war.dodeploy");
+        awaitChange(testSupport.getTempDir(), "foo.war.dodeploy");
+        Assert.assertTrue(watcher.pollChanges().isEmpty());
+    }
+
+    @Test
+    public void testNewSubdirectory() throws Exception {
+        createWatcher(false);
+        File subdir = new File(testSupport.getTempDir(), "subdir");
+        Assert.assertTrue(subdir.mkdir());
+        awaitChange(testSupport.getTempDir(), "subdir");
+
+        // Changes in the new subdirectory are seen as well
+        Assert.assertTrue(new File(subdir, "foo.war.dodeploy").createNewFile());
+        awaitChange(subdir, "foo.war.dodeploy");
+    }
+
+    @Test
+    public void testExplodedContent() throws Exception {
+        File webInf = new File(testSupport.getTempDir(), "foo.war" + File.separator + "WEB-INF");
+        Assert.assertTrue(webInf.mkdirs());
+        createWatcher(true);
+
+        // A change within the content is reported as a change of the deployment
+        Assert.assertTrue(new File(webInf, "web.xml").createNewFile());
+        awaitChange(testSupport.getTempDir(), "foo.war");
+
+        File classes = new File(webInf, "classes");
+        Assert.assertTrue(classes.mkdir());
+        awaitChange(testSupport.getTempDir(), "foo.war");
+        Assert.assertTrue(new File(classes, "Foo.class").createNewFile());
+        awaitChange(testSupport.getTempDir(), "foo.war");
+    }
+
+    private void createWatcher(boolean watchContent) throws Exception {
+        watcher = new DeploymentDirectoryWatcher(testSupport.getTempDir().toPath(),
+                dir -> !FileSystemDeploymentService.ARCHIVE_PATTERN.matcher(dir.getFileName().toString()).matches(),
+                watchContent);
+    }
+
+    private void awaitChange(File dir, String name) throws InterruptedException {
+        final Path path = dir.toPath();
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (true) {
+            final Map<Path, Set<String>> changes = watcher.pollChanges();
+            Assert.assertNotNull("Changes missed", changes);
+            final Set<String> names = changes.get(path);
+            if (names != null && names.contains(name)) {
+                return;
+            }
+            Assert.assertTrue("No change seen for " + name, System.currentTimeMillis() < end);
+            Thread.sleep(50);
+        }
+    }
+}
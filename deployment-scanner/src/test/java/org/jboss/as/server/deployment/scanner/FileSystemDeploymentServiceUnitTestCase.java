@@ -118,6 +118,9 @@ public class FileSystemDeploymentServiceUnitTestCase {
 
     private static final DiscardTaskExecutor executor = new DiscardTaskExecutor();
 
+    // Some watch service implementations poll, so allow plenty of time for events to arrive
+    private static final long WATCH_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
     private static final PathAddress resourceAddress = PathAddress.pathAddress(PathElement.pathElement(SUBSYSTEM, DeploymentScannerExtension.SUBSYSTEM_NAME),
             PathElement.pathElement(DeploymentScannerExtension.SCANNERS_PATH.getKey(), DeploymentScannerExtension.DEFAULT_SCANNER_NAME));
 
@@ -1949,6 +1952,105 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertEquals(bytes, ts.controller.deployed.get("external.war"));
     }
 
+    @Test
+    public void testWatchServiceScansChangedEntriesOnly() throws Exception {
+        createFile("foo.war");
+        File dodeploy1 = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File undeployed2 = new File(tmpDir, "bar.war" + FileSystemDeploymentService.UNDEPLOYED);
+        ManualScanExecutor executor = new ManualScanExecutor();
+        TesteeSet ts = createTestee(new MockServerController(executor), executor);
+        try {
+            ts.controller.addCompositeSuccessResponse(1);
+            ts.testee.scan();
+            createFile("bar.war");
+            createFile("bar.war" + FileSystemDeploymentService.DO_DEPLOY);
+            ts.controller.addCompositeSuccessResponse(1);
+            ts.testee.scan();
+            assertEquals(2, ts.controller.deployed.size());
+            ts.testee.setUseWatchService(true);
+            ts.testee.setScanInterval(10000);
+            awaitWatchedScans(ts.testee);
+
+            // Removed by another management client, which only a scan of bar.war notices
+            ts.controller.added.remove("bar.war");
+            ts.controller.deployed.remove("bar.war");
+
+            dodeploy1 = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+            final byte[] bytes = ts.controller.deployed.get("foo.war");
+            ts.controller.addCompositeSuccessResponse(1);
+            final long end = System.currentTimeMillis() + WATCH_TIMEOUT;
+            while (dodeploy1.exists()) {
+                assertTrue("Change not seen", System.currentTimeMillis() < end);
+                Thread.sleep(50);
+                ts.testee.scan();
+            }
+            assertFalse(Arrays.equals(bytes, ts.controller.deployed.get("foo.war")));
+            assertFalse(undeployed2.exists());
+
+            // The whole directory is still scanned every reconciliation interval
+            ts.testee.setReconciliationInterval(1);
+            Thread.sleep(10);
+            ts.testee.scan();
+            assertTrue(undeployed2.exists());
+        } finally {
+            ts.testee.stopScanner();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWatchServiceExplodedRedeploy() throws Exception {
+        File war = createDirectory("foo.war", "index.html");
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        ManualScanExecutor executor = new ManualScanExecutor();
+        TesteeSet ts = createTestee(new MockServerController(executor), executor);
+        try {
+            ts.testee.setAutoDeployExplodedContent(true);
+            ts.testee.setUseWatchService(true);
+            ts.testee.setScanInterval(10000);
+            ts.controller.addCompositeSuccessResponse(1);
+            ts.testee.scan();
+            assertTrue(deployed.exists());
+            final long timestamp = deployed.lastModified();
+            awaitWatchedScans(ts.testee);
+
+            // A change deep within the content is noticed without a full scan
+            File classes = createDirectory(war, "WEB-INF" + File.separator + "classes");
+            File clazz = createFile(classes, "Foo.class");
+            assertTrue(clazz.setLastModified(timestamp + 10000));
+            ts.controller.addCompositeSuccessResponse(1);
+            final long end = System.currentTimeMillis() + WATCH_TIMEOUT;
+            while (deployed.lastModified() == timestamp) {
+                assertTrue("Change not seen", System.currentTimeMillis() < end);
+                Thread.sleep(50);
+                ts.testee.scan();
+            }
+            assertEquals(clazz.lastModified(), deployed.lastModified());
+        } finally {
+            ts.testee.stopScanner();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Scans until the watch service has reported the marker files written by the previous scan, so the next scan
+     * only sees the changes made by the test.
+     */
+    private static void awaitWatchedScans(FileSystemDeploymentService testee) throws InterruptedException {
+        final long end = System.currentTimeMillis() + WATCH_TIMEOUT;
+        long scans = testee.getScanCount();
+        do {
+            assertTrue("Marker files not seen", System.currentTimeMillis() < end);
+            Thread.sleep(50);
+            testee.scan();
+        } while (testee.getScanCount() == scans);
+        do {
+            scans = testee.getScanCount();
+            Thread.sleep(200);
+            testee.scan();
+        } while (testee.getScanCount() != scans);
+    }
+
     private TesteeSet createTestee(String... existingContent) throws OperationFailedException {
         return createTestee(new MockServerController(existingContent));
     }
@@ -2285,6 +2387,17 @@ public class FileSystemDeploymentServiceUnitTestCase {
 
     }
 
+    /**
+     * Allows a scan interval to be set, while leaving it to the test to run the scans.
+     */
+    private static class ManualScanExecutor extends DiscardTaskExecutor {
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            return super.scheduleWithFixedDelay(() -> { }, delay, delay, unit);
+        }
+    }
+
     private static class DiscardTaskExecutor extends ScheduledThreadPoolExecutor {
 
         private final List<Runnable> tasks = new ArrayList<Runnable>();
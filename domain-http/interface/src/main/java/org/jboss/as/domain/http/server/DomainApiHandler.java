@@ -36,6 +36,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_NAMES_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYNC_REMOVED_FOR_READD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
 import static org.jboss.as.domain.http.server.DomainUtil.getStreamIndex;
@@ -49,12 +51,15 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
@@ -66,14 +71,18 @@ import io.undertow.util.HexConverter;
 import io.undertow.util.Methods;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.RegistrationModificationCount;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.domain.http.server.logging.HttpServerLogger;
+import org.jboss.as.domain.http.server.security.ElytronIdentityHandler;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.security.auth.server.SecurityIdentity;
 import org.xnio.IoUtils;
 import org.xnio.streams.ChannelInputStream;
 
@@ -209,9 +218,24 @@ class DomainApiHandler implements HttpHandler {
             if (headers.hasDefined(DOMAIN_UUID)) {
                 headers.remove(DOMAIN_UUID);
             }
+            ETag generationETag = null;
+            if (cachable && streamIndex < 0) {
+                generationETag = createGenerationETag(exchange, dmr, encode);
+                if (generationETag != null) {
+                    operationParameterBuilder.etag(generationETag);
+                    if (!ETagUtils.handleIfNoneMatch(exchange, generationETag, false)) {
+                        // Nothing the response depends on has changed, so there is no need to execute the operation
+                        exchange.setStatusCode(304);
+                        DomainUtil.writeCacheHeaders(exchange, 304, operationParameterBuilder.build());
+                        exchange.endExchange();
+                        return;
+                    }
+                }
+            }
             response = modelController.execute(new OperationBuilder(dmr).build(), OperationMessageHandler.logging, control);
-            if (cachable && streamIndex > -1) {
-                // Use the MD5 of the model nodes asString() method as ETag
+            if (cachable && generationETag == null) {
+                // The response may depend on state the generations do not cover, so
+                // use the MD5 of the model nodes asString() method as ETag
                 MessageDigest md = MessageDigest.getInstance("MD5");
                 md.update(response.getResponseNode().toString().getBytes(StandardCharsets.UTF_8));
                 ETag etag = new ETag(false, HexConverter.convertToHexString(md.digest()));
@@ -232,6 +256,68 @@ class DomainApiHandler implements HttpHandler {
         callback.sendResponse(response);
     }
 
+    /**
+     * Creates an ETag for a cacheable read from the generation of the published management model and of the resource
+     * registrations, so that a conditional request can be answered without executing the operation.
+     *
+     * @param exchange the exchange
+     * @param operation the operation to be executed, including its operation headers
+     * @param encode whether the response is DMR encoded
+     * @return the ETag, or {@code null} if the response may depend on state those generations do not cover
+     */
+    private ETag createGenerationETag(final HttpServerExchange exchange, final ModelNode operation, final boolean encode) throws NoSuchAlgorithmException {
+        final SecurityIdentity identity = exchange.getAttachment(ElytronIdentityHandler.IDENTITY_KEY);
+        final String caller;
+        final Set<String> roles = new TreeSet<>();
+        if (identity != null) {
+            caller = identity.getPrincipal().getName();
+            for (String role : identity.getRoles()) {
+                roles.add(role);
+            }
+        } else {
+            caller = null;
+        }
+        return createGenerationETag(modelController.getModelGeneration(), operation, encode, caller, roles);
+    }
+
+    /**
+     * Creates an ETag for a cacheable read from the generation of the published management model and of the resource
+     * registrations and access control configuration.
+     *
+     * @param modelGeneration the generation of the published management model, read before executing the operation
+     * @param operation the operation to be executed, including its operation headers
+     * @param encode whether the response is DMR encoded
+     * @param caller the name of the caller, or {@code null} if there is none
+     * @param roles the roles of the caller's identity, which are mapped to the management roles used for access control
+     * @return the ETag, or {@code null} if the response may depend on state those generations do not cover
+     */
+    static ETag createGenerationETag(final long modelGeneration, final ModelNode operation, final boolean encode,
+                                     final String caller, final Set<String> roles) throws NoSuchAlgorithmException {
+        // The generations are read before executing the operation, so a change made meanwhile at worst causes a miss
+        if (modelGeneration < 0) {
+            return null;
+        }
+        // Hosts, and the servers under them, may be proxied to other processes, whose changes do not publish our model
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        if (address.size() > 0 && address.getElement(0).getKey().equals(HOST)) {
+            return null;
+        }
+        if (operation.hasDefined(RECURSIVE) || operation.hasDefined(RECURSIVE_DEPTH)) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        sb.append(modelGeneration).append(':').append(RegistrationModificationCount.get()).append(':')
+                .append(AuthorizerModificationCount.get()).append(':').append(encode).append(':');
+        if (caller != null) {
+            sb.append(caller);
+        }
+        // The response is filtered by the caller's management roles, so callers with different roles must not share it
+        sb.append(':').append(roles).append(':').append(operation.toString());
+        final MessageDigest md = MessageDigest.getInstance("MD5");
+        md.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+        return new ETag(false, HexConverter.convertToHexString(md.digest()));
+    }
+
     private GetOperation getOperation(HttpServerExchange exchange) {
         Map<String, Deque<String>> queryParameters = exchange.getQueryParameters();
 
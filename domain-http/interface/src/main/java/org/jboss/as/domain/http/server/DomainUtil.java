@@ -28,9 +28,13 @@ import static io.undertow.util.Headers.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
@@ -84,14 +88,46 @@ public class DomainUtil {
             response = response.get(RESULT);
         }
         try {
-            byte[] data = getResponseBytes(response, operationParameter);
-            responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
-            exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            if (exchange.isInIoThread()) {
+                // Blocking writes are not allowed in the IO thread, so encode the whole response first
+                byte[] data = getResponseBytes(response, operationParameter);
+                responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
+                exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            } else {
+                streamResponse(exchange, response, operationParameter);
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Encodes the response straight to the response channel, so the memory used does not depend on the size of the
+     * response. No Content-Length is set, so chunked transfer encoding is used, along with any content encoding the
+     * {@link io.undertow.server.handlers.encoding.EncodingHandler} negotiated from Accept-Encoding.
+     */
+    private static void streamResponse(final HttpServerExchange exchange, final ModelNode modelNode,
+                                       final OperationParameter operationParameter) throws IOException {
+        exchange.startBlocking();
+        final OutputStream out = exchange.getOutputStream();
+        try {
+            if (operationParameter.isEncode()) {
+                BufferedOutputStream buffered = new BufferedOutputStream(out);
+                modelNode.writeBase64(buffered);
+                buffered.flush();
+            } else {
+                PrintWriter print = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+                modelNode.writeJSONString(print, !operationParameter.isPretty());
+                // PrintWriter swallows IOExceptions
+                if (print.checkError()) {
+                    throw new IOException();
+                }
+            }
+        } finally {
+            IoUtils.safeClose(out);
+        }
+    }
+
 
     static void writeStreamResponse(final HttpServerExchange exchange,
                                      final OperationResponse operationResponse,
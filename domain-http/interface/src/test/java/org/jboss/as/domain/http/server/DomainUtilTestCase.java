@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Deque;
+
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link DomainUtil#writeResponse(HttpServerExchange, int, ModelNode, OperationParameter)} writes the same
+ * bytes whether it streams the response from a worker thread or encodes it in memory on the IO thread.
+ */
+public class DomainUtilTestCase {
+
+    /** Large enough to need several flushes of the response buffers when streamed */
+    private static final int ENTRIES = 20000;
+
+    private final ModelNode response = createResponse();
+    private Undertow server;
+    private int port;
+
+    @Before
+    public void setUp() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = Undertow.builder()
+                .addHttpListener(port, "localhost")
+                .setHandler(new ResponseHandler(response))
+                .build();
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testStreamedJson() throws IOException {
+        assertArrayEquals(bufferedResponse(false, false), request("/worker?pretty=false", null));
+    }
+
+    @Test
+    public void testStreamedPrettyJson() throws IOException {
+        assertArrayEquals(bufferedResponse(false, true), request("/worker?pretty=true", null));
+    }
+
+    @Test
+    public void testStreamedBase64() throws IOException {
+        assertArrayEquals(bufferedResponse(true, false), request("/worker?encode=true", null));
+    }
+
+    @Test
+    public void testIoThreadJson() throws IOException {
+        byte[] expected = bufferedResponse(false, false);
+        assertArrayEquals(expected, request("/io?pretty=false", expected.length));
+    }
+
+    @Test
+    public void testIoThreadPrettyJson() throws IOException {
+        byte[] expected = bufferedResponse(false, true);
+        assertArrayEquals(expected, request("/io?pretty=true", expected.length));
+    }
+
+    @Test
+    public void testIoThreadBase64() throws IOException {
+        byte[] expected = bufferedResponse(true, false);
+        assertArrayEquals(expected, request("/io?encode=true", expected.length));
+    }
+
+    /**
+     * Encodes the response in memory, as {@code DomainUtil} did for every response before it could stream them.
+     */
+    private byte[] bufferedResponse(boolean encode, boolean pretty) throws IOException {
+        if (encode) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            response.writeBase64(out);
+            return out.toByteArray();
+        } else {
+            return response.toJSONString(!pretty).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private byte[] request(String path, Integer contentLength) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http", "localhost", port, path).openConnection();
+        try {
+            assertEquals(200, connection.getResponseCode());
+            if (contentLength != null) {
+                assertEquals(contentLength.toString(), connection.getHeaderField("Content-Length"));
+            }
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static ModelNode createResponse() {
+        ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        ModelNode result = response.get(RESULT);
+        for (int i = 0; i < ENTRIES; i++) {
+            // Include characters that encode to more than one byte in UTF-8
+            result.get("entry-" + i).set("value-é€-" + i);
+        }
+        return response;
+    }
+
+    /**
+     * Writes the response on the IO thread for {@code /io}, and dispatches to a worker thread first otherwise.
+     */
+    private static class ResponseHandler implements HttpHandler {
+
+        private final ModelNode response;
+
+        private ResponseHandler(ModelNode response) {
+            this.response = response;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) {
+            if (exchange.isInIoThread() && !"/io".equals(exchange.getRequestPath())) {
+                exchange.dispatch(this);
+                return;
+            }
+            OperationParameter operationParameter = new OperationParameter.Builder(false)
+                    .encode(getBoolean(exchange, "encode"))
+                    .pretty(getBoolean(exchange, "pretty"))
+                    .build();
+            DomainUtil.writeResponse(exchange, 200, response, operationParameter);
+        }
+
+        private static boolean getBoolean(HttpServerExchange exchange, String name) {
+            Deque<String> values = exchange.getQueryParameters().get(name);
+            return values != null && Boolean.parseBoolean(values.getFirst());
+        }
+    }
+}
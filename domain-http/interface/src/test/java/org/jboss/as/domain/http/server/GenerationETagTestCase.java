@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.undertow.util.ETag;
+import io.undertow.util.ETagUtils;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.access.AuthorizerModificationCount;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of the ETags {@link DomainApiHandler} uses to answer conditional requests without executing the operation.
+ */
+public class GenerationETagTestCase {
+
+    private static final Set<String> NO_ROLES = Collections.emptySet();
+
+    @Test
+    public void testUnchangedModelIsNotModified() throws Exception {
+        ETag etag = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", roles("Monitor"));
+        assertNotNull(etag);
+        ETag again = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", roles("Monitor"));
+        assertEquals(etag, again);
+        // The request would be answered with a 304
+        assertFalse(ETagUtils.handleIfNoneMatch(etag.toString(), again, false));
+    }
+
+    @Test
+    public void testModelChangeInvalidates() throws Exception {
+        ETag etag = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", NO_ROLES);
+        ETag changed = DomainApiHandler.createGenerationETag(2, createOperation(), false, "user", NO_ROLES);
+        assertNotEquals(etag, changed);
+        assertTrue(ETagUtils.handleIfNoneMatch(etag.toString(), changed, false));
+    }
+
+    @Test
+    public void testRegistrationChangeInvalidates() throws Exception {
+        ETag etag = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", NO_ROLES);
+        ManagementResourceRegistration registration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(ResourceBuilder.Factory.create(PathElement.pathElement("test"), NonResolvingResourceDescriptionResolver.INSTANCE).build());
+        registration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement("child"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        ETag changed = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", NO_ROLES);
+        assertTrue(ETagUtils.handleIfNoneMatch(etag.toString(), changed, false));
+    }
+
+    @Test
+    public void testAccessControlChangeInvalidates() throws Exception {
+        ETag etag = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", NO_ROLES);
+        AuthorizerModificationCount.increment();
+        ETag changed = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", NO_ROLES);
+        assertTrue(ETagUtils.handleIfNoneMatch(etag.toString(), changed, false));
+    }
+
+    @Test
+    public void testRolesAreDistinguished() throws Exception {
+        ETag monitor = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", roles("Monitor"));
+        ETag administrator = DomainApiHandler.createGenerationETag(1, createOperation(), false, "user", roles("Administrator"));
+        assertTrue(ETagUtils.handleIfNoneMatch(monitor.toString(), administrator, false));
+
+        ModelNode runAs = createOperation();
+        runAs.get(OPERATION_HEADERS, ROLES).add("Monitor");
+        ETag runAsMonitor = DomainApiHandler.createGenerationETag(1, runAs, false, "user", roles("Administrator"));
+        assertTrue(ETagUtils.handleIfNoneMatch(administrator.toString(), runAsMonitor, false));
+    }
+
+    @Test
+    public void testUncoveredOperationsHaveNoETag() throws Exception {
+        ModelNode host = createOperation();
+        host.get(OP_ADDR).setEmptyList().add(HOST, "primary");
+        assertNull(DomainApiHandler.createGenerationETag(1, host, false, "user", NO_ROLES));
+
+        ModelNode recursive = createOperation();
+        recursive.get(RECURSIVE).set(true);
+        assertNull(DomainApiHandler.createGenerationETag(1, recursive, false, "user", NO_ROLES));
+
+        assertNull(DomainApiHandler.createGenerationETag(-1, createOperation(), false, "user", NO_ROLES));
+    }
+
+    private static ModelNode createOperation() {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_RESOURCE_DESCRIPTION_OPERATION);
+        operation.get(OP_ADDR).add(SUBSYSTEM, "test");
+        return operation;
+    }
+
+    private static Set<String> roles(String... roles) {
+        Set<String> result = new TreeSet<>();
+        Collections.addAll(result, roles);
+        return result;
+    }
+}
@@ -30,6 +30,9 @@ import java.util.List;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ListAttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
@@ -40,6 +43,7 @@ import org.jboss.as.controller.access.management.AccessConstraintUtilizationRegi
 import org.jboss.as.controller.access.management.DelegatingConfigurableAuthorizer;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.WritableAuthorizerConfiguration;
+import org.jboss.as.controller.access.permission.AuthorizationDecisionCache;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -98,6 +102,16 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
             .setRuntimeServiceNotRequired()
             .build();
 
+    static final SimpleAttributeDefinition DECISION_CACHE_HITS = new SimpleAttributeDefinitionBuilder("decision-cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    static final SimpleAttributeDefinition DECISION_CACHE_MISSES = new SimpleAttributeDefinitionBuilder("decision-cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     public static final List<AttributeDefinition> CONFIG_ATTRIBUTES = Arrays.<AttributeDefinition>asList(PROVIDER, PERMISSION_COMBINATION_POLICY);
 
     public static AccessAuthorizationResourceDefinition forDomain(DelegatingConfigurableAuthorizer configurableAuthorizer) {
@@ -136,6 +150,9 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
                 AccessAuthorizationRolesHandler.getStandardRolesHandler(authorizerConfiguration));
         resourceRegistration.registerReadOnlyAttribute(ALL_ROLE_NAMES,
                 AccessAuthorizationRolesHandler.getAllRolesHandler(authorizerConfiguration));
+
+        resourceRegistration.registerMetric(DECISION_CACHE_HITS, new DecisionCacheMetricHandler(configurableAuthorizer));
+        resourceRegistration.registerMetric(DECISION_CACHE_MISSES, new DecisionCacheMetricHandler(configurableAuthorizer));
     }
 
     @Override
@@ -169,6 +186,32 @@ public class AccessAuthorizationResourceDefinition extends SimpleResourceDefinit
         }
     }
 
+    /**
+     * Reads the hit and miss counts of the decision cache of the current authorizer. These are left undefined
+     * if the authorizer does not cache its decisions.
+     */
+    private static class DecisionCacheMetricHandler implements OperationStepHandler {
+
+        private final DelegatingConfigurableAuthorizer configurableAuthorizer;
+
+        private DecisionCacheMetricHandler(DelegatingConfigurableAuthorizer configurableAuthorizer) {
+            this.configurableAuthorizer = configurableAuthorizer;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            AuthorizationDecisionCache cache = configurableAuthorizer.getDecisionCache();
+            if (cache != null) {
+                String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+                if (attr.equals(DECISION_CACHE_HITS.getName())) {
+                    context.getResult().set(cache.getHitCount());
+                } else if (attr.equals(DECISION_CACHE_MISSES.getName())) {
+                    context.getResult().set(cache.getMissCount());
+                }
+            }
+        }
+    }
+
     public static Resource createResource(AccessConstraintUtilizationRegistry registry) {
         Resource accessControlRoot =  Resource.Factory.create();
         accessControlRoot.registerChild(AccessConstraintResources.APPLICATION_PATH_ELEMENT, AccessConstraintResources.getApplicationConfigResource(registry));
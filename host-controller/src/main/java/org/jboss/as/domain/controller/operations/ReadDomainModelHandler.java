@@ -22,9 +22,13 @@
 
 package org.jboss.as.domain.controller.operations;
 
+import java.util.Collections;
+import java.util.Map;
+
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.transform.Transformers;
 import org.jboss.dmr.ModelNode;
 
@@ -38,11 +42,24 @@ class ReadDomainModelHandler implements OperationStepHandler {
     private final Transformers transformers;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
     private final boolean lock;
+    private final Map<PathAddress, String> hostDigests;
+    private final TransformedDomainModelCache cache;
 
     public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers, final boolean lock) {
+        this(ignoredTransformationRegistry, transformers, lock, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @param hostDigests the digests of the slave's domain resources, whose unchanged subtrees are not described
+     * @param cache the cache of transformed models shared with other slaves, or {@code null}
+     */
+    ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers,
+                           final boolean lock, final Map<PathAddress, String> hostDigests, final TransformedDomainModelCache cache) {
         this.transformers = transformers;
         this.ignoredTransformationRegistry = ignoredTransformationRegistry != null ? ignoredTransformationRegistry : Transformers.DEFAULT;
         this.lock = lock;
+        this.hostDigests = hostDigests;
+        this.cache = cache;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -53,8 +70,15 @@ class ReadDomainModelHandler implements OperationStepHandler {
         }
 
         final Transformers.TransformationInputs transformationInputs = new Transformers.TransformationInputs(context);
-        final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
-                transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource());
+        final ReadMasterDomainModelUtil readUtil;
+        if (cache != null && !context.isModelAffected()) {
+            // We are reading the published model, so can share the transformation with other slaves
+            readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
+                    transformationInputs, ignoredTransformationRegistry, hostDigests, cache);
+        } else {
+            readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
+                    transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource(), hostDigests);
+        }
         context.getResult().set(readUtil.getDescribedResources());
     }
 
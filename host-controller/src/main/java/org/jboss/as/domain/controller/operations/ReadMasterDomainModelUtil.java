@@ -21,6 +21,7 @@
  */
 package org.jboss.as.domain.controller.operations;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
@@ -30,12 +31,21 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -47,6 +57,7 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
 import org.jboss.as.host.controller.mgmt.HostInfo;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 
 /**
  * Utility for the DC operation handlers to describe the missing resources for the slave hosts which are
@@ -65,11 +76,31 @@ public class ReadMasterDomainModelUtil {
 
     public static final String ORDERED_CHILD_TYPES_PROPERTY = "ordered-child-types";
 
+    /**
+     * Marks a described resource whose subtree is the same as the one the slave already has, so it is not described
+     */
+    public static final String DOMAIN_RESOURCE_UNCHANGED = "domain-resource-unchanged";
+
+    /**
+     * The key in the host info under which a slave sends the digests of its domain resources
+     */
+    public static final String DOMAIN_RESOURCE_DIGESTS = "domain-resource-digests";
+
+    public static final String DOMAIN_RESOURCE_DIGEST = "domain-resource-digest";
+
+    /** The maximum address size of the resources whose subtree digests are exchanged */
+    private static final int DIGEST_DEPTH = 2;
+
     private final Set<PathElement> newRootResources = new HashSet<>();
 
+    private final Map<PathAddress, String> hostDigests;
+
+    private volatile Map<PathAddress, String> digests = Collections.emptyMap();
+
     private volatile List<ModelNode> describedResources;
 
-    private ReadMasterDomainModelUtil() {
+    private ReadMasterDomainModelUtil(final Map<PathAddress, String> hostDigests) {
+        this.hostDigests = hostDigests;
     }
 
     /**
@@ -85,9 +116,60 @@ public class ReadMasterDomainModelUtil {
                                                                                 final Transformers.TransformationInputs transformationInputs,
                                                                                 final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
                                                                                 final Resource domainRoot) throws OperationFailedException {
+        return readMasterDomainResourcesForInitialConnect(transformers, transformationInputs, ignoredTransformationRegistry,
+                domainRoot, Collections.emptyMap());
+    }
+
+    /**
+     * Used to read the domain model when a slave host connects to the DC. The subtrees whose digest is the
+     * same as the one sent by the slave are not described, but replaced by an entry marked with
+     * {@link #DOMAIN_RESOURCE_UNCHANGED}, which the slave expands using {@link #expandUnchangedResources(List, Resource)}.
+     *
+     *  @param transformers the transformers for the host
+     *  @param transformationInputs parameters for the transformation
+     *  @param ignoredTransformationRegistry registry of resources ignored by the transformation target
+     *  @param domainRoot the root resource for the domain resource tree
+     *  @param hostDigests the digests of the domain resources of the slave, keyed by address. Cannot be {@code null}
+     * @return a read master domain model util instance
+     */
+    static ReadMasterDomainModelUtil readMasterDomainResourcesForInitialConnect(final Transformers transformers,
+                                                                                final Transformers.TransformationInputs transformationInputs,
+                                                                                final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
+                                                                                final Resource domainRoot,
+                                                                                final Map<PathAddress, String> hostDigests) throws OperationFailedException {
 
         Resource transformedResource = transformers.transformRootResource(transformationInputs, domainRoot, ignoredTransformationRegistry);
-        ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil();
+        ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil(hostDigests);
+        if (!hostDigests.isEmpty()) {
+            util.digests = computeDigests(transformedResource);
+        }
+        util.describedResources = util.describeAsNodeList(PathAddress.EMPTY_ADDRESS, transformedResource, false);
+        return util;
+    }
+
+    /**
+     * Used to read the domain model when a slave host connects to the DC, sharing the transformation
+     * with other slaves through a {@link TransformedDomainModelCache}.
+     *
+     *  @param transformers the transformers for the host
+     *  @param transformationInputs parameters for the transformation
+     *  @param ignoredTransformationRegistry registry of resources ignored by the transformation target
+     *  @param hostDigests the digests of the domain resources of the slave, keyed by address. Cannot be {@code null}
+     *  @param cache the cache of transformed models
+     * @return a read master domain model util instance
+     */
+    static ReadMasterDomainModelUtil readMasterDomainResourcesForInitialConnect(final Transformers transformers,
+                                                                                final Transformers.TransformationInputs transformationInputs,
+                                                                                final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry,
+                                                                                final Map<PathAddress, String> hostDigests,
+                                                                                final TransformedDomainModelCache cache) throws OperationFailedException {
+
+        final TransformedDomainModelCache.Entry entry = cache.getEntry(transformers, transformationInputs.getRootResource(), ignoredTransformationRegistry);
+        Resource transformedResource = entry.getTransformedRoot(transformers, transformationInputs, ignoredTransformationRegistry);
+        ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil(hostDigests);
+        if (!hostDigests.isEmpty()) {
+            util.digests = entry.getDigests();
+        }
         util.describedResources = util.describeAsNodeList(PathAddress.EMPTY_ADDRESS, transformedResource, false);
         return util;
     }
@@ -121,14 +203,23 @@ public class ReadMasterDomainModelUtil {
     }
 
     private void describe(final PathAddress base, final Resource resource, List<ModelNode> nodes, boolean isRuntimeChange) {
-        if (resource.isProxy() || resource.isRuntime()) {
-            return; // ignore runtime and proxies
-        } else if (base.size() >= 1 && base.getElement(0).getKey().equals(ModelDescriptionConstants.HOST)) {
-            return; // ignore hosts
+        if (!isDescribed(base, resource)) {
+            return;
         }
         if (base.size() == 1) {
             newRootResources.add(base.getLastElement());
         }
+        if (base.size() <= DIGEST_DEPTH && !hostDigests.isEmpty()) {
+            final String hostDigest = hostDigests.get(base);
+            if (hostDigest != null && hostDigest.equals(digests.get(base))) {
+                // The slave already has this subtree
+                final ModelNode unchanged = new ModelNode();
+                unchanged.get(DOMAIN_RESOURCE_ADDRESS).set(base.toModelNode());
+                unchanged.get(DOMAIN_RESOURCE_UNCHANGED).set(true);
+                nodes.add(unchanged);
+                return;
+            }
+        }
         final ModelNode description = new ModelNode();
         description.get(DOMAIN_RESOURCE_ADDRESS).set(base.toModelNode());
         description.get(DOMAIN_RESOURCE_MODEL).set(resource.getModel());
@@ -147,6 +238,145 @@ public class ReadMasterDomainModelUtil {
         }
     }
 
+    private static boolean isDescribed(final PathAddress address, final Resource resource) {
+        if (resource.isProxy() || resource.isRuntime()) {
+            return false; // ignore runtime and proxies
+        }
+        return address.size() == 0 || !address.getElement(0).getKey().equals(ModelDescriptionConstants.HOST); // ignore hosts
+    }
+
+    /**
+     * Creates the digests of the subtrees of the domain model which a slave sends to the DC when registering, so
+     * that the DC can leave out the parts of the domain model which are unchanged.
+     *
+     * @param domainRoot the root resource of the slave's domain model
+     * @return the digests
+     */
+    public static ModelNode createDomainResourceDigests(final Resource domainRoot) {
+        final ModelNode result = new ModelNode().setEmptyList();
+        for (Map.Entry<PathAddress, String> entry : computeDigests(domainRoot).entrySet()) {
+            final ModelNode digest = result.add();
+            digest.get(DOMAIN_RESOURCE_ADDRESS).set(entry.getKey().toModelNode());
+            digest.get(DOMAIN_RESOURCE_DIGEST).set(entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Parses the digests created by {@link #createDomainResourceDigests(Resource)}.
+     *
+     * @param digests the digests
+     * @return the digests keyed by address
+     */
+    public static Map<PathAddress, String> parseDomainResourceDigests(final ModelNode digests) {
+        final Map<PathAddress, String> result = new HashMap<>();
+        for (ModelNode digest : digests.asList()) {
+            result.put(PathAddress.pathAddress(digest.require(DOMAIN_RESOURCE_ADDRESS)), digest.require(DOMAIN_RESOURCE_DIGEST).asString());
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the entries of a described domain model which are marked with {@link #DOMAIN_RESOURCE_UNCHANGED} by
+     * the description of the corresponding subtree of the slave's own domain model.
+     *
+     * @param resources the result of the {@code ReadMasterDomainModelHandler}
+     * @param domainRoot the root resource of the slave's domain model
+     * @return the complete description of the domain model
+     */
+    public static List<ModelNode> expandUnchangedResources(final List<ModelNode> resources, final Resource domainRoot) {
+        final ReadMasterDomainModelUtil util = new ReadMasterDomainModelUtil(Collections.emptyMap());
+        final List<ModelNode> result = new ArrayList<>(resources.size());
+        for (ModelNode resource : resources) {
+            if (resource.hasDefined(DOMAIN_RESOURCE_UNCHANGED) && resource.get(DOMAIN_RESOURCE_UNCHANGED).asBoolean()) {
+                final PathAddress address = PathAddress.pathAddress(resource.require(DOMAIN_RESOURCE_ADDRESS));
+                util.describe(address, domainRoot.navigate(address), result, false);
+            } else {
+                result.add(resource);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the digests of the described subtrees of the domain model whose address size is at most
+     * {@link #DIGEST_DEPTH}. The digest of a resource covers its model, its ordered child types and the digests
+     * of its children, so the whole model is only read once.
+     */
+    static Map<PathAddress, String> computeDigests(final Resource domainRoot) {
+        final Map<PathAddress, String> digests = new HashMap<>();
+        if (isDescribed(PathAddress.EMPTY_ADDRESS, domainRoot)) {
+            digest(PathAddress.EMPTY_ADDRESS, domainRoot, digests);
+        }
+        return digests;
+    }
+
+    private static String digest(final PathAddress address, final Resource resource, final Map<PathAddress, String> digests) {
+        final ModelNode node = new ModelNode();
+        node.get(DOMAIN_RESOURCE_MODEL).set(canonicalize(resource.getModel()));
+        final Set<String> orderedChildTypes = resource.getOrderedChildTypes();
+        for (String type : new TreeSet<>(orderedChildTypes)) {
+            node.get(ORDERED_CHILD_TYPES_PROPERTY).add(type);
+        }
+        final ModelNode children = node.get(CHILDREN).setEmptyList();
+        for (String type : new TreeSet<>(resource.getChildTypes())) {
+            // The order of the children only matters for the ordered child types
+            final Collection<String> names = orderedChildTypes.contains(type)
+                    ? resource.getChildrenNames(type) : new TreeSet<>(resource.getChildrenNames(type));
+            for (String name : names) {
+                final PathElement element = PathElement.pathElement(type, name);
+                final PathAddress childAddress = address.append(element);
+                final Resource child = resource.getChild(element);
+                if (child != null && isDescribed(childAddress, child)) {
+                    children.add(element.toString(), digest(childAddress, child, digests));
+                }
+            }
+        }
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final String digest = HashUtil.bytesToHexString(messageDigest.digest(node.toString().getBytes(StandardCharsets.UTF_8)));
+        if (address.size() <= DIGEST_DEPTH) {
+            digests.put(address, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Copies a model with the keys of all objects sorted and undefined values left out, so that models
+     * which only differ in the order their attributes were written in have the same digest.
+     */
+    private static ModelNode canonicalize(final ModelNode model) {
+        switch (model.getType()) {
+            case OBJECT: {
+                final ModelNode result = new ModelNode().setEmptyObject();
+                for (String key : new TreeSet<>(model.keys())) {
+                    final ModelNode value = model.get(key);
+                    if (value.isDefined()) {
+                        result.get(key).set(canonicalize(value));
+                    }
+                }
+                return result;
+            }
+            case LIST: {
+                final ModelNode result = new ModelNode().setEmptyList();
+                for (ModelNode element : model.asList()) {
+                    result.add(canonicalize(element));
+                }
+                return result;
+            }
+            case PROPERTY: {
+                final Property property = model.asProperty();
+                return new ModelNode().set(property.getName(), canonicalize(property.getValue()));
+            }
+            default:
+                return model;
+        }
+    }
+
 
     /**
      * Create a resource based on the result of the {@code ReadMasterDomainModelHandler}.
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.TransformationTarget;
+import org.jboss.as.controller.transform.Transformers;
+
+/**
+ * Cache of the transformed domain model read by registering slave hosts, so that slaves which have the same
+ * management and subsystem versions and ignore the same resources share a single transformation of the model.
+ * <p>
+ * Entries are only valid for the model that was published when they were created; they are all discarded
+ * once another model has been published. The ignored resources are compared by evaluating the
+ * {@link Transformers.ResourceIgnoredTransformationRegistry} for the top level resources of the model, which
+ * is all the registries created for a slave's {@link org.jboss.as.host.controller.mgmt.HostInfo} take into account.
+ *
+ * <p>Concurrency note: this class is thread safe</p>
+ */
+public final class TransformedDomainModelCache {
+
+    private final Resource rootResource;
+    // Guarded by entries
+    private final Map<Key, Entry> entries = new HashMap<>();
+    // Guarded by entries
+    private Resource publishedRoot;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param rootResource the root resource of the management model, which always delegates to the currently published one
+     */
+    public TransformedDomainModelCache(final Resource rootResource) {
+        this.rootResource = rootResource;
+    }
+
+    /**
+     * Gets the number of lookups that found the transformation of an earlier slave.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that required a new transformation.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the cache entry for a transformation. Must only be called while no other model can be published, and
+     * with a {@code domainRoot} that is a copy of the published model.
+     *
+     * @param transformers the transformers for the host
+     * @param domainRoot the root resource for the domain resource tree
+     * @param ignoredTransformationRegistry registry of resources ignored by the transformation target
+     * @return the entry. Will not be {@code null}
+     */
+    Entry getEntry(final Transformers transformers, final Resource domainRoot,
+                   final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry) {
+        final Key key = new Key(transformers.getTarget(), domainRoot, ignoredTransformationRegistry);
+        final Resource published = rootResource.navigate(PathAddress.EMPTY_ADDRESS);
+        synchronized (entries) {
+            if (published != publishedRoot) {
+                entries.clear();
+                publishedRoot = published;
+            }
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            ControllerLogger.ROOT_LOGGER.tracef("Transformed domain model cache hits %d, misses %d", hits.sum(), misses.sum());
+            return entry;
+        }
+    }
+
+    /**
+     * The transformed model for one combination of target versions and ignored resources.
+     */
+    static final class Entry {
+
+        private Resource transformedRoot;
+        private Map<PathAddress, String> digests;
+
+        private Entry() {
+        }
+
+        /**
+         * Gets the transformed model, transforming it if no other slave has yet done so.
+         *
+         * @param transformers the transformers for the host
+         * @param transformationInputs parameters for the transformation
+         * @param ignoredTransformationRegistry registry of resources ignored by the transformation target
+         * @return the transformed model, which must not be modified
+         */
+        synchronized Resource getTransformedRoot(final Transformers transformers, final Transformers.TransformationInputs transformationInputs,
+                                                 final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry) throws OperationFailedException {
+            if (transformedRoot == null) {
+                transformedRoot = transformers.transformRootResource(transformationInputs, transformationInputs.getRootResource(), ignoredTransformationRegistry);
+            }
+            return transformedRoot;
+        }
+
+        /**
+         * Gets the digests of the transformed model, as computed by {@link ReadMasterDomainModelUtil#computeDigests(Resource)}.
+         *
+         * @return the digests
+         */
+        synchronized Map<PathAddress, String> getDigests() {
+            assert transformedRoot != null;
+            if (digests == null) {
+                digests = ReadMasterDomainModelUtil.computeDigests(transformedRoot);
+            }
+            return digests;
+        }
+    }
+
+    private static final class Key {
+
+        private final ModelVersion version;
+        private final TransformationTarget.TransformationTargetType type;
+        private final boolean ignoreUnaffectedConfig;
+        private final boolean ignoredResourceListAvailable;
+        private final Map<String, ModelVersion> subsystemVersions = new HashMap<>();
+        private final Set<PathElement> ignored = new HashSet<>();
+        private final int hashCode;
+
+        private Key(final TransformationTarget target, final Resource domainRoot,
+                    final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry) {
+            version = target.getVersion();
+            type = target.getTargetType();
+            ignoreUnaffectedConfig = target.isIgnoreUnaffectedConfig();
+            ignoredResourceListAvailable = target.isIgnoredResourceListAvailableAtRegistration();
+            for (String profile : domainRoot.getChildrenNames(PROFILE)) {
+                for (String subsystem : domainRoot.getChild(PathElement.pathElement(PROFILE, profile)).getChildrenNames(SUBSYSTEM)) {
+                    subsystemVersions.put(subsystem, target.getSubsystemVersion(subsystem));
+                }
+            }
+            for (String childType : domainRoot.getChildTypes()) {
+                for (String name : domainRoot.getChildrenNames(childType)) {
+                    final PathElement element = PathElement.pathElement(childType, name);
+                    if (ignoredTransformationRegistry.isResourceTransformationIgnored(PathAddress.pathAddress(element))) {
+                        ignored.add(element);
+                    }
+                }
+            }
+            hashCode = Objects.hash(version, type, ignoreUnaffectedConfig, ignoredResourceListAvailable, subsystemVersions, ignored);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return ignoreUnaffectedConfig == key.ignoreUnaffectedConfig
+                    && ignoredResourceListAvailable == key.ignoredResourceListAvailable
+                    && version.equals(key.version)
+                    && type == key.type
+                    && subsystemVersions.equals(key.subsystemVersions)
+                    && ignored.equals(key.ignored);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -89,6 +89,7 @@ import org.jboss.as.domain.controller.operations.LocalHostNameOperationHandler;
 import org.jboss.as.domain.controller.operations.ProcessTypeHandler;
 import org.jboss.as.domain.controller.operations.ResolveExpressionOnDomainHandler;
 import org.jboss.as.domain.controller.operations.SocketBindingGroupResourceDefinition;
+import org.jboss.as.domain.controller.operations.TransformedDomainModelCache;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentFullReplaceHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadBytesHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadStreamAttachmentHandler;
@@ -177,6 +178,16 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
             .setValidator(new StringLengthValidator(1, true))
             .build();
 
+    public static final SimpleAttributeDefinition TRANSFORMED_MODEL_CACHE_HITS = SimpleAttributeDefinitionBuilder.create("transformed-model-cache-hits", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    public static final SimpleAttributeDefinition TRANSFORMED_MODEL_CACHE_MISSES = SimpleAttributeDefinitionBuilder.create("transformed-model-cache-misses", ModelType.LONG)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     private final DomainController domainController;
     private final LocalHostControllerInfo hostControllerInfo;
     private final HostControllerEnvironment environment;
@@ -192,6 +203,7 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
     private final HostRegistrations hostRegistrations;
     private final DomainHostExcludeRegistry domainHostExcludeRegistry;
     private final MutableRootResourceRegistrationProvider rootResourceRegistrationProvider;
+    private final TransformedDomainModelCache transformedDomainModelCache;
 
     public DomainRootDefinition(
             final DomainController domainController,
@@ -205,7 +217,8 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
             final ManagementSecurityIdentitySupplier securityIdentitySupplier,
             final HostRegistrations hostRegistrations,
             final DomainHostExcludeRegistry domainHostExcludeRegistry,
-            final MutableRootResourceRegistrationProvider rootResourceRegistrationProvider) {
+            final MutableRootResourceRegistrationProvider rootResourceRegistrationProvider,
+            final TransformedDomainModelCache transformedDomainModelCache) {
         super(new Parameters(null, DomainResolver.getResolver(DOMAIN, false)).setFeature(false));
         this.domainController = domainController;
         this.isMaster = isMaster;
@@ -222,6 +235,7 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
         this.hostRegistrations = hostRegistrations;
         this.domainHostExcludeRegistry = domainHostExcludeRegistry;
         this.rootResourceRegistrationProvider = rootResourceRegistrationProvider;
+        this.transformedDomainModelCache = transformedDomainModelCache;
     }
 
     @Override
@@ -256,6 +270,21 @@ public class DomainRootDefinition extends SimpleResourceDefinition {
 
         resourceRegistration.registerReadOnlyAttribute(NAMESPACES, DefaultEmptyListAttributeHandler.INSTANCE);
         resourceRegistration.registerReadOnlyAttribute(SCHEMA_LOCATIONS, DefaultEmptyListAttributeHandler.INSTANCE);
+
+        if (isMaster && transformedDomainModelCache != null) {
+            resourceRegistration.registerMetric(TRANSFORMED_MODEL_CACHE_HITS, new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    context.getResult().set(transformedDomainModelCache.getHitCount());
+                }
+            });
+            resourceRegistration.registerMetric(TRANSFORMED_MODEL_CACHE_MISSES, new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    context.getResult().set(transformedDomainModelCache.getMissCount());
+                }
+            });
+        }
     }
 
     @Override
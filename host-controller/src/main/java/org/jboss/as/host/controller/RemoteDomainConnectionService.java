@@ -82,6 +82,7 @@ import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.FetchMissingConfigurationHandler;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.controller.operations.SyncDomainModelOperationHandler;
 import org.jboss.as.domain.controller.operations.SyncServerGroupOperationHandler;
 import org.jboss.as.domain.controller.operations.coordination.DomainControllerLockIdUtils;
@@ -531,7 +532,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                  */
                 @Override
                 public ModelNode createLocalHostInfo() {
-                    return HostInfo.createLocalHostHostInfo(localHostInfo, productConfig, ignoredDomainResourceRegistry, ReadRootResourceHandler.grabDomainResource(operationExecutor).getChildren(HOST).iterator().next());
+                    final Resource domainRoot = ReadRootResourceHandler.grabDomainResource(operationExecutor);
+                    final ModelNode info = HostInfo.createLocalHostHostInfo(localHostInfo, productConfig, ignoredDomainResourceRegistry, domainRoot.getChildren(HOST).iterator().next());
+                    // Let the master leave out the parts of the domain model we already have
+                    info.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_DIGESTS).set(ReadMasterDomainModelUtil.createDomainResourceDigests(domainRoot));
+                    return info;
                 }
 
                 @Override
@@ -542,8 +547,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 @Override
                 public boolean applyDomainModel(final List<ModelNode> bootOperations) {
                     // Apply the model..
-                    final HostInfo info = HostInfo.fromModelNode(createLocalHostInfo());
-                    return applyRemoteDomainModel(bootOperations, info);
+                    final Resource domainRoot = ReadRootResourceHandler.grabDomainResource(operationExecutor);
+                    final HostInfo info = HostInfo.fromModelNode(HostInfo.createLocalHostHostInfo(localHostInfo, productConfig,
+                            ignoredDomainResourceRegistry, domainRoot.getChildren(HOST).iterator().next()));
+                    // The master does not describe the parts of the domain model which are the same as ours
+                    return applyRemoteDomainModel(ReadMasterDomainModelUtil.expandUnchangedResources(bootOperations, domainRoot), info);
                 }
 
                 @Override
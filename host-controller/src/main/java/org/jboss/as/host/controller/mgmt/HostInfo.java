@@ -130,6 +130,7 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
     private final Set<ServerConfigInfo> serverConfigInfos;
     private final Set<String> domainIgnoredExtensions;
     private final boolean hostDeclaredIgnoreUnaffected;
+    private final Map<PathAddress, String> domainResourceDigests;
     // GuardedBy this
     private ReadMasterDomainModelUtil.RequiredConfigurationHolder requiredConfigurationHolder;
 
@@ -179,6 +180,10 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
             serverConfigInfos = Collections.emptySet();
         }
         this.serverConfigInfos = serverConfigInfos;
+
+        domainResourceDigests = hostInfo.hasDefined(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_DIGESTS)
+                ? ReadMasterDomainModelUtil.parseDomainResourceDigests(hostInfo.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_DIGESTS))
+                : Collections.<PathAddress, String>emptyMap();
     }
 
     public String getHostName() {
@@ -231,6 +236,15 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         return serverConfigInfos;
     }
 
+    /**
+     * Gets the digests of the domain resources the slave already has, which are only sent when registering.
+     *
+     * @return the digests keyed by address, or an empty map if the slave did not send any
+     */
+    public Map<PathAddress, String> getDomainResourceDigests() {
+        return domainResourceDigests;
+    }
+
     public String getPrettyProductName() {
 
         final String result;
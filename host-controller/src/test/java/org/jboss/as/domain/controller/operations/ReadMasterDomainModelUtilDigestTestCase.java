@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.host.controller.util.AbstractControllerTestBase.NoopTransformers;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of the digest based delta of the domain model read by a slave host when registering.
+ */
+public class ReadMasterDomainModelUtilDigestTestCase {
+
+    private static final PathElement PROFILE_ELEMENT = PathElement.pathElement(PROFILE, "default");
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement(SUBSYSTEM, "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement(SUBSYSTEM, "b");
+
+    @Test
+    public void testAttributeOrderDoesNotChangeDigest() {
+        Resource root = createDomain();
+        Resource other = createDomain();
+        ModelNode model = other.navigate(PathAddress.pathAddress(PROFILE_ELEMENT, SUBSYSTEM_A)).getModel();
+        model.setEmptyObject();
+        model.get("y").set(2);
+        model.get("x").set(1);
+        model.get("z");
+        Assert.assertEquals(ReadMasterDomainModelUtil.computeDigests(root), ReadMasterDomainModelUtil.computeDigests(other));
+    }
+
+    @Test
+    public void testUnchangedModelIsNotDescribed() throws Exception {
+        Resource root = createDomain();
+        List<ModelNode> described = describe(root, createDomain());
+        Assert.assertEquals(1, described.size());
+        Assert.assertTrue(described.get(0).get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_UNCHANGED).asBoolean());
+        Assert.assertEquals(describe(root, null), ReadMasterDomainModelUtil.expandUnchangedResources(described, createDomain()));
+    }
+
+    @Test
+    public void testOnlyChangedSubtreesAreDescribed() throws Exception {
+        Resource root = createDomain();
+        root.navigate(PathAddress.pathAddress(PROFILE_ELEMENT, SUBSYSTEM_B)).getModel().get("x").set(3);
+        Resource host = createDomain();
+
+        List<ModelNode> described = describe(root, host);
+        // The root and the profile are described, the extension and subsystem=a are unchanged
+        Assert.assertEquals(5, described.size());
+        int unchanged = 0;
+        for (ModelNode node : described) {
+            if (node.hasDefined(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_UNCHANGED)) {
+                unchanged++;
+            } else if (node.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL).has("x")) {
+                Assert.assertEquals(3, node.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL, "x").asInt());
+            }
+        }
+        Assert.assertEquals(2, unchanged);
+        Assert.assertEquals(describe(root, null), ReadMasterDomainModelUtil.expandUnchangedResources(described, host));
+    }
+
+    private static List<ModelNode> describe(Resource root, Resource host) throws Exception {
+        Map<PathAddress, String> hostDigests = host == null ? Collections.emptyMap() : ReadMasterDomainModelUtil.parseDomainResourceDigests(
+                ReadMasterDomainModelUtil.createDomainResourceDigests(host));
+        return ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(new NoopTransformers(), null, null, root, hostDigests)
+                .getDescribedResources();
+    }
+
+    private static Resource createDomain() {
+        Resource root = Resource.Factory.create();
+        root.getModel().get("name").set("domain");
+        Resource extension = Resource.Factory.create();
+        extension.getModel().get("module").set("org.test");
+        root.registerChild(PathElement.pathElement(EXTENSION, "org.test"), extension);
+        Resource profile = Resource.Factory.create();
+        profile.getModel().setEmptyObject();
+        root.registerChild(PROFILE_ELEMENT, profile);
+        Resource a = Resource.Factory.create();
+        a.getModel().get("x").set(1);
+        a.getModel().get("y").set(2);
+        profile.registerChild(SUBSYSTEM_A, a);
+        Resource b = Resource.Factory.create();
+        b.getModel().get("x").set(1);
+        profile.registerChild(SUBSYSTEM_B, b);
+        return root;
+    }
+}
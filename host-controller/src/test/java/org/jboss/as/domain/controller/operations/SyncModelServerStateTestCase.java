@@ -708,7 +708,7 @@ public class SyncModelServerStateTestCase extends AbstractControllerTestBase  {
             };
             DomainRootDefinition domain = new DomainRootDefinition(domainController, hostControllerEnvironment, configurationPersister,
                     repository, repository, isMaster, hostControllerInfo, extensionRegistry, ignoredDomainResourceRegistry,
-                    pathManager, authorizer, securityIdentitySupplier, hostRegistrations, domainHostExcludeRegistry, rootResourceRegistrationProvider);
+                    pathManager, authorizer, securityIdentitySupplier, hostRegistrations, domainHostExcludeRegistry, rootResourceRegistrationProvider, null);
             getDelegatingResourceDefiniton().setDelegate(domain);
 
             final String hostName = hostControllerEnvironment.getHostName();
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.Collections;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.DelegatingResource;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.transform.TransformationTarget;
+import org.jboss.as.controller.transform.TransformationTargetImpl;
+import org.jboss.as.controller.transform.TransformerRegistry;
+import org.jboss.as.controller.transform.Transformers;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link TransformedDomainModelCache}.
+ */
+public class TransformedDomainModelCacheTestCase {
+
+    private static final PathElement PROFILE_A = PathElement.pathElement(PROFILE, "a");
+    private static final PathElement PROFILE_B = PathElement.pathElement(PROFILE, "b");
+
+    private volatile Resource published = createDomain();
+    private final TransformedDomainModelCache cache = new TransformedDomainModelCache(new DelegatingResource(() -> published));
+
+    @Test
+    public void testEntriesAreSharedBySameTarget() {
+        TransformedDomainModelCache.Entry entry = getEntry(createTransformers("one", 1, 8), Transformers.DEFAULT);
+        Assert.assertSame(entry, getEntry(createTransformers("two", 1, 8), Transformers.DEFAULT));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        Assert.assertNotSame(entry, getEntry(createTransformers("three", 2, 0), Transformers.DEFAULT));
+        Transformers.ResourceIgnoredTransformationRegistry ignoreB = address -> address.getElement(0).equals(PROFILE_B);
+        Assert.assertNotSame(entry, getEntry(createTransformers("four", 1, 8), ignoreB));
+        Assert.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testPublishingDiscardsEntries() {
+        TransformedDomainModelCache.Entry entry = getEntry(createTransformers("one", 1, 8), Transformers.DEFAULT);
+        published = createDomain();
+        Assert.assertNotSame(entry, getEntry(createTransformers("two", 1, 8), Transformers.DEFAULT));
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    private TransformedDomainModelCache.Entry getEntry(Transformers transformers, Transformers.ResourceIgnoredTransformationRegistry ignored) {
+        // The transformation reads a copy of the published model
+        return cache.getEntry(transformers, published.clone(), ignored);
+    }
+
+    private static Transformers createTransformers(String hostName, int major, int minor) {
+        TransformationTarget target = TransformationTargetImpl.createForHost(hostName, TransformerRegistry.Factory.create(),
+                ModelVersion.create(major, minor), Collections.<PathAddress, ModelVersion>emptyMap(),
+                Transformers.OperationExcludedTransformationRegistry.DEFAULT);
+        return Transformers.Factory.create(target);
+    }
+
+    private static Resource createDomain() {
+        Resource root = Resource.Factory.create();
+        for (PathElement element : new PathElement[] {PROFILE_A, PROFILE_B}) {
+            Resource profile = Resource.Factory.create();
+            profile.registerChild(PathElement.pathElement(SUBSYSTEM, "test"), Resource.Factory.create());
+            root.registerChild(element, profile);
+        }
+        return root;
+    }
+}
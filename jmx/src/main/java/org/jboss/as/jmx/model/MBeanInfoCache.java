@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import javax.management.MBeanInfo;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.registry.RegistrationModificationCount;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the {@link MBeanInfo} of the resources with a given registration, so that it is not created from the
+ * resource description for every resource and every request. The resolved descriptions are shared by the legacy and
+ * expression domains, which only differ in the types they expose.
+ * <p>
+ * The cached information is discarded whenever a {@link RegistrationModificationCount registration is modified},
+ * which covers changes to the attributes, operations, children and access constraints of the resources. Nothing is
+ * cached for {@link ImmutableManagementResourceRegistration#isRemote() remote} registrations, as the registrations of
+ * proxied resources are created anew on every lookup.
+ *
+ * <p>Concurrency note: this class is thread safe</p>
+ */
+final class MBeanInfoCache {
+
+    // Registrations do not override equals, and the entries of unregistered ones are removed once they are collected
+    private final Map<ImmutableManagementResourceRegistration, Entry> entries = new WeakHashMap<>();
+
+    /**
+     * Gets the entry for a registration, replacing it if a registration has been modified since it was created.
+     *
+     * @param registration the registration
+     * @return the entry, which is not cached if the registration is remote
+     */
+    Entry getEntry(final ImmutableManagementResourceRegistration registration) {
+        // Read the count first, so that an entry created concurrently with a modification is replaced next time
+        final long modificationCount = RegistrationModificationCount.get();
+        if (registration.isRemote()) {
+            // A proxied resource gets a new registration on every lookup, so an entry would never be found again
+            return new Entry(modificationCount);
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(registration);
+            if (entry == null || entry.modificationCount != modificationCount) {
+                entry = new Entry(modificationCount);
+                entries.put(registration, entry);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * The cached information for a registration. The descriptions are only read while the lock on the entry is held,
+     * as reading a {@link ModelNode} may modify it.
+     */
+    static final class Entry {
+        private final long modificationCount;
+        // Keyed by whether the info is for the legacy domain and whether the resources are mutable
+        private final Map<String, MBeanInfo> infos = new HashMap<>();
+        private final Map<DescriptionProvider, ModelNode> operationDescriptions = new IdentityHashMap<>();
+        private ModelNode resourceDescription;
+
+        private Entry(final long modificationCount) {
+            this.modificationCount = modificationCount;
+        }
+
+        synchronized MBeanInfo getMBeanInfo(final boolean legacy, final boolean mutable, final Supplier<MBeanInfo> factory) {
+            final String key = legacy + ":" + mutable;
+            MBeanInfo info = infos.get(key);
+            if (info == null) {
+                info = factory.get();
+                infos.put(key, info);
+            }
+            return info;
+        }
+
+        ModelNode getResourceDescription(final ImmutableManagementResourceRegistration registration) {
+            assert Thread.holdsLock(this);
+            if (resourceDescription == null) {
+                final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+                resourceDescription = provider != null ? provider.getModelDescription(null) : new ModelNode();
+            }
+            return resourceDescription;
+        }
+
+        ModelNode getOperationDescription(final OperationEntry operationEntry) {
+            assert Thread.holdsLock(this);
+            return operationDescriptions.computeIfAbsent(operationEntry.getDescriptionProvider(), provider -> provider.getModelDescription(null));
+        }
+    }
+}
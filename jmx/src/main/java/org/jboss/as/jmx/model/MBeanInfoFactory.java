@@ -59,9 +59,11 @@ import javax.management.AttributeChangeNotification;
 import javax.management.Descriptor;
 import javax.management.ImmutableDescriptor;
 import javax.management.InstanceNotFoundException;
+import javax.management.MBeanAttributeInfo;
 import javax.management.MBeanInfo;
 import javax.management.MBeanNotificationInfo;
 import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
 import javax.management.Notification;
 import javax.management.ObjectName;
 import javax.management.openmbean.OpenMBeanAttributeInfo;
@@ -78,7 +80,6 @@ import javax.management.openmbean.SimpleType;
 import org.jboss.as.controller.CompositeOperationHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
-import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.operations.common.ValidateAddressOperationHandler;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -108,29 +109,74 @@ public class MBeanInfoFactory {
     private static final String DESC_EXPRESSIONS_ALLOWED_DESC = "expressions.allowed.description";
 
     private static final OpenMBeanParameterInfo[] EMPTY_PARAMETERS = new OpenMBeanParameterInfo[0];
-    private final ObjectName name;
     private final TypeConverters converters;
-    private final ConfiguredDomains configuredDomains;
     private final MutabilityChecker mutabilityChecker;
     private final ImmutableManagementResourceRegistration resourceRegistration;
+    private final MBeanInfoCache.Entry cacheEntry;
     private final ModelNode providedDescription;
     private final PathAddress pathAddress;
     private final boolean legacy;
 
-    private MBeanInfoFactory(final ObjectName name, final TypeConverters converters, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) {
-        this.name = name;
+    private MBeanInfoFactory(final boolean legacy, final TypeConverters converters, final MutabilityChecker mutabilityChecker, final PathAddress address,
+                             final ImmutableManagementResourceRegistration resourceRegistration, final MBeanInfoCache.Entry cacheEntry) {
         this.converters = converters;
-        this.configuredDomains = configuredDomains;
         this.mutabilityChecker = mutabilityChecker;
-        this.legacy = configuredDomains.isLegacyDomain(name);
+        this.legacy = legacy;
         this.resourceRegistration = resourceRegistration;
-        DescriptionProvider provider = resourceRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        providedDescription = provider != null ? provider.getModelDescription(null) : new ModelNode();
+        this.cacheEntry = cacheEntry;
+        this.providedDescription = cacheEntry.getResourceDescription(resourceRegistration);
         this.pathAddress = address;
     }
 
-    static MBeanInfo createMBeanInfo(final ObjectName name, final TypeConverters converters, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) throws InstanceNotFoundException{
-        return new MBeanInfoFactory(name, converters, configuredDomains, mutabilityChecker, address, resourceRegistration).createMBeanInfo();
+    static MBeanInfo createMBeanInfo(final ObjectName name, final TypeConverters converters, final ConfiguredDomains configuredDomains, final MutabilityChecker mutabilityChecker,
+                                     final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration, final MBeanInfoCache cache) throws InstanceNotFoundException{
+        final boolean legacy = configuredDomains.isLegacyDomain(name);
+        final MBeanInfoCache.Entry entry = cache.getEntry(resourceRegistration);
+        // All the resources with the same registration have addresses of the same length and type, so the mutability
+        // of the address determines the mutability of it and its children
+        final MBeanInfo info = entry.getMBeanInfo(legacy, mutabilityChecker.mutable(address),
+                () -> new MBeanInfoFactory(legacy, converters, mutabilityChecker, address, resourceRegistration, entry).createMBeanInfo());
+        return addAlternateMBean(info, name, configuredDomains, legacy);
+    }
+
+    /**
+     * Adds the name of the mbean for the same resource in the other domain, which is specific to each resource, to the
+     * descriptors of an {@code MBeanInfo} shared by all the resources with the same registration.
+     */
+    private static MBeanInfo addAlternateMBean(final MBeanInfo info, final ObjectName name, final ConfiguredDomains configuredDomains, final boolean legacy) {
+        if ((legacy ? configuredDomains.getExprDomain() : configuredDomains.getLegacyDomain()) == null) {
+            return info;
+        }
+        final ObjectName alternate = configuredDomains.getMirroredObjectName(name);
+        final Map<String, String> descriptions = new HashMap<String, String>();
+        descriptions.put(DESC_ALTERNATE_MBEAN, alternate.toString());
+        descriptions.put(DESC_ALTERNATE_MBEAN_DESCR, legacy ?
+                JmxLogger.ROOT_LOGGER.descriptorAlternateMBeanExpressions(alternate) : JmxLogger.ROOT_LOGGER.descriptorAlternateMBeanLegacy(alternate));
+        final Descriptor descriptor = new ImmutableDescriptor(descriptions);
+
+        final MBeanAttributeInfo[] attributes = info.getAttributes();
+        final OpenMBeanAttributeInfo[] openAttributes = new OpenMBeanAttributeInfo[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            final MBeanAttributeInfo attribute = attributes[i];
+            openAttributes[i] = new OpenMBeanAttributeInfoSupport(attribute.getName(), attribute.getDescription(),
+                    ((OpenMBeanAttributeInfo) attribute).getOpenType(), attribute.isReadable(), attribute.isWritable(), attribute.isIs(),
+                    ImmutableDescriptor.union(attribute.getDescriptor(), descriptor));
+        }
+        final MBeanOperationInfo[] operations = info.getOperations();
+        final OpenMBeanOperationInfo[] openOperations = new OpenMBeanOperationInfo[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            final MBeanOperationInfo operation = operations[i];
+            final MBeanParameterInfo[] signature = operation.getSignature();
+            final OpenMBeanParameterInfo[] openSignature = new OpenMBeanParameterInfo[signature.length];
+            for (int j = 0; j < signature.length; j++) {
+                openSignature[j] = (OpenMBeanParameterInfo) signature[j];
+            }
+            openOperations[i] = new OpenMBeanOperationInfoSupport(operation.getName(), operation.getDescription(), openSignature,
+                    ((OpenMBeanOperationInfo) operation).getReturnOpenType(), operation.getImpact(),
+                    ImmutableDescriptor.union(operation.getDescriptor(), descriptor));
+        }
+        return new OpenMBeanInfoSupport(info.getClassName(), info.getDescription(), openAttributes, null, openOperations,
+                info.getNotifications(), ImmutableDescriptor.union(info.getDescriptor(), descriptor));
     }
 
     private MBeanInfo createMBeanInfo() {
@@ -239,7 +285,7 @@ public class MBeanInfoFactory {
     }
 
     private OpenMBeanOperationInfo getOperation(String name, OpenMBeanParameterInfo addWildcardChildName, OperationEntry entry) {
-        ModelNode opNode = entry.getDescriptionProvider().getModelDescription(null);
+        ModelNode opNode = cacheEntry.getOperationDescription(entry);
         OpenMBeanParameterInfo[] params = getParameterInfos(opNode);
         if (addWildcardChildName != null) {
             OpenMBeanParameterInfo[] newParams = new OpenMBeanParameterInfo[params.length + 1];
@@ -397,19 +443,9 @@ public class MBeanInfoFactory {
         if (legacy) {
             descriptions.put(DESC_MBEAN_EXPR, "true");
             descriptions.put(DESC_MBEAN_EXPR_DESCR, JmxLogger.ROOT_LOGGER.descriptorMBeanExpressionSupportFalse());
-            if (configuredDomains.getExprDomain() != null) {
-                ObjectName alternate = configuredDomains.getMirroredObjectName(name);
-                descriptions.put(DESC_ALTERNATE_MBEAN, alternate.toString());
-                descriptions.put(DESC_ALTERNATE_MBEAN_DESCR, JmxLogger.ROOT_LOGGER.descriptorAlternateMBeanExpressions(alternate));
-            }
         } else {
             descriptions.put(DESC_MBEAN_EXPR, "false");
             descriptions.put(DESC_MBEAN_EXPR_DESCR, JmxLogger.ROOT_LOGGER.descriptorMBeanExpressionSupportTrue());
-            if (configuredDomains.getLegacyDomain() != null) {
-                ObjectName alternate = configuredDomains.getMirroredObjectName(name);
-                descriptions.put(DESC_ALTERNATE_MBEAN, alternate.toString());
-                descriptions.put(DESC_ALTERNATE_MBEAN_DESCR, JmxLogger.ROOT_LOGGER.descriptorAlternateMBeanLegacy(alternate));
-            }
         }
     }
 }
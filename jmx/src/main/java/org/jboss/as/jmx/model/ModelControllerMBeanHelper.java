@@ -24,6 +24,7 @@ package org.jboss.as.jmx.model;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ACCESS_MECHANISM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -33,11 +34,13 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -70,11 +73,11 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.OperationEntry.Flag;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.jmx.logging.JmxLogger;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
 import org.jboss.as.jmx.model.ResourceAccessControlUtil.ResourceAccessControl;
-import org.jboss.as.jmx.model.RootResourceIterator.ResourceAction;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.wildfly.common.Assert;
@@ -100,10 +103,13 @@ public class ModelControllerMBeanHelper {
     private final String domain;
     private final ObjectInstance rootObjectInstance;
     private final ManagementModelIntegration.ManagementModelProvider managementModelProvider;
+    private final MBeanInfoCache mbeanInfoCache;
+    private volatile ObjectNameIndex objectNameIndex;
 
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain,
                                ModelController controller, MutabilityChecker mutabilityChecker,
-                               ManagementModelIntegration.ManagementModelProvider managementModelProvider) {
+                               ManagementModelIntegration.ManagementModelProvider managementModelProvider,
+                               MBeanInfoCache mbeanInfoCache) {
         this.converters = converters;
         this.configuredDomains = configuredDomains;
         this.domain = domain;
@@ -111,59 +117,25 @@ public class ModelControllerMBeanHelper {
         this.accessControlUtil = new ResourceAccessControlUtil(controller);
         this.mutabilityChecker = mutabilityChecker;
         this.managementModelProvider = managementModelProvider;
+        this.mbeanInfoCache = mbeanInfoCache;
         this.rootObjectInstance = ModelControllerMBeanHelper.createRootObjectInstance(domain);
     }
 
     int getMBeanCount() {
-        // Here we don't provide the accessControlUtil as we don't want to pay the cost of doing RBAC
-        // checks. An mbean exists and can be in the count regardless of whether it can be addressed
-        return new RootResourceIterator<Integer>(null, getRootResourceAndRegistration().getResource(), new ResourceAction<Integer>() {
-            int count;
-            final ImmutableManagementResourceRegistration rootRegistration = getRootResourceAndRegistration().getRegistration();
-            @Override
-            public ObjectName onAddress(PathAddress address) {
-                // We don't exclude addresses based on RBAC but we do check that they correspond to a real MRR
-                // plus we exclude the platform mbean resources, which are not visible via this JMX domain.
-                // If the address is good, then we don't need to do a costly parse of it into an ObjectName,
-                // as in this iterator's case all that's done with the ObjectName is a null check.
-                // So we just return an ObjectName we already have at hand, i.e. the name of the root resource mbean
-                // for this JMX domain.
-                return isExcludeAddress(address) || rootRegistration.getSubModel(address) == null
-                        ? null : rootObjectInstance.getObjectName();
-            }
-
-            public boolean onResource(ObjectName address) {
-                count++;
-                return true;
-            }
-
-            public Integer getResult() {
-                return count;
-            }
-        }).iterate();
+        // Here we don't check access control as we don't want to pay the cost of doing RBAC
+        // checks. An mbean exists and can be in the count regardless of whether it can be addressed.
+        // We do check that the addresses correspond to a real MRR.
+        final ManagementModelIntegration.ResourceAndRegistration reg = getRootResourceAndRegistration();
+        return getObjectNameIndex(reg).getCount(reg.getRegistration());
     }
 
     Set<ObjectInstance> queryMBeans(final MBeanServer mbeanServer, final ObjectName name, final QueryExp query) {
-        Set<ObjectInstance> basic = new RootResourceIterator<Set<ObjectInstance>>(accessControlUtil, getRootResourceAndRegistration().getResource(),
-                new ObjectNameMatchResourceAction<Set<ObjectInstance>>(name) {
-
-            Set<ObjectInstance> set = new HashSet<ObjectInstance>();
-
-            @Override
-            public boolean onResource(ObjectName resourceName) {
-                if (name == null || name.apply(resourceName)) {
-                    set.add(new ObjectInstance(resourceName, CLASS_NAME));
-                }
-                return true;
-            }
-
-            @Override
-            public Set<ObjectInstance> getResult() {
-                return set;
-            }
-        }).iterate();
+        Set<ObjectInstance> basic = new HashSet<ObjectInstance>();
+        for (ObjectName resourceName : queryAccessibleNames(name)) {
+            basic.add(new ObjectInstance(resourceName, CLASS_NAME));
+        }
 
-        // Handle any 'query' outside the RootResourceIterator so if the query calls back
+        // Handle any 'query' outside the index lookup so if the query calls back
         // into us it's not a recursive kind of thing in the ModelController
         Set<ObjectInstance> result;
         if (query == null || basic.isEmpty()) {
@@ -188,26 +160,9 @@ public class ModelControllerMBeanHelper {
     }
 
     Set<ObjectName> queryNames(MBeanServer mbeanServer, final ObjectName name, final QueryExp query) {
-        Set<ObjectName> basic = new RootResourceIterator<Set<ObjectName>>(accessControlUtil, getRootResourceAndRegistration().getResource(),
-                new ObjectNameMatchResourceAction<Set<ObjectName>>(name) {
-
-            Set<ObjectName> set = new HashSet<ObjectName>();
-
-            @Override
-            public boolean onResource(ObjectName resourceName) {
-                if (name == null || name.apply(resourceName)) {
-                    set.add(resourceName);
-                }
-                return true;
-            }
-
-            @Override
-            public Set<ObjectName> getResult() {
-                return set;
-            }
-        }).iterate();
+        Set<ObjectName> basic = queryAccessibleNames(name);
 
-        // Handle any 'query' outside the RootResourceIterator so if the query calls back
+        // Handle any 'query' outside the index lookup so if the query calls back
         // into us it's not a recursive kind of thing in the ModelController
         Set<ObjectName> result;
         if (query == null || basic.isEmpty()) {
@@ -230,6 +185,51 @@ public class ModelControllerMBeanHelper {
         return result;
     }
 
+    /**
+     * Gets the names matching a pattern of the resources that the caller can address, along with all their parents.
+     */
+    private Set<ObjectName> queryAccessibleNames(final ObjectName name) {
+        final ManagementModelIntegration.ResourceAndRegistration reg = getRootResourceAndRegistration();
+        final Map<PathAddress, Boolean> accessible = new HashMap<>();
+        final Set<ObjectName> result = new HashSet<ObjectName>();
+        for (ObjectNameIndex.Node node : getObjectNameIndex(reg).query(name, reg.getRegistration())) {
+            if (isAccessible(node.getAddress(), accessible)) {
+                result.add(node.getName());
+            }
+        }
+        return result;
+    }
+
+    private boolean isAccessible(final PathAddress address, final Map<PathAddress, Boolean> accessible) {
+        Boolean result = accessible.get(address);
+        if (result == null) {
+            result = (address.size() == 0 || isAccessible(address.getParent(), accessible))
+                    && accessControlUtil.getResourceAccess(address, false).isAccessibleResource();
+            accessible.put(address, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the index of the currently published model and registrations, creating it from the previous index if
+     * necessary.
+     */
+    private ObjectNameIndex getObjectNameIndex(final ManagementModelIntegration.ResourceAndRegistration reg) {
+        // The root resource delegates to the currently published one, which navigating to the empty address returns
+        final Resource root = reg.getResource().navigate(PathAddress.EMPTY_ADDRESS);
+        ObjectNameIndex index = objectNameIndex;
+        if (index == null || !index.isFor(root)) {
+            synchronized (this) {
+                index = objectNameIndex;
+                if (index == null || !index.isFor(root)) {
+                    index = ObjectNameIndex.create(domain, root, reg.getRegistration(), this::isExcludeAddress, index);
+                    objectNameIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**  Set the mbean server on the QueryExp and try and pass back any previously set one */
     private static MBeanServer setQueryExpServer(QueryExp query, MBeanServer toSet) {
         // We assume the QueryExp is a QueryEval subclass or uses the QueryEval thread local
@@ -268,7 +268,7 @@ public class ModelControllerMBeanHelper {
         }
         // Ensure the resource is addressable; fail if not
         accessControlUtil.getResourceAccessWithInstanceNotFoundExceptionIfNotAccessible(name, address, true);
-        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, mutabilityChecker, address, getMBeanRegistration(address, reg));
+        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, mutabilityChecker, address, getMBeanRegistration(address, reg), mbeanInfoCache);
     }
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
@@ -289,12 +289,70 @@ public class ModelControllerMBeanHelper {
         }
         final ResourceAccessControl accessControl = accessControlUtil.getResourceAccessWithInstanceNotFoundExceptionIfNotAccessible(name, address, false);
         AttributeList list = new AttributeList();
-        for (String attribute : attributes) {
+        if (attributes.length == 1) {
             try {
-                list.add(new Attribute(attribute, getAttribute(reg, address, attribute, accessControl)));
+                list.add(new Attribute(attributes[0], getAttribute(reg, address, attributes[0], accessControl)));
             } catch (AttributeNotFoundException e) {
                 throw new ReflectionException(e);
             }
+            return list;
+        }
+
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final Map<String, AttributeAccess> attributeAccesses = registration.getAttributes(PathAddress.EMPTY_ADDRESS);
+        final String[] attributeNames = new String[attributes.length];
+        // Separate getAttribute calls would read the attributes before the first one that cannot be read, so read
+        // those before reporting the problem
+        int count = attributes.length;
+        ReflectionException notFound = null;
+        RuntimeException notReadable = null;
+        for (int i = 0; i < attributes.length; i++) {
+            try {
+                attributeNames[i] = findAttributeName(attributeAccesses.keySet(), attributes[i]);
+            } catch (AttributeNotFoundException e) {
+                notFound = new ReflectionException(e);
+                count = i;
+                break;
+            }
+            if (!accessControl.isReadableAttribute(attributeNames[i])) {
+                notReadable = JmxLogger.ROOT_LOGGER.notAuthorizedToReadAttribute(attributeNames[i]);
+                count = i;
+                break;
+            }
+        }
+
+        if (count > 0) {
+            // Read all the attributes with a single read-only operation, rather than executing an operation for each
+            // of them
+            ModelNode op = new ModelNode();
+            op.get(OP).set(COMPOSITE);
+            op.get(OP_ADDR).setEmptyList();
+            ModelNode steps = op.get(STEPS).setEmptyList();
+            for (int i = 0; i < count; i++) {
+                steps.add(createReadAttributeOperation(address, attributeNames[i]));
+            }
+            ModelNode result = execute(op);
+            for (int i = 0; i < count; i++) {
+                final String step = "step-" + (i + 1);
+                final String error;
+                if (result.hasDefined(RESULT, step)) {
+                    error = getFailureDescription(result.get(RESULT, step));
+                } else {
+                    // The composite operation failed before the step was executed
+                    error = getFailureDescription(result);
+                }
+                if (error != null) {
+                    throw new ReflectionException(new AttributeNotFoundException(error));
+                }
+                ModelNode attrDesc = getAttributeDescription(attributeNames[i], registration, attributeAccesses);
+                list.add(new Attribute(attributes[i], converters.fromModelNode(attrDesc, result.get(RESULT, step, RESULT))));
+            }
+        }
+        if (notFound != null) {
+            throw notFound;
+        }
+        if (notReadable != null) {
+            throw notReadable;
         }
         return list;
     }
@@ -309,11 +367,7 @@ public class ModelControllerMBeanHelper {
         }
 
 
-        ModelNode op = new ModelNode();
-        op.get(OP).set(READ_ATTRIBUTE_OPERATION);
-        op.get(OP_ADDR).set(address.toModelNode());
-        op.get(NAME).set(attributeName);
-        ModelNode result = execute(op);
+        ModelNode result = execute(createReadAttributeOperation(address, attributeName));
         String error = getFailureDescription(result);
         if (error != null) {
             throw new AttributeNotFoundException(error);
@@ -322,6 +376,14 @@ public class ModelControllerMBeanHelper {
         return converters.fromModelNode(attrDesc, result.get(RESULT));
     }
 
+    private static ModelNode createReadAttributeOperation(final PathAddress address, final String attributeName) {
+        ModelNode op = new ModelNode();
+        op.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        op.get(OP_ADDR).set(address.toModelNode());
+        op.get(NAME).set(attributeName);
+        return op;
+    }
+
     private ModelNode getAttributeDescription(String attributeName, ImmutableManagementResourceRegistration registration, Map<String, AttributeAccess> attributes) {
         AttributeAccess aa = attributes.get(attributeName);
         AttributeDefinition ad = aa.getAttributeDefinition();
@@ -623,69 +685,4 @@ public class ModelControllerMBeanHelper {
     TypeConverters getConverters() {
         return converters;
     }
-
-    private abstract class ObjectNameMatchResourceAction<T> implements ResourceAction<T> {
-
-        private final ObjectName baseName;
-        private final Map<String, String> properties;
-        private final ObjectName domainOnlyName;
-        private final boolean propertyListPattern;
-        private final ObjectNameAddressUtil.ObjectNameCreationContext creationContext = ObjectNameAddressUtil.ObjectNameCreationContext.create();
-
-        ObjectNameMatchResourceAction(ObjectName baseName) {
-            this.baseName = baseName;
-            this.properties = baseName == null ? Collections.<String, String>emptyMap() : baseName.getKeyPropertyList();
-            try {
-                this.domainOnlyName = baseName == null ? null : ObjectName.getInstance(baseName.getDomain() + ":*");
-            } catch (MalformedObjectNameException e) {
-                throw new IllegalStateException(e);
-            }
-            this.propertyListPattern = baseName != null && baseName.isPropertyListPattern();
-        }
-
-        @Override
-        public ObjectName onAddress(PathAddress address) {
-            if (isExcludeAddress(address)) {
-                return null;
-            }
-
-            ObjectName result = null;
-            ObjectName toMatch = ObjectNameAddressUtil.createObjectName(domain, address, creationContext);
-            if (baseName == null) {
-                result = toMatch;
-            } else if (address.size() == 0) {
-                // We can't compare the ObjectName properties a la the final 'else' block,
-                // because the special management=server property will not match
-                // Just confirm correct domain
-                if (domainOnlyName.apply(toMatch)) {
-                    result = toMatch;
-                }
-            } else if (!propertyListPattern && address.size() >= properties.size()) {
-                // We have same or more elements than our target has properties; let it do the match
-                if (baseName.apply(toMatch)) {
-                    result = toMatch;
-                }
-            } else {
-                // Address may be a parent of an interesting address, so see if it matches all elements it has
-                boolean matches = domainOnlyName.apply(toMatch);
-                if (matches) {
-                    for (Map.Entry<String, String> entry : toMatch.getKeyPropertyList().entrySet()) {
-
-                        String propertyValue = properties.get(entry.getKey());
-                        if ((propertyValue == null && !propertyListPattern)
-                                || (propertyValue != null
-                                        && !entry.getValue().equals(propertyValue))
-                                        && !baseName.isPropertyValuePattern(entry.getKey())) {
-                            matches = false;
-                            break;
-                        }
-                    }
-                }
-                if (matches) {
-                    result = toMatch;
-                }
-            }
-            return result;
-        }
-    }
 }
@@ -88,12 +88,14 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
         this.notificationRegistry = notificationHandlerRegistry;
 
         MutabilityChecker mutabilityChecker = MutabilityChecker.create(processType, isMasterHc);
+        // Shared so that both domains use the same resolved descriptions
+        MBeanInfoCache mbeanInfoCache = new MBeanInfoCache();
         legacyHelper = configuredDomains.getLegacyDomain() != null ?
                 new ModelControllerMBeanHelper(TypeConverters.createLegacyTypeConverters(legacyWithProperPropertyFormat),
-                        configuredDomains, configuredDomains.getLegacyDomain(), controller, mutabilityChecker, managementModelProvider) : null;
+                        configuredDomains, configuredDomains.getLegacyDomain(), controller, mutabilityChecker, managementModelProvider, mbeanInfoCache) : null;
         exprHelper = configuredDomains.getExprDomain() != null ?
                 new ModelControllerMBeanHelper(TypeConverters.createExpressionTypeConverters(), configuredDomains,
-                        configuredDomains.getExprDomain(), controller, mutabilityChecker, managementModelProvider) : null;
+                        configuredDomains.getExprDomain(), controller, mutabilityChecker, managementModelProvider, mbeanInfoCache) : null;
 
         // JMX notifications for MBean registration/unregistration are emitted by the MBeanServerDelegate and not by the
         // MBeans itself. If we have a reference on the delegate, we add a listener for any WildFly resource address
@@ -174,7 +176,7 @@ public class ModelControllerMBeanServerPlugin extends BaseMBeanServerPlugin {
             // exprHelper has the same # of mbeans as legacyHelper, so only ask for a count if we didn't already
             count = count > 0 ? count * 2 : exprHelper.getMBeanCount();
         }
-        //JmxLogger.ROOT_LOGGER.infof("Elapsed getMBeanCount time using the non-RBAC RootResourceIterator approach was %d, resulting in a count of %d", (System.nanoTime() - start), count);
+        //JmxLogger.ROOT_LOGGER.infof("Elapsed getMBeanCount time using the non-RBAC ObjectNameIndex approach was %d, resulting in a count of %d", (System.nanoTime() - start), count);
         return count;
     }
 
@@ -0,0 +1,294 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.RegistrationModificationCount;
+import org.jboss.as.controller.registry.Resource;
+
+/**
+ * An index of the {@link ObjectName}s of the resources in a published management model, so that queries do not need
+ * to walk the whole {@link Resource} tree and create an {@code ObjectName} for every resource.
+ * <p>
+ * An index is built for a particular published root resource and {@link RegistrationModificationCount registration
+ * modification count}, and is replaced when either changes. Published resources are replaced by copies rather than
+ * modified, so when a new model is published the index for it reuses every subtree of the previous index whose
+ * resource is unchanged; only the resources along the modified paths are read and have an {@code ObjectName}
+ * created. The lookup tables are still rebuilt from all the nodes of the new index, which is linear in the number of
+ * resources but cheap compared to walking the resources. Whether a resource is counted depends on the registrations,
+ * so nothing is reused once a registration has been modified. The children of resources that can change without a
+ * new model being published, i.e. those for which {@link CopyOnWriteResourceTree#hasFixedChildren(Resource)} is
+ * {@code false}, are not indexed but are read on every query.
+ * <p>
+ * Queries first narrow the candidates using the key properties of the pattern that are not themselves patterns, so
+ * their cost is mostly proportional to the size of the result.
+ *
+ * <p>Concurrency note: this class is immutable and so thread safe</p>
+ */
+final class ObjectNameIndex {
+
+    private final String domain;
+    private final Resource root;
+    private final long registrationModificationCount;
+    private final Predicate<PathAddress> excluded;
+    private final Node rootNode;
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, List<Node>> nodesByProperty = new HashMap<>();
+    private final List<Node> dynamicNodes = new ArrayList<>();
+    private int count;
+
+    private ObjectNameIndex(final String domain, final Resource root, final ImmutableManagementResourceRegistration registration,
+                            final Predicate<PathAddress> excluded, final ObjectNameIndex previous) {
+        this.domain = domain;
+        this.root = root;
+        // Read before the registrations are, so a racing modification is seen as a change by the next isFor call
+        this.registrationModificationCount = RegistrationModificationCount.get();
+        this.excluded = excluded;
+        final ObjectNameAddressUtil.ObjectNameCreationContext creationContext = ObjectNameAddressUtil.ObjectNameCreationContext.create();
+        final boolean reuse = previous != null && previous.registrationModificationCount == registrationModificationCount;
+        this.rootNode = createNode(true, root, PathAddress.EMPTY_ADDRESS, registration, creationContext,
+                reuse ? previous.rootNode : null);
+        addNodes(rootNode);
+    }
+
+    /**
+     * Creates the index of a published model.
+     *
+     * @param domain the JMX domain
+     * @param root the published root resource. Cannot be {@code null}
+     * @param registration the root resource registration
+     * @param excluded tests for addresses that, together with their children, are not exposed
+     * @param previous the index of a previously published model, whose unchanged parts are reused if no registration
+     *                 has been modified since it was created, or {@code null}
+     * @return the index
+     */
+    static ObjectNameIndex create(final String domain, final Resource root, final ImmutableManagementResourceRegistration registration,
+                                  final Predicate<PathAddress> excluded, final ObjectNameIndex previous) {
+        return new ObjectNameIndex(domain, root, registration, excluded, previous);
+    }
+
+    /**
+     * Gets whether this is the current index of the given published root resource, i.e. whether no registration has
+     * been modified since it was created.
+     *
+     * @param root the root resource
+     * @return {@code true} if this index is for {@code root} and the current registrations
+     */
+    boolean isFor(final Resource root) {
+        return this.root == root && registrationModificationCount == RegistrationModificationCount.get();
+    }
+
+    /**
+     * Gets the number of resources that have a registration, along with all their parents.
+     * <p>
+     * The count of the indexed resources is computed once, but the children of resources whose children are not
+     * indexed are walked on every call, as they can change without a new model being published. Only their addresses
+     * are checked though; no {@code ObjectName} is created for them.
+     *
+     * @param registration the root resource registration
+     * @return the count
+     */
+    int getCount(final ImmutableManagementResourceRegistration registration) {
+        int result = count;
+        for (Node node : dynamicNodes) {
+            if (node.counted) {
+                result += countDynamicChildren(node.resource, node.address, registration);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the resources whose {@code ObjectName} matches a pattern.
+     *
+     * @param pattern the pattern, or {@code null} to match all resources
+     * @param registration the root resource registration
+     * @return the matching nodes
+     */
+    List<Node> query(final ObjectName pattern, final ImmutableManagementResourceRegistration registration) {
+        final List<Node> result = new ArrayList<>();
+        for (Node node : getCandidates(pattern)) {
+            if (pattern == null || pattern.apply(node.name)) {
+                result.add(node);
+            }
+        }
+        if (!dynamicNodes.isEmpty() && (pattern == null || pattern.isDomainPattern() || pattern.getDomain().equals(domain))) {
+            final ObjectNameAddressUtil.ObjectNameCreationContext creationContext = ObjectNameAddressUtil.ObjectNameCreationContext.create();
+            final List<Node> children = new ArrayList<>();
+            for (Node node : dynamicNodes) {
+                readDynamicChildren(node, registration, creationContext, children);
+            }
+            for (Node child : children) {
+                if (pattern == null || pattern.apply(child.name)) {
+                    result.add(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<Node> getCandidates(final ObjectName pattern) {
+        if (pattern == null) {
+            return nodes;
+        }
+        if (!pattern.isDomainPattern() && !pattern.getDomain().equals(domain)) {
+            return Collections.emptyList();
+        }
+        List<Node> candidates = nodes;
+        for (Map.Entry<String, String> property : pattern.getKeyPropertyList().entrySet()) {
+            if (!pattern.isPropertyValuePattern(property.getKey())) {
+                final List<Node> matching = nodesByProperty.get(property.getKey() + '=' + property.getValue());
+                if (matching == null) {
+                    return Collections.emptyList();
+                }
+                if (matching.size() < candidates.size()) {
+                    candidates = matching;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private Node createNode(final boolean parentCounted, final Resource resource, final PathAddress address,
+                            final ImmutableManagementResourceRegistration registration,
+                            final ObjectNameAddressUtil.ObjectNameCreationContext creationContext, final Node previous) {
+        final boolean fixedChildren = CopyOnWriteResourceTree.hasFixedChildren(resource);
+        if (previous != null && previous.resource == resource && fixedChildren) {
+            // Nothing in this subtree has changed
+            return previous;
+        }
+        final ObjectName name = ObjectNameAddressUtil.createObjectName(domain, address, creationContext);
+        final boolean counted = parentCounted && registration.getSubModel(address) != null;
+        final Node node = new Node(resource, address, name, counted, !fixedChildren);
+        if (fixedChildren) {
+            for (String type : resource.getChildTypes()) {
+                // Use getChild rather than getChildren, which wraps the children, to see the actual child resources
+                for (String childName : resource.getChildrenNames(type)) {
+                    final PathElement element = PathElement.pathElement(type, childName);
+                    final Resource child = resource.getChild(element);
+                    final PathAddress childAddress = address.append(element);
+                    if (child != null && !excluded.test(childAddress)) {
+                        final Node previousChild = previous == null ? null : previous.children.get(element);
+                        node.children.put(element, createNode(counted, child, childAddress, registration, creationContext, previousChild));
+                    }
+                }
+            }
+        }
+        return node;
+    }
+
+    private void addNodes(final Node node) {
+        nodes.add(node);
+        if (node.counted) {
+            count++;
+        }
+        for (Map.Entry<String, String> property : node.name.getKeyPropertyList().entrySet()) {
+            nodesByProperty.computeIfAbsent(property.getKey() + '=' + property.getValue(), k -> new ArrayList<>()).add(node);
+        }
+        if (node.dynamic) {
+            dynamicNodes.add(node);
+        }
+        for (Node child : node.children.values()) {
+            addNodes(child);
+        }
+    }
+
+    private void readDynamicChildren(final Node node, final ImmutableManagementResourceRegistration registration,
+                                     final ObjectNameAddressUtil.ObjectNameCreationContext creationContext, final List<Node> result) {
+        for (String type : node.resource.getChildTypes()) {
+            if (node.resource.hasChildren(type)) {
+                for (Resource.ResourceEntry entry : node.resource.getChildren(type)) {
+                    final PathAddress childAddress = node.address.append(entry.getPathElement());
+                    if (!excluded.test(childAddress)) {
+                        final ObjectName name = ObjectNameAddressUtil.createObjectName(domain, childAddress, creationContext);
+                        final boolean counted = node.counted && registration.getSubModel(childAddress) != null;
+                        final Node child = new Node(entry, childAddress, name, counted, true);
+                        result.add(child);
+                        readDynamicChildren(child, registration, creationContext, result);
+                    }
+                }
+            }
+        }
+    }
+
+    private int countDynamicChildren(final Resource resource, final PathAddress address,
+                                     final ImmutableManagementResourceRegistration registration) {
+        int result = 0;
+        for (String type : resource.getChildTypes()) {
+            if (resource.hasChildren(type)) {
+                for (Resource.ResourceEntry entry : resource.getChildren(type)) {
+                    final PathAddress childAddress = address.append(entry.getPathElement());
+                    // As in readDynamicChildren, a child is only counted if it and all its parents have a registration
+                    if (!excluded.test(childAddress) && registration.getSubModel(childAddress) != null) {
+                        result += 1 + countDynamicChildren(entry, childAddress, registration);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A resource in the index.
+     */
+    static final class Node {
+        private final Resource resource;
+        private final PathAddress address;
+        private final ObjectName name;
+        // Whether the resource and all its parents have a registration
+        private final boolean counted;
+        // Whether the children of the resource are read on every query rather than indexed
+        private final boolean dynamic;
+        private final Map<PathElement, Node> children = new LinkedHashMap<>();
+
+        private Node(final Resource resource, final PathAddress address, final ObjectName name,
+                     final boolean counted, final boolean dynamic) {
+            this.resource = resource;
+            this.address = address;
+            this.name = name;
+            this.counted = counted;
+            this.dynamic = dynamic;
+        }
+
+        PathAddress getAddress() {
+            return address;
+        }
+
+        ObjectName getName() {
+            return name;
+        }
+    }
+}
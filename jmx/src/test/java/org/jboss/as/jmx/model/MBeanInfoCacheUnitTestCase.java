@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.jmx.model;
+
+import static org.jboss.as.controller.PathElement.pathElement;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanInfo;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.ProxyController.ProxyOperationControl;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link MBeanInfoCache}.
+ */
+public class MBeanInfoCacheUnitTestCase {
+
+    @Test
+    public void testInfoIsCachedPerDomainAndMutability() {
+        ManagementResourceRegistration registration = createRegistration();
+        MBeanInfoCache cache = new MBeanInfoCache();
+        AtomicInteger created = new AtomicInteger();
+
+        MBeanInfo info = getMBeanInfo(cache, registration, true, true, created);
+        Assert.assertSame(info, getMBeanInfo(cache, registration, true, true, created));
+        Assert.assertEquals(1, created.get());
+
+        Assert.assertNotSame(info, getMBeanInfo(cache, registration, false, true, created));
+        Assert.assertNotSame(info, getMBeanInfo(cache, registration, true, false, created));
+        Assert.assertEquals(3, created.get());
+    }
+
+    @Test
+    public void testRegistrationModificationDiscardsEntries() {
+        ManagementResourceRegistration registration = createRegistration();
+        MBeanInfoCache cache = new MBeanInfoCache();
+        AtomicInteger created = new AtomicInteger();
+
+        MBeanInfoCache.Entry entry = cache.getEntry(registration);
+        Assert.assertSame(entry, cache.getEntry(registration));
+        MBeanInfo info = getMBeanInfo(cache, registration, true, true, created);
+
+        registration.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("attr", ModelType.INT, true).build(), null);
+        Assert.assertNotSame(entry, cache.getEntry(registration));
+        Assert.assertNotSame(info, getMBeanInfo(cache, registration, true, true, created));
+        Assert.assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testRemoteRegistrationsAreNotCached() {
+        ManagementResourceRegistration registration = createRegistration();
+        PathAddress proxyAddress = PathAddress.pathAddress(pathElement("test"), pathElement("proxy"));
+        registration.registerProxyController(pathElement("proxy"), new ProxyController() {
+            @Override
+            public PathAddress getProxyNodeAddress() {
+                return proxyAddress;
+            }
+
+            @Override
+            public void execute(ModelNode operation, OperationMessageHandler handler, ProxyOperationControl control,
+                                OperationAttachments attachments, BlockingTimeout blockingTimeout) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        MBeanInfoCache cache = new MBeanInfoCache();
+
+        ImmutableManagementResourceRegistration child = registration.getSubModel(PathAddress.pathAddress(pathElement("proxy"), pathElement("child")));
+        Assert.assertTrue(child.isRemote());
+        Assert.assertNotSame(cache.getEntry(child), cache.getEntry(child));
+    }
+
+    private static MBeanInfo getMBeanInfo(MBeanInfoCache cache, ManagementResourceRegistration registration,
+                                          boolean legacy, boolean mutable, AtomicInteger created) {
+        return cache.getEntry(registration).getMBeanInfo(legacy, mutable, () -> {
+            created.incrementAndGet();
+            return new MBeanInfo(ModelControllerMBeanHelper.CLASS_NAME, "-", null, null, null, null);
+        });
+    }
+
+    private static ManagementResourceRegistration createRegistration() {
+        return ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(ResourceBuilder.Factory.create(pathElement("test"), NonResolvingResourceDescriptionResolver.INSTANCE).build());
+    }
+}
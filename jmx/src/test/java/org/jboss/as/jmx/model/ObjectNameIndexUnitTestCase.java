@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import static org.jboss.as.controller.PathElement.pathElement;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.registry.DelegatingResource;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ObjectNameIndex}.
+ */
+public class ObjectNameIndexUnitTestCase {
+
+    private static final String DOMAIN = "jboss.as";
+    private static final PathElement SUBSYSTEM = pathElement("subsystem", "foo");
+    private static final PathElement EXCLUDED = pathElement("subsystem", "excluded");
+    private static final PathElement UNREGISTERED = pathElement("unregistered", "one");
+
+    private ManagementResourceRegistration registration;
+
+    @Before
+    public void setUp() {
+        NonResolvingResourceDescriptionResolver resolver = NonResolvingResourceDescriptionResolver.INSTANCE;
+        registration = ManagementResourceRegistration.Factory.forProcessType(ProcessType.EMBEDDED_SERVER)
+                .createRegistration(ResourceBuilder.Factory.create(pathElement("test"), resolver).build());
+        ManagementResourceRegistration subsystem = registration.registerSubModel(new SimpleResourceDefinition(pathElement("subsystem"), resolver));
+        subsystem.registerSubModel(new SimpleResourceDefinition(pathElement("resource"), resolver));
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        Resource root = createRoot(Resource.Factory.create());
+        ObjectNameIndex index = ObjectNameIndex.create(DOMAIN, root, registration, this::isExcluded, null);
+
+        Assert.assertEquals(4, index.getCount(registration));
+        Assert.assertEquals(5, index.query(null, registration).size());
+        Assert.assertEquals(createAddresses(SUBSYSTEM, pathElement("resource", "a"), pathElement("resource", "b")),
+                getAddresses(index.query(ObjectName.getInstance(DOMAIN + ":subsystem=foo,*"), registration)));
+        Assert.assertEquals(createAddresses(pathElement("resource", "a")),
+                getAddresses(index.query(ObjectName.getInstance(DOMAIN + ":subsystem=foo,resource=a"), registration)));
+        Assert.assertEquals(createAddresses(pathElement("resource", "a"), pathElement("resource", "b")),
+                getAddresses(index.query(ObjectName.getInstance(DOMAIN + ":resource=*,*"), registration)));
+        Assert.assertTrue(index.query(ObjectName.getInstance(DOMAIN + ":subsystem=excluded"), registration).isEmpty());
+        Assert.assertTrue(index.query(ObjectName.getInstance("other:subsystem=foo,*"), registration).isEmpty());
+    }
+
+    @Test
+    public void testUnchangedSubtreesAreReused() throws Exception {
+        Resource subsystem = Resource.Factory.create();
+        Resource root = createRoot(subsystem);
+        ObjectNameIndex index = ObjectNameIndex.create(DOMAIN, root, registration, this::isExcluded, null);
+        Assert.assertTrue(index.isFor(root));
+
+        Resource newRoot = Resource.Factory.create();
+        newRoot.registerChild(SUBSYSTEM, subsystem);
+        newRoot.registerChild(pathElement("subsystem", "bar"), Resource.Factory.create());
+        ObjectNameIndex newIndex = ObjectNameIndex.create(DOMAIN, newRoot, registration, this::isExcluded, index);
+        Assert.assertTrue(newIndex.isFor(newRoot));
+        Assert.assertFalse(newIndex.isFor(root));
+
+        ObjectName pattern = ObjectName.getInstance(DOMAIN + ":subsystem=foo,resource=a");
+        Assert.assertSame(index.query(pattern, registration).get(0), newIndex.query(pattern, registration).get(0));
+        Assert.assertEquals(1, newIndex.query(ObjectName.getInstance(DOMAIN + ":subsystem=bar"), registration).size());
+        Assert.assertEquals(5, newIndex.getCount(registration));
+    }
+
+    @Test
+    public void testDynamicChildrenAreReadOnQuery() throws Exception {
+        Resource subsystem = new DelegatingResource(Resource.Factory.create());
+        Resource root = createRoot(subsystem);
+        ObjectNameIndex index = ObjectNameIndex.create(DOMAIN, root, registration, this::isExcluded, null);
+        ObjectName pattern = ObjectName.getInstance(DOMAIN + ":resource=*,*");
+        Assert.assertEquals(2, index.query(pattern, registration).size());
+
+        subsystem.registerChild(pathElement("resource", "c"), Resource.Factory.create());
+        Assert.assertEquals(3, index.query(pattern, registration).size());
+        Assert.assertEquals(5, index.getCount(registration));
+
+        subsystem.removeChild(pathElement("resource", "c"));
+        Assert.assertEquals(2, index.query(pattern, registration).size());
+        Assert.assertEquals(4, index.getCount(registration));
+    }
+
+    @Test
+    public void testRegistrationChangeInvalidatesIndex() throws Exception {
+        Resource root = createRoot(Resource.Factory.create());
+        ObjectNameIndex index = ObjectNameIndex.create(DOMAIN, root, registration, this::isExcluded, null);
+        Assert.assertEquals(4, index.getCount(registration));
+
+        registration.registerSubModel(new SimpleResourceDefinition(pathElement("unregistered"), NonResolvingResourceDescriptionResolver.INSTANCE));
+        Assert.assertFalse(index.isFor(root));
+        ObjectNameIndex newIndex = ObjectNameIndex.create(DOMAIN, root, registration, this::isExcluded, index);
+        Assert.assertTrue(newIndex.isFor(root));
+        Assert.assertEquals(5, newIndex.getCount(registration));
+    }
+
+    private Resource createRoot(Resource subsystem) {
+        Resource root = Resource.Factory.create();
+        root.registerChild(SUBSYSTEM, subsystem);
+        subsystem.registerChild(pathElement("resource", "a"), Resource.Factory.create());
+        subsystem.registerChild(pathElement("resource", "b"), Resource.Factory.create());
+        root.registerChild(EXCLUDED, Resource.Factory.create());
+        root.registerChild(UNREGISTERED, Resource.Factory.create());
+        return root;
+    }
+
+    private boolean isExcluded(PathAddress address) {
+        return address.size() == 1 && address.getElement(0).equals(EXCLUDED);
+    }
+
+    private static Set<PathAddress> getAddresses(List<ObjectNameIndex.Node> nodes) {
+        Set<PathAddress> result = new HashSet<>();
+        for (ObjectNameIndex.Node node : nodes) {
+            result.add(node.getAddress());
+        }
+        return result;
+    }
+
+    private static Set<PathAddress> createAddresses(PathElement... elements) {
+        // Addresses of the subsystem itself, or of its children
+        Set<PathAddress> result = new HashSet<>();
+        for (PathElement element : elements) {
+            result.add(element.equals(SUBSYSTEM) ? PathAddress.pathAddress(SUBSYSTEM) : PathAddress.pathAddress(SUBSYSTEM, element));
+        }
+        return result;
+    }
+}
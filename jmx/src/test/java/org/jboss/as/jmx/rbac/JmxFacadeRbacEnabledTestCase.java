@@ -25,6 +25,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.security.PrivilegedExceptionAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -40,6 +41,7 @@ import javax.management.JMRuntimeException;
 import javax.management.MBeanServer;
 import javax.management.ObjectInstance;
 import javax.management.ObjectName;
+import javax.management.ReflectionException;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractControllerService;
@@ -315,6 +317,72 @@ public class JmxFacadeRbacEnabledTestCase extends AbstractControllerTestBase {
         checkMBeanAccessSensitiveOperation(StandardRole.ADMINISTRATOR, true, true, true, true, createSensitivityConstraint("testSensitiveOperationAsAdministrator", false, true, true));
     }
 
+    @Test
+    public void testGetAttributesMatchesGetAttributeAsMonitor() throws Exception {
+        checkGetAttributesMatchesGetAttribute(StandardRole.MONITOR);
+    }
+
+    @Test
+    public void testGetAttributesMatchesGetAttributeAsAdministrator() throws Exception {
+        checkGetAttributesMatchesGetAttribute(StandardRole.ADMINISTRATOR);
+    }
+
+    private void checkGetAttributesMatchesGetAttribute(final StandardRole standardRole) throws Exception {
+        ChildResourceDefinition oneChild = new ChildResourceDefinition(ONE);
+        oneChild.addAttribute("attr1");
+        oneChild.addAttribute("attr2");
+        oneChild.addAttribute("secret", createSensitivityConstraint("testGetAttributesMatchesGetAttribute", false, true, false));
+        oneChild.addFailingAttribute("failing");
+        rootRegistration.registerSubModel(oneChild);
+        Resource resourceA = Resource.Factory.create();
+        resourceA.getModel().get("attr1").set("test-1");
+        resourceA.getModel().get("attr2").set("test-2");
+        resourceA.getModel().get("secret").set("test-secret");
+        rootResource.registerChild(ONE_A, resourceA);
+
+        final String[][] requests = {
+                {"attr1", "attr2"},
+                {"attr1", "secret", "attr2"},
+                {"attr1", "failing", "attr2"},
+                {"attr1", "missing", "attr2"},
+                {"secret", "failing"},
+                {"failing", "secret"},
+        };
+        AccessAuditContext.doAs(roleToSecurityIdentity(standardRole), null, new PrivilegedExceptionAction<Void>() {
+            @Override
+            public Void run() throws Exception {
+                for (String[] request : requests) {
+                    final String message = standardRole + " " + Arrays.toString(request);
+                    // What separate getAttribute calls read before the first failure
+                    final List<Attribute> expected = new ArrayList<>();
+                    Exception expectedFailure = null;
+                    for (String attribute : request) {
+                        try {
+                            expected.add(new Attribute(attribute, server.getAttribute(ONE_A_NAME, attribute)));
+                        } catch (Exception e) {
+                            expectedFailure = e;
+                            break;
+                        }
+                    }
+                    try {
+                        AttributeList list = server.getAttributes(ONE_A_NAME, request);
+                        Assert.assertNull(message, expectedFailure);
+                        Assert.assertEquals(message, expected, list.asList());
+                    } catch (JMRuntimeException | ReflectionException e) {
+                        Assert.assertNotNull(message, expectedFailure);
+                        Assert.assertEquals(message, getFailureType(expectedFailure), getFailureType(e));
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    private static Class<?> getFailureType(Exception e) {
+        // getAttributes reports an attribute that cannot be found or read as a ReflectionException
+        return e instanceof ReflectionException ? e.getCause().getClass() : e.getClass();
+    }
+
     private void checkMBeanAccessSensitiveOperation(final StandardRole standardRole, final boolean addressable, final boolean readable,
             final boolean writable, final boolean executable, final SensitiveTargetAccessConstraintDefinition...sensitivityConstraints) throws Exception {
         ChildResourceDefinition oneChild = new ChildResourceDefinition(ONE);
@@ -877,6 +945,7 @@ public class JmxFacadeRbacEnabledTestCase extends AbstractControllerTestBase {
     private static class ChildResourceDefinition extends TestResourceDefinition implements ResourceDefinition {
         private final List<AttributeDefinition> attributes = Collections.synchronizedList(new ArrayList<AttributeDefinition>());
         private final List<AttributeDefinition> readOnlyAttributes = Collections.synchronizedList(new ArrayList<AttributeDefinition>());
+        private final List<AttributeDefinition> failingAttributes = Collections.synchronizedList(new ArrayList<AttributeDefinition>());
         private final List<OperationDefinition> operations = Collections.synchronizedList(new ArrayList<OperationDefinition>());
 
         ChildResourceDefinition(PathElement element, AccessConstraintDefinition...constraints){
@@ -892,6 +961,10 @@ public class JmxFacadeRbacEnabledTestCase extends AbstractControllerTestBase {
             attributes.add(builder.build());
         }
 
+        void addFailingAttribute(String name) {
+            failingAttributes.add(new SimpleAttributeDefinitionBuilder(name, ModelType.STRING, true).setStorageRuntime().build());
+        }
+
         void addOperation(String name, boolean readOnly, boolean runtimeOnly, SimpleAttributeDefinition[] parameters, AccessConstraintDefinition...constraints) {
             SimpleOperationDefinitionBuilder builder = new SimpleOperationDefinitionBuilder(name, new NonResolvingResourceDescriptionResolver());
             if (constraints != null) {
@@ -919,6 +992,14 @@ public class JmxFacadeRbacEnabledTestCase extends AbstractControllerTestBase {
             for (AttributeDefinition attribute : readOnlyAttributes) {
                 resourceRegistration.registerReadOnlyAttribute(attribute, null);
             }
+            for (AttributeDefinition attribute : failingAttributes) {
+                resourceRegistration.registerReadOnlyAttribute(attribute, new OperationStepHandler() {
+                    @Override
+                    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                        throw new OperationFailedException("Cannot read " + attribute.getName());
+                    }
+                });
+            }
         }
 
         @Override
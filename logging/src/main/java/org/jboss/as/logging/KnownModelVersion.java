@@ -15,6 +15,7 @@ public enum KnownModelVersion {
     VERSION_5_0_0(ModelVersion.create(5, 0, 0), true),
     VERSION_6_0_0(ModelVersion.create(6, 0, 0), true),
     VERSION_7_0_0(ModelVersion.create(7, 0, 0), false),
+    VERSION_8_0_0(ModelVersion.create(8, 0, 0), false),
     ;
     private final ModelVersion modelVersion;
     private final boolean hasTransformers;
@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * A sparse index of the lines of a log file, which records the offset of every {@code interval}th line so that a
+ * line can be read without reading all the lines before it.
+ * <p>
+ * Log files are only ever appended to, so the index is brought up to date by scanning the bytes written since it was
+ * last updated. If the file has been rotated, i.e. it is shorter than the index, is a different file or no longer has
+ * a line feed where the index expects one, the index is rebuilt.
+ * <p>
+ * Lines are found by looking for line feed bytes, so only files in a {@link #isSupported(Charset) supported} charset
+ * can be indexed.
+ */
+final class LogFileIndex {
+
+    static final int DEFAULT_INTERVAL = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] LINE_FEED = {'\n'};
+
+    private final int interval;
+    private Object fileKey;
+    // The number of bytes scanned for line feeds
+    private long scanned;
+    // The offset after the last line feed
+    private long lastLineEnd;
+    // The number of line feeds
+    private long lineFeeds;
+    // checkpoints[i] is the offset of line i * interval
+    private long[] checkpoints = new long[16];
+    private int checkpointCount = 1;
+
+    LogFileIndex() {
+        this(DEFAULT_INTERVAL);
+    }
+
+    LogFileIndex(final int interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Checks whether files in a charset can be indexed, i.e. whether a line feed is encoded as the single byte
+     * {@code 0x0A}.
+     *
+     * @param charset the charset of the file
+     *
+     * @return {@code true} if the file can be indexed
+     */
+    static boolean isSupported(final Charset charset) {
+        // Rules out UTF-16 and UTF-32. In the other common charsets a 0x0A byte is always a line feed
+        return Arrays.equals(LINE_FEED, "\n".getBytes(charset));
+    }
+
+    int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Brings the index up to date with the file.
+     *
+     * @param path    the path of the file
+     * @param channel a channel to read the file
+     *
+     * @return the number of lines in the file, including a last line that is not terminated by a line feed
+     *
+     * @throws IOException if the file cannot be read
+     */
+    synchronized long update(final Path path, final FileChannel channel) throws IOException {
+        // The creation time is not checked, as on some file systems it changes when the file is appended to
+        final Object key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        final long size = channel.size();
+        if (size < scanned || !Objects.equals(fileKey, key) || (lastLineEnd > 0 && !isLineFeed(channel, lastLineEnd - 1))) {
+            // The file has been rotated
+            fileKey = key;
+            scanned = 0;
+            lastLineEnd = 0;
+            lineFeeds = 0;
+            checkpointCount = 1;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (scanned < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, scanned);
+            if (read <= 0) {
+                break;
+            }
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    lastLineEnd = scanned + i + 1;
+                    if (++lineFeeds % interval == 0) {
+                        addCheckpoint(lastLineEnd);
+                    }
+                }
+            }
+            scanned += read;
+        }
+        return scanned > lastLineEnd ? lineFeeds + 1 : lineFeeds;
+    }
+
+    /**
+     * Reads lines of the file, starting from the last checkpoint before the first line.
+     *
+     * @param channel a channel to read the file, which is left open
+     * @param charset the charset of the file
+     * @param from    the first line to read
+     * @param to      the line to stop reading before
+     * @param pattern the pattern the lines must contain a match for, or {@code null} to read all lines
+     *
+     * @return the lines
+     *
+     * @throws IOException if the file cannot be read
+     */
+    List<String> readLines(final FileChannel channel, final Charset charset, final long from, final long to, final Pattern pattern) throws IOException {
+        final long checkpointLine;
+        final long offset;
+        synchronized (this) {
+            final int checkpoint = (int) Math.min(from / interval, checkpointCount - 1);
+            checkpointLine = (long) checkpoint * interval;
+            offset = checkpoints[checkpoint];
+        }
+        final List<String> lines = new ArrayList<>();
+        channel.position(offset);
+        // Don't close the reader as that would close the channel
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), charset));
+        long lineNumber = checkpointLine;
+        String line;
+        while (lineNumber < to && (line = reader.readLine()) != null) {
+            if (lineNumber++ >= from && (pattern == null || pattern.matcher(line).find())) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private void addCheckpoint(final long offset) {
+        if (checkpointCount == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+        }
+        checkpoints[checkpointCount++] = offset;
+    }
+
+    private static boolean isLineFeed(final FileChannel channel, final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, position) == 1 && buffer.get(0) == '\n';
+    }
+}
@@ -30,19 +30,30 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -62,6 +73,8 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.logging.logging.LoggingLogger;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.dmr.ModelNode;
@@ -115,9 +128,12 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             .setDefaultValue(new ModelNode(true))
             .build();
 
+    private static final SimpleAttributeDefinition PATTERN = SimpleAttributeDefinitionBuilder.create("pattern", ModelType.STRING, true)
+            .build();
+
     private static final SimpleOperationDefinition READ_LOG_FILE = new SimpleOperationDefinitionBuilder("read-log-file", LoggingExtension.getResourceDescriptionResolver())
             .addAccessConstraint(VIEW_SERVER_LOGS)
-            .setParameters(ENCODING, LINES, SKIP, TAIL)
+            .setParameters(ENCODING, LINES, SKIP, TAIL, PATTERN)
             .setReplyType(ModelType.LIST)
             .setReplyValueType(ModelType.STRING)
             .setReadOnly()
@@ -135,6 +151,30 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
         this.pathManager = pathManager;
     }
 
+    /**
+     * Register the transformers for the resource.
+     *
+     * @param modelVersion          the model version we're registering
+     * @param rootResourceBuilder   the builder for the root resource
+     * @param loggingProfileBuilder the builder for the logging profile
+     */
+    static void registerTransformers(final KnownModelVersion modelVersion,
+                                     final ResourceTransformationDescriptionBuilder rootResourceBuilder,
+                                     final ResourceTransformationDescriptionBuilder loggingProfileBuilder) {
+        switch (modelVersion) {
+            case VERSION_7_0_0:
+                rejectPattern(rootResourceBuilder.addChildResource(LOG_FILE_PATH));
+                rejectPattern(loggingProfileBuilder.addChildResource(LOG_FILE_PATH));
+                break;
+        }
+    }
+
+    private static void rejectPattern(final ResourceTransformationDescriptionBuilder builder) {
+        builder.addOperationTransformationOverride(READ_LOG_FILE.getName())
+                .addRejectCheck(RejectAttributeChecker.DEFINED, PATTERN)
+                .end();
+    }
+
     @Override
     public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
         super.registerOperations(resourceRegistration);
@@ -210,12 +250,23 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
     /**
      * Reads a log file and returns the results.
      * <p/>
+     * Files are read from the nearest line recorded in a {@link LogFileIndex}, which is kept for the most recently read
+     * files, rather than from the start or the end of the file.
+     * <p/>
      * <i>Note: </i> If this operation ends up being repeatedly invoked, from the web console for instance, there could
      * be a performance impact as the model is read and processed for file names during each invocation
      */
     static class ReadLogFileOperation implements OperationStepHandler {
 
+        private static final int MAX_INDEXES = 32;
+
         private final PathManager pathManager;
+        private final Map<Path, LogFileIndex> indexes = new LinkedHashMap<Path, LogFileIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, LogFileIndex> eldest) {
+                return size() > MAX_INDEXES;
+            }
+        };
 
         private ReadLogFileOperation(final PathManager pathManager) {
             this.pathManager = pathManager;
@@ -235,6 +286,13 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             final boolean tail = TAIL.resolveModelAttribute(context, operation).asBoolean();
             final ModelNode encodingModel = ENCODING.resolveModelAttribute(context, operation);
             final String encoding = (encodingModel.isDefined() ? encodingModel.asString() : null);
+            final ModelNode patternModel = PATTERN.resolveModelAttribute(context, operation);
+            final Pattern pattern;
+            try {
+                pattern = (patternModel.isDefined() ? Pattern.compile(patternModel.asString()) : null);
+            } catch (PatternSyntaxException e) {
+                throw LoggingLogger.ROOT_LOGGER.invalidPattern(e, patternModel.asString());
+            }
             final File path = new File(pathManager.resolveRelativePathEntry(fileName, ServerEnvironment.SERVER_LOG_DIR));
 
             // The file must exist
@@ -248,7 +306,7 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
                 if (numberOfLines == 0) {
                     lines = Collections.emptyList();
                 } else {
-                    lines = readLines(path, encoding, tail, skip, numberOfLines);
+                    lines = readLines(path, encoding, tail, skip, numberOfLines, pattern);
                 }
                 final ModelNode result = context.getResult().setEmptyList();
                 for (String line : lines) {
@@ -260,7 +318,67 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
         }
 
-        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines,
+                                       final Pattern pattern) throws IOException {
+            final Charset charset;
+            try {
+                /* we should stick with the default here and not use UTF-8.
+                The encoding on the file handler does not default to UTF-8 but the system default.
+                I think here we should stick with the system default unless explicitly defined.
+                I could see a UTF-8 default possibly being problematic on IBM bases systems.
+                 */
+                charset = (encoding == null ? Charset.defaultCharset() : Charset.forName(encoding));
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(encoding);
+            }
+            // Matching lines can only be counted by reading them, so unless they are wanted from the end reading from
+            // the start is as good as it gets
+            if (!LogFileIndex.isSupported(charset) || (pattern != null && !tail)) {
+                return scanLines(file, charset, tail, skip, numberOfLines, pattern);
+            }
+            final Path path = file.toPath();
+            final LogFileIndex index;
+            synchronized (indexes) {
+                index = indexes.computeIfAbsent(path, p -> new LogFileIndex());
+            }
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final long lineCount = index.update(path, channel);
+                if (pattern == null) {
+                    final long from;
+                    final long to;
+                    if (tail) {
+                        to = lineCount - skip;
+                        from = (numberOfLines < 0 ? 0 : Math.max(0, to - numberOfLines));
+                    } else {
+                        from = skip;
+                        to = (numberOfLines < 0 ? lineCount : Math.min(lineCount, from + numberOfLines));
+                    }
+                    return (from < to ? index.readLines(channel, charset, from, to, null) : new ArrayList<>());
+                }
+                // Read back from the end, a checkpoint interval at a time, until enough matching lines are found
+                final long wanted = (numberOfLines < 0 ? Long.MAX_VALUE : (long) skip + numberOfLines);
+                final Deque<String> lines = new ArrayDeque<>();
+                long to = lineCount;
+                while (to > 0 && lines.size() < wanted) {
+                    final long from = ((to - 1) / index.getInterval()) * index.getInterval();
+                    final List<String> matching = index.readLines(channel, charset, from, to, pattern);
+                    for (ListIterator<String> iter = matching.listIterator(matching.size()); iter.hasPrevious(); ) {
+                        lines.addFirst(iter.previous());
+                    }
+                    to = from;
+                }
+                for (int i = 0; i < skip && !lines.isEmpty(); i++) {
+                    lines.removeLast();
+                }
+                while (numberOfLines >= 0 && lines.size() > numberOfLines) {
+                    lines.removeFirst();
+                }
+                return new ArrayList<>(lines);
+            }
+        }
+
+        private List<String> scanLines(final File file, final Charset charset, final boolean tail, final int skip, final int numberOfLines,
+                                       final Pattern pattern) throws IOException {
             final List<String> lines;
             if (numberOfLines < 0) {
                 lines = new ArrayList<>();
@@ -269,17 +387,13 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             }
             try (
                     final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
-                    /* we should stick with the default here and not use UTF-8.
-                    The encoding on the file handler does not default to UTF-8 but the system default.
-                    I think here we should stick with the system default unless explicitly defined.
-                    I could see a UTF-8 default possibly being problematic on IBM bases systems.
-                     */
-                    final InputStreamReader isr = (encoding == null ? new InputStreamReader(in) : new InputStreamReader(in, encoding));
+                    final InputStreamReader isr = new InputStreamReader(in, charset);
                     final BufferedReader reader = new BufferedReader(isr)
             ) {
                 int lineCount = 0;
                 String line;
                 while ((line = reader.readLine()) != null) {
+                    if (pattern != null && !pattern.matcher(line).find()) continue;
                     if (++lineCount <= skip) continue;
                     if (lines.size() == numberOfLines) break;
                     lines.add(line);
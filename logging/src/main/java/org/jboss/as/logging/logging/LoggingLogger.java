@@ -976,4 +976,15 @@ public interface LoggingLogger extends BasicLogger {
      */
     @Message(id = 93, value = "Failed to configure SSL context for %s %s.")
     OperationFailedException failedToConfigureSslContext(@Cause Throwable cause, String resourceName, String resourceValue);
+
+    /**
+     * Creates an exception indicating the pattern is not a valid regular expression.
+     *
+     * @param cause   the cause of the error
+     * @param pattern the invalid pattern
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 94, value = "Pattern '%s' is not a valid regular expression.")
+    OperationFailedException invalidPattern(@Cause Throwable cause, String pattern);
 }
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link LogFileIndex}.
+ */
+public class LogFileIndexTestCase {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("log-file-index", ".log");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReadLines() throws Exception {
+        write(0, 25, true);
+        final LogFileIndex index = new LogFileIndex(10);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Assert.assertEquals(25, index.update(file, channel));
+            Assert.assertEquals(lines(0, 3), index.readLines(channel, StandardCharsets.UTF_8, 0, 3, null));
+            Assert.assertEquals(lines(12, 15), index.readLines(channel, StandardCharsets.UTF_8, 12, 15, null));
+            Assert.assertEquals(lines(20, 25), index.readLines(channel, StandardCharsets.UTF_8, 20, 30, null));
+            Assert.assertEquals(Arrays.asList("line 5", "line 15"),
+                    index.readLines(channel, StandardCharsets.UTF_8, 0, 25, Pattern.compile("5$")));
+        }
+    }
+
+    @Test
+    public void testGrowingFile() throws Exception {
+        write(0, 15, true);
+        final LogFileIndex index = new LogFileIndex(10);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Assert.assertEquals(15, index.update(file, channel));
+            // The last line is not terminated yet
+            write(15, 23, false);
+            Assert.assertEquals(23, index.update(file, channel));
+            Assert.assertEquals(lines(19, 23), index.readLines(channel, StandardCharsets.UTF_8, 19, 23, null));
+            Files.write(file, "\r\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            Assert.assertEquals(23, index.update(file, channel));
+            Assert.assertEquals(lines(22, 23), index.readLines(channel, StandardCharsets.UTF_8, 22, 23, null));
+        }
+    }
+
+    @Test
+    public void testAppendedFileIsNotRescanned() throws Exception {
+        write(0, 25, true);
+        final LogFileIndex index = new LogFileIndex(10);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Assert.assertEquals(25, index.update(file, channel));
+            // Join the first two lines, which only a rescan of the whole file would notice
+            try (FileChannel writer = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                writer.write(ByteBuffer.wrap(new byte[] {' '}), "line 0".length());
+            }
+            write(25, 30, true);
+            Assert.assertEquals(30, index.update(file, channel));
+            Assert.assertEquals(lines(25, 30), index.readLines(channel, StandardCharsets.UTF_8, 25, 30, null));
+        }
+    }
+
+    @Test
+    public void testRotatedFile() throws Exception {
+        write(0, 25, true);
+        final LogFileIndex index = new LogFileIndex(10);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Assert.assertEquals(25, index.update(file, channel));
+        }
+        // Replace the file with a shorter one
+        Files.write(file, "rotated\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Assert.assertEquals(1, index.update(file, channel));
+            Assert.assertEquals(Arrays.asList("rotated"), index.readLines(channel, StandardCharsets.UTF_8, 0, 1, null));
+        }
+    }
+
+    @Test
+    public void testSupportedCharsets() {
+        Assert.assertTrue(LogFileIndex.isSupported(StandardCharsets.UTF_8));
+        Assert.assertTrue(LogFileIndex.isSupported(StandardCharsets.ISO_8859_1));
+        Assert.assertFalse(LogFileIndex.isSupported(StandardCharsets.UTF_16));
+        Assert.assertFalse(LogFileIndex.isSupported(StandardCharsets.UTF_16LE));
+    }
+
+    private void write(final int from, final int to, final boolean terminated) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (String line : lines(from, to)) {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(line);
+        }
+        if (terminated) {
+            sb.append('\n');
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private static List<String> lines(final int from, final int to) {
+        final List<String> result = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            result.add("line " + i);
+        }
+        return result;
+    }
+}
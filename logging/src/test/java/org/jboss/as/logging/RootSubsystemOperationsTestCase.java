@@ -122,6 +122,21 @@ public class RootSubsystemOperationsTestCase extends AbstractOperationsTestCase
         op = SubsystemOperations.createOperation("read-log-file", simpleLogAddress);
         testReadLogFile(kernelServices, op, getLogger());
 
+        // Only read the lines that match a pattern
+        op = SubsystemOperations.createOperation("read-log-file", simpleLogAddress);
+        op.get("pattern").set(msg + "4\\d");
+        op.get("lines").set(3);
+        op.get("skip").set(2);
+        result = executeOperation(kernelServices, op);
+        List<String> logLines = SubsystemOperations.readResultAsList(result);
+        assertEquals(3, logLines.size());
+        checkLogLines(logLines, 45);
+        op.get("tail").set(false);
+        result = executeOperation(kernelServices, op);
+        logLines = SubsystemOperations.readResultAsList(result);
+        assertEquals(3, logLines.size());
+        checkLogLines(logLines, 42);
+
         // Test on the logging-profile
         final ModelNode profileAddress = SUBSYSTEM_ADDRESS.append("logging-profile", "testProfile").append("log-file", "profile-simple.log").toModelNode();
         op = SubsystemOperations.createOperation("read-log-file", profileAddress);
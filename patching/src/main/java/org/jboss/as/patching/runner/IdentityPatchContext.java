@@ -814,10 +814,21 @@ class IdentityPatchContext implements PatchContentProvider {
 
         @Override
         public void invalidateRoot(final File moduleRoot) throws IOException {
+            invalidateRoot(moduleRoot, moduleInvalidations);
+        }
+
+        /**
+         * Add a root for invalidation, collecting its files in the given list rather than in the context. Unlike
+         * {@link #invalidateRoot(File)} this can be called concurrently.
+         *
+         * @param moduleRoot    the invalidation root
+         * @param invalidations the list for the files to invalidate
+         */
+        void invalidateRoot(final File moduleRoot, final List<File> invalidations) throws IOException {
             final List<File> files = listFiles(moduleRoot);
             if (files != null && files.size() > 0) {
                 for (final File file : files) {
-                    moduleInvalidations.add(file);
+                    invalidations.add(file);
                     if (mode == Mode.ROLLBACK) {
                         // For rollback we need to restore the file before calculating the hash
                         PatchModuleInvalidationUtils.processFile(null, file, mode);
@@ -826,6 +837,15 @@ class IdentityPatchContext implements PatchContentProvider {
             }
         }
 
+        /**
+         * Add the files collected by {@link #invalidateRoot(File, List)}.
+         *
+         * @param invalidations the files to invalidate
+         */
+        void addInvalidations(final List<File> invalidations) {
+            moduleInvalidations.addAll(invalidations);
+        }
+
         void prepareForPortForward(ContentItem item, String patchId) throws IOException {
             if (item.getContentType() == ContentType.MODULE) {
                 final File targetFile = delegate.getDirectoryStructure().getModulePatchDirectory(patchId);
@@ -630,29 +630,34 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
     static PatchingResult executeTasks(final IdentityPatchContext context, final IdentityPatchContext.FinalizeCallback callback) throws Exception {
         final List<PreparedTask> tasks = new ArrayList<PreparedTask>();
         final List<ContentItem> conflicts = new ArrayList<ContentItem>();
-        // Identity
-        prepareTasks(context.getIdentityEntry(), context, tasks, conflicts);
-        // Layers
-        for (final IdentityPatchContext.PatchEntry layer : context.getLayers()) {
-            prepareTasks(layer, context, tasks, conflicts);
-        }
-        // AddOns
-        for (final IdentityPatchContext.PatchEntry addOn : context.getAddOns()) {
-            prepareTasks(addOn, context, tasks, conflicts);
-        }
-        // If there were problems report them
-        if (!conflicts.isEmpty()) {
-            throw PatchLogger.ROOT_LOGGER.conflictsDetected(conflicts);
-        }
-        // Execute the tasks
-        for (final PreparedTask task : tasks) {
-            // Unless it's excluded by the user
-            final ContentItem item = task.getContentItem();
-            if (item != null && context.isExcluded(item)) {
-                continue;
+        try (final PatchingTaskRunner runner = PatchingTaskRunner.create()) {
+            // Identity
+            prepareTasks(context.getIdentityEntry(), context, runner, tasks, conflicts);
+            // Layers
+            for (final IdentityPatchContext.PatchEntry layer : context.getLayers()) {
+                prepareTasks(layer, context, runner, tasks, conflicts);
+            }
+            // AddOns
+            for (final IdentityPatchContext.PatchEntry addOn : context.getAddOns()) {
+                prepareTasks(addOn, context, runner, tasks, conflicts);
+            }
+            // If there were problems report them
+            if (!conflicts.isEmpty()) {
+                throw PatchLogger.ROOT_LOGGER.conflictsDetected(conflicts);
+            }
+            // Execute the tasks
+            final List<PatchingTask> included = new ArrayList<PatchingTask>();
+            final List<IdentityPatchContext.PatchEntry> entries = new ArrayList<IdentityPatchContext.PatchEntry>();
+            for (final PreparedTask task : tasks) {
+                // Unless it's excluded by the user
+                final ContentItem item = task.getContentItem();
+                if (item != null && context.isExcluded(item)) {
+                    continue;
+                }
+                included.add(task.task);
+                entries.add(task.entry);
             }
-            // Run the task
-            task.execute();
+            runner.execute(included, entries);
         }
         return context.finalize(callback);
     }
@@ -662,29 +667,40 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
      *
      * @param entry     the patch entry
      * @param context   the patch context
+     * @param runner    the runner to prepare the tasks
      * @param tasks     a list for prepared tasks
      * @param conflicts a list for conflicting content items
      * @throws PatchingException
      */
-    static void prepareTasks(final IdentityPatchContext.PatchEntry entry, final IdentityPatchContext context, final List<PreparedTask> tasks, final List<ContentItem> conflicts) throws PatchingException {
+    static void prepareTasks(final IdentityPatchContext.PatchEntry entry, final IdentityPatchContext context, final PatchingTaskRunner runner,
+                             final List<PreparedTask> tasks, final List<ContentItem> conflicts) throws PatchingException {
+        final List<PatchingTasks.ContentTaskDefinition> definitions = new ArrayList<PatchingTasks.ContentTaskDefinition>();
+        final List<PatchingTask> relevant = new ArrayList<PatchingTask>();
         for (final PatchingTasks.ContentTaskDefinition definition : entry.getTaskDefinitions()) {
             final PatchingTask task = createTask(definition, context, entry);
             if(!task.isRelevant(entry)) {
                 continue;
             }
-            try {
-                // backup and validate content
-                if (!task.prepare(entry) || definition.hasConflicts()) {
-                    // Unless it a content item was manually ignored (or excluded)
-                    final ContentItem item = task.getContentItem();
-                    if (!context.isIgnored(item)) {
-                        conflicts.add(item);
-                    }
+            definitions.add(definition);
+            relevant.add(task);
+        }
+        final List<Boolean> prepared;
+        try {
+            // backup and validate content
+            prepared = runner.prepare(relevant, Collections.nCopies(relevant.size(), entry));
+        } catch (IOException e) {
+            throw new PatchingException(e);
+        }
+        for (int i = 0; i < relevant.size(); i++) {
+            final PatchingTask task = relevant.get(i);
+            if (!prepared.get(i) || definitions.get(i).hasConflicts()) {
+                // Unless it a content item was manually ignored (or excluded)
+                final ContentItem item = task.getContentItem();
+                if (!context.isIgnored(item)) {
+                    conflicts.add(item);
                 }
-                tasks.add(new PreparedTask(task, entry));
-            } catch (IOException e) {
-                throw new PatchingException(e);
             }
+            tasks.add(new PreparedTask(task, entry));
         }
     }
 
@@ -716,10 +732,6 @@ class IdentityPatchRunner implements InstallationManager.ModificationCompletionC
             return task.getContentItem();
         }
 
-        protected void execute() throws IOException {
-            task.execute(entry);
-        }
-
     }
 
     static Patch loadPatchInformation(final String patchId, final InstalledImage installedImage) throws PatchingException, IOException, XMLStreamException {
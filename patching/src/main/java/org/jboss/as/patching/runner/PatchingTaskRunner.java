@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.patching.runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.patching.metadata.ContentItem;
+import org.jboss.as.patching.metadata.ContentModification;
+import org.jboss.as.patching.metadata.ContentType;
+import org.jboss.as.patching.metadata.MiscContentItem;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Runs a step of the patching tasks, i.e. preparing or executing them, with the module and bundle tasks running on a
+ * bounded pool. Modules and bundles each have their own directories, so hashing and copying their content can run
+ * concurrently, while misc files are still processed one after the other on the calling thread.
+ * <p>
+ * The changes a task records in its {@link PatchingTaskContext} are collected and only recorded in the
+ * {@link IdentityPatchContext.PatchEntry} once all tasks have completed, in the order of the tasks. So the patch
+ * history, and the order of the rollback actions, is the same as if the tasks had run one after the other. If a task
+ * fails, no more tasks are started, and the changes of all the tasks that have run are recorded before the failure of
+ * the first failed task is thrown, so that they can be undone.
+ */
+final class PatchingTaskRunner implements AutoCloseable {
+
+    /**
+     * System property for the number of threads to run module and bundle tasks on. {@code 1} runs all tasks one after
+     * the other on the calling thread.
+     */
+    static final String THREADS = "org.wildfly.patching.threads";
+
+    private final ExecutorService executor;
+
+    private PatchingTaskRunner(final int threads) {
+        if (threads > 1) {
+            final AtomicInteger count = new AtomicInteger();
+            final ThreadFactory threadFactory = r -> {
+                final Thread thread = new Thread(r, "patching-task-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = Executors.newFixedThreadPool(threads, threadFactory);
+        } else {
+            executor = null;
+        }
+    }
+
+    static PatchingTaskRunner create() {
+        final int defaultThreads = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        return create(Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(THREADS, Integer.toString(defaultThreads))));
+    }
+
+    static PatchingTaskRunner create(final int threads) {
+        return new PatchingTaskRunner(threads);
+    }
+
+    /**
+     * Prepares tasks, backing up and validating their content.
+     *
+     * @param tasks   the tasks
+     * @param entries the entry of each task
+     * @return the result of {@link PatchingTask#prepare(PatchingTaskContext)} for each task
+     * @throws IOException if a task failed
+     */
+    List<Boolean> prepare(final List<PatchingTask> tasks, final List<IdentityPatchContext.PatchEntry> entries) throws IOException {
+        return run(tasks, entries, PatchingTask::prepare);
+    }
+
+    /**
+     * Executes tasks.
+     *
+     * @param tasks   the tasks
+     * @param entries the entry of each task
+     * @throws IOException if a task failed
+     */
+    void execute(final List<PatchingTask> tasks, final List<IdentityPatchContext.PatchEntry> entries) throws IOException {
+        run(tasks, entries, (task, context) -> {
+            task.execute(context);
+            return Boolean.TRUE;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Boolean> run(final List<PatchingTask> tasks, final List<IdentityPatchContext.PatchEntry> entries, final Step step) throws IOException {
+        final int size = tasks.size();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final List<TaskContext> contexts = new ArrayList<>(size);
+        final List<Future<Boolean>> futures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final PatchingTask task = tasks.get(i);
+            final TaskContext context = new TaskContext(entries.get(i));
+            contexts.add(context);
+            final ContentItem item = task.getContentItem();
+            if (executor != null && item != null && item.getContentType() != ContentType.MISC) {
+                futures.add(executor.submit(() -> failed.get() ? null : runStep(step, task, context, failed)));
+            } else {
+                futures.add(null);
+            }
+        }
+        final List<Boolean> results = new ArrayList<>(size);
+        Throwable failure = null;
+        for (int i = 0; i < size; i++) {
+            final Future<Boolean> future = futures.get(i);
+            Boolean result = null;
+            try {
+                if (future == null) {
+                    if (!failed.get()) {
+                        result = runStep(step, tasks.get(i), contexts.get(i), failed);
+                    }
+                } else {
+                    result = future.get();
+                }
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+                failure = failure == null ? new IOException(e) : failure;
+            } catch (IOException | RuntimeException | Error e) {
+                failure = failure == null ? e : failure;
+            }
+            results.add(result);
+        }
+        for (TaskContext context : contexts) {
+            context.record();
+        }
+        if (failure != null) {
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw new IOException(failure);
+        }
+        return results;
+    }
+
+    private static Boolean runStep(final Step step, final PatchingTask task, final TaskContext context, final AtomicBoolean failed) throws IOException {
+        try {
+            return step.run(task, context);
+        } catch (IOException | RuntimeException | Error e) {
+            failed.set(true);
+            throw e;
+        }
+    }
+
+    private interface Step {
+        Boolean run(PatchingTask task, PatchingTaskContext context) throws IOException;
+    }
+
+    /**
+     * Collects the changes a task makes to its entry.
+     */
+    private static final class TaskContext implements PatchingTaskContext {
+
+        private final IdentityPatchContext.PatchEntry entry;
+        private final List<File> invalidations = new ArrayList<>();
+        private final List<ContentModification[]> changes = new ArrayList<>();
+
+        private TaskContext(final IdentityPatchContext.PatchEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Mode getCurrentMode() {
+            return entry.getCurrentMode();
+        }
+
+        @Override
+        public File getTargetFile(final ContentItem item) {
+            return entry.getTargetFile(item);
+        }
+
+        @Override
+        public File getBackupFile(final MiscContentItem item) {
+            return entry.getBackupFile(item);
+        }
+
+        @Override
+        public boolean isExcluded(final ContentItem contentItem) {
+            return entry.isExcluded(contentItem);
+        }
+
+        @Override
+        public void recordChange(final ContentModification change, final ContentModification rollbackAction) {
+            changes.add(new ContentModification[] {change, rollbackAction});
+        }
+
+        @Override
+        public void invalidateRoot(final File root) throws IOException {
+            entry.invalidateRoot(root, invalidations);
+        }
+
+        @Override
+        public File[] getTargetBundlePath() {
+            return entry.getTargetBundlePath();
+        }
+
+        @Override
+        public File[] getTargetModulePath() {
+            return entry.getTargetModulePath();
+        }
+
+        void record() {
+            entry.addInvalidations(invalidations);
+            for (ContentModification[] change : changes) {
+                entry.recordChange(change[0], change[1]);
+            }
+        }
+    }
+}
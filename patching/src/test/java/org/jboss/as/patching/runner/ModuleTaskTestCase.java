@@ -36,13 +36,19 @@ import static org.jboss.as.patching.runner.TestUtils.createPatchXMLFile;
 import static org.jboss.as.patching.runner.TestUtils.createZippedPatchFile;
 import static org.jboss.as.patching.runner.TestUtils.randomString;
 import static org.jboss.as.patching.runner.TestUtils.tree;
+import static org.junit.Assert.assertEquals;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.jboss.as.patching.Constants;
 import org.jboss.as.patching.installation.InstalledIdentity;
 import org.jboss.as.patching.metadata.ContentModification;
 import org.jboss.as.patching.metadata.Patch;
 import org.jboss.as.patching.metadata.PatchBuilder;
+import org.jboss.as.patching.metadata.PatchElementBuilder;
+import org.jboss.as.patching.metadata.PatchXml;
 import org.jboss.as.patching.tool.PatchingResult;
 import org.junit.Test;
 
@@ -160,4 +166,61 @@ public class ModuleTaskTestCase extends AbstractTaskTestCase{
         // check that the defined module is the updated one
         assertDefinedModule(modulesPatchDir, moduleName, moduleModified.getItem().getContentHash());
     }
+
+    @Test
+    public void testUpdateModulesConcurrently() throws Exception {
+        final String threads = System.setProperty(PatchingTaskRunner.THREADS, "4");
+        try {
+            File baseModuleDir = newFile(env.getInstalledImage().getModulesDir(), SYSTEM, LAYERS, BASE);
+            String patchID = randomString();
+            String baseLayerPatchID = randomString();
+            File patchDir = mkdir(tempDir, patchID);
+
+            // update modules that can be copied and hashed concurrently
+            List<ContentModification> modifications = new ArrayList<ContentModification>();
+            PatchElementBuilder elementBuilder = PatchBuilder.create()
+                    .setPatchId(patchID)
+                    .setDescription(randomString())
+                    .oneOffPatchIdentity(productConfig.getProductName(), productConfig.getProductVersion())
+                    .getParent()
+                    .oneOffPatchElement(baseLayerPatchID, BASE, false);
+            for (int i = 0; i < 20; i++) {
+                File moduleDir = createModule0(baseModuleDir, "module" + i);
+                ContentModification moduleModified = ContentModificationUtils.modifyModule(patchDir, baseLayerPatchID, moduleDir, "new resource " + i);
+                modifications.add(moduleModified);
+                elementBuilder.addContentModification(moduleModified);
+            }
+            Patch patch = elementBuilder.getParent().build();
+            createPatchXMLFile(patchDir, patch);
+            File zippedPatch = createZippedPatchFile(patchDir, patch.getPatchId());
+
+            PatchingResult result = executePatch(zippedPatch);
+            assertPatchHasBeenApplied(result, patch);
+
+            InstalledIdentity installedIdentity = loadInstalledIdentity();
+            File modulesPatchDir = installedIdentity.getLayers().get(0).loadTargetInfo().getDirectoryStructure().getModulePatchDirectory(baseLayerPatchID);
+            for (ContentModification modification : modifications) {
+                assertDefinedModule(modulesPatchDir, modification.getItem().getName(), modification.getItem().getContentHash());
+            }
+
+            // the rollback actions are in the order of the modifications
+            File rollbackXml = new File(env.getInstalledImage().getPatchHistoryDir(patchID), Constants.ROLLBACK_XML);
+            Patch rollbackPatch = PatchXml.parse(rollbackXml).resolvePatch(null, null);
+            List<String> expected = new ArrayList<String>();
+            for (ContentModification modification : modifications) {
+                expected.add(modification.getItem().getName());
+            }
+            List<String> actual = new ArrayList<String>();
+            for (ContentModification modification : rollbackPatch.getElements().get(0).getModifications()) {
+                actual.add(modification.getItem().getName());
+            }
+            assertEquals(expected, actual);
+        } finally {
+            if (threads == null) {
+                System.clearProperty(PatchingTaskRunner.THREADS);
+            } else {
+                System.setProperty(PatchingTaskRunner.THREADS, threads);
+            }
+        }
+    }
 }
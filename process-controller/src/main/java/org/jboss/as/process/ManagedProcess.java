@@ -32,7 +32,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -212,12 +211,18 @@ final class ManagedProcess {
         final OutputStream stdin = process.getOutputStream();
         final InputStream stderr = process.getErrorStream();
         final InputStream stdout = process.getInputStream();
-        final Thread stderrThread = new Thread(new ReadTask(stderr, processController.getStderr()));
-        stderrThread.setName(String.format("stderr for %s", processName));
-        stderrThread.start();
-        final Thread stdoutThread = new Thread(new ReadTask(stdout, processController.getStdout()));
-        stdoutThread.setName(String.format("stdout for %s", processName));
-        stdoutThread.start();
+        final ProcessOutputPump outputPump = processController.getOutputPump();
+        if (outputPump != null) {
+            outputPump.add(processName, process, stderr, processController.getStderr(), log);
+            outputPump.add(processName, process, stdout, processController.getStdout(), log);
+        } else {
+            final Thread stderrThread = new Thread(new ReadTask(stderr, processController.getStderr()));
+            stderrThread.setName(String.format("stderr for %s", processName));
+            stderrThread.start();
+            final Thread stdoutThread = new Thread(new ReadTask(stdout, processController.getStdout()));
+            stdoutThread.setName(String.format("stdout for %s", processName));
+            stdoutThread.start();
+        }
 
         joinThread = new Thread(new JoinTask(startTime));
         joinThread.setName(String.format("reaper for %s", processName));
@@ -458,39 +463,13 @@ final class ManagedProcess {
             final String processName = ManagedProcess.this.processName;
             try {
                 final BufferedReader reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(source), StandardCharsets.UTF_8));
-                final OutputStreamWriter writer = new OutputStreamWriter(target, StandardCharsets.UTF_8);
+                final ProcessOutputWriter writer = new ProcessOutputWriter(processName, target);
                 String s;
-                String prevEscape = "";
                 while ((s = reader.readLine()) != null) {
-                    // Has ANSI?
-                    int i = s.lastIndexOf('\033');
-                    int j = i != -1 ? s.indexOf('m', i) : 0;
-
                     synchronized (target) {
-                        writer.write('[');
-                        writer.write(processName);
-                        writer.write("] ");
-                        writer.write(prevEscape);
-                        writer.write(s);
-
-                        // Reset if there was ANSI
-                        if (j != 0 || prevEscape != "") {
-                            writer.write("\033[0m");
-                        }
-                        writer.write('\n');
+                        writer.writeLine(s);
                         writer.flush();
                     }
-
-
-                    // Remember escape code for the next line
-                    if (j != 0) {
-                        String escape = s.substring(i, j + 1);
-                        if (!"\033[0m".equals(escape)) {
-                            prevEscape = escape;
-                        } else {
-                            prevEscape = "";
-                        }
-                    }
                 }
                 source.close();
             } catch (IOException e) {
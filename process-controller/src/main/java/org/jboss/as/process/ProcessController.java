@@ -43,6 +43,7 @@ import org.jboss.as.process.logging.ProcessLogger;
 import org.jboss.as.process.protocol.Connection;
 import org.jboss.as.process.protocol.ProtocolServer;
 import org.jboss.as.process.protocol.StreamUtils;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -66,12 +67,21 @@ public final class ProcessController {
     public static final short AUTH_BYTES_LENGTH = 16;
     public static final short AUTH_BYTES_ENCODED_LENGTH = 24;
 
+    /**
+     * System property to copy the output of all managed processes from a single thread, rather than from two threads
+     * per process.
+     */
+    public static final String MULTIPLEX_OUTPUT = "jboss.process-controller.multiplex-output";
+
     private final PrintStream stdout;
     private final PrintStream stderr;
+    private final ProcessOutputPump outputPump;
 
     public ProcessController(final ProtocolServer.Configuration configuration, final PrintStream stdout, final PrintStream stderr) throws IOException {
         this.stdout = stdout;
         this.stderr = stderr;
+        this.outputPump = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(MULTIPLEX_OUTPUT, "false"))
+                ? new ProcessOutputPump() : null;
         //noinspection ThisEscapedInObjectConstruction
         configuration.setConnectionHandler(new ProcessControllerServerHandler(this));
         final ProtocolServer server = new ProtocolServer(configuration);
@@ -412,6 +422,15 @@ public final class ProcessController {
         return stderr;
     }
 
+    /**
+     * Gets the pump that copies the output of all managed processes.
+     *
+     * @return the pump, or {@code null} if each process uses its own threads
+     */
+    ProcessOutputPump getOutputPump() {
+        return outputPump;
+    }
+
     private static final class Key {
         private final byte[] authKey;
         private final int hashCode;
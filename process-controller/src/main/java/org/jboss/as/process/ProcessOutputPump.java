@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.jboss.as.process.logging.ProcessLogger;
+import org.jboss.as.process.protocol.StreamUtils;
+
+/**
+ * Copies the stdout and stderr of all managed processes to the process controller's own output from a single thread,
+ * rather than from two threads per process.
+ * <p>
+ * The pipes of a {@link Process} cannot be registered with a selector, so the thread instead polls every stream and
+ * only reads the bytes that are {@link InputStream#available() available}, which never blocks. The lines read from a
+ * stream in one pass are written to the target in one batch. The thread backs off when there is no output, up to
+ * {@link #MAX_IDLE_WAIT} ms, so output is delayed by at most that when a process starts writing again.
+ */
+final class ProcessOutputPump implements Runnable {
+
+    static final long MAX_IDLE_WAIT = 50;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private Thread thread;
+
+    /**
+     * Adds a stream of a process to copy, until the process exits and all its output has been read.
+     *
+     * @param processName the name of the process
+     * @param process the process
+     * @param source the stdout or stderr of the process
+     * @param target the stream to copy to
+     * @param log the logger of the process
+     */
+    void add(final String processName, final Process process, final InputStream source, final PrintStream target, final ProcessLogger log) {
+        sources.add(new Source(processName, process, source, new ProcessOutputWriter(processName, target), log));
+        synchronized (lock) {
+            if (thread == null) {
+                thread = new Thread(this, "process output pump");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        long wait = 1;
+        for (;;) {
+            boolean read = false;
+            for (Source source : sources) {
+                try {
+                    if (source.pump()) {
+                        read = true;
+                    }
+                } catch (RuntimeException e) {
+                    // Stop copying this stream, but keep copying the others
+                    source.fail(e);
+                }
+                if (source.isClosed()) {
+                    sources.remove(source);
+                }
+            }
+            if (read) {
+                wait = 1;
+                continue;
+            }
+            synchronized (lock) {
+                try {
+                    if (sources.isEmpty()) {
+                        // Nothing to do until a process is started
+                        lock.wait();
+                    } else {
+                        lock.wait(wait);
+                        wait = Math.min(wait * 2, MAX_IDLE_WAIT);
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private static final class Source {
+        private final String processName;
+        private final Process process;
+        private final InputStream source;
+        private final ProcessOutputWriter writer;
+        private final ProcessLogger log;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        // The start of a line that has not yet been terminated
+        private byte[] partial = new byte[0];
+        private boolean closed;
+
+        private Source(final String processName, final Process process, final InputStream source,
+                       final ProcessOutputWriter writer, final ProcessLogger log) {
+            this.processName = processName;
+            this.process = process;
+            this.source = source;
+            this.writer = writer;
+            this.log = log;
+        }
+
+        /**
+         * Reads what is available from the stream, and writes any complete lines.
+         *
+         * @return {@code true} if anything was read
+         */
+        boolean pump() {
+            try {
+                // Check whether the process is alive before reading, so that once it has exited and nothing is available
+                // all its output has been read
+                final boolean alive = process.isAlive();
+                final int available = source.available();
+                if (available == 0) {
+                    if (!alive) {
+                        close();
+                    }
+                    return false;
+                }
+                final int count = source.read(buffer, 0, Math.min(available, buffer.length));
+                if (count == -1) {
+                    close();
+                    return false;
+                }
+                writeLines(count);
+                return true;
+            } catch (IOException e) {
+                fail(e);
+                return false;
+            }
+        }
+
+        void fail(final Exception e) {
+            log.streamProcessingFailed(processName, e);
+            closed = true;
+            StreamUtils.safeClose(source);
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        private void writeLines(final int count) throws IOException {
+            final PrintStream target = writer.getTarget();
+            int start = 0;
+            synchronized (target) {
+                for (int i = 0; i < count; i++) {
+                    if (buffer[i] == '\n') {
+                        writeLine(start, i);
+                        start = i + 1;
+                    }
+                }
+                writer.flush();
+            }
+            final int length = partial.length;
+            partial = Arrays.copyOf(partial, length + count - start);
+            System.arraycopy(buffer, start, partial, length, count - start);
+        }
+
+        private void writeLine(final int start, final int end) throws IOException {
+            byte[] line = buffer;
+            int offset = start;
+            int length = end - start;
+            if (partial.length > 0) {
+                line = Arrays.copyOf(partial, partial.length + length);
+                System.arraycopy(buffer, start, line, partial.length, length);
+                offset = 0;
+                length = line.length;
+                partial = new byte[0];
+            }
+            // Treat \r\n like \n, as BufferedReader.readLine() does
+            if (length > 0 && line[offset + length - 1] == '\r') {
+                length--;
+            }
+            writer.writeLine(new String(line, offset, length, StandardCharsets.UTF_8));
+        }
+
+        private void close() throws IOException {
+            closed = true;
+            try {
+                if (partial.length > 0) {
+                    synchronized (writer.getTarget()) {
+                        writer.writeLine(new String(partial, StandardCharsets.UTF_8));
+                        writer.flush();
+                    }
+                }
+            } finally {
+                StreamUtils.safeClose(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the lines of output of a managed process to the process controller's own output, prefixed with the name of
+ * the process. Callers synchronize on the target stream, and flush, around each batch of lines.
+ */
+final class ProcessOutputWriter {
+
+    private final String processName;
+    private final PrintStream target;
+    private final OutputStreamWriter writer;
+    private String prevEscape = "";
+
+    ProcessOutputWriter(final String processName, final PrintStream target) {
+        this.processName = processName;
+        this.target = target;
+        this.writer = new OutputStreamWriter(target, StandardCharsets.UTF_8);
+    }
+
+    PrintStream getTarget() {
+        return target;
+    }
+
+    void writeLine(final String s) throws IOException {
+        assert Thread.holdsLock(target);
+        // Has ANSI? An escape without a terminating 'm' is not a colour, so is written as is
+        int i = s.lastIndexOf('\033');
+        int j = i != -1 ? s.indexOf('m', i) : -1;
+
+        writer.write('[');
+        writer.write(processName);
+        writer.write("] ");
+        writer.write(prevEscape);
+        writer.write(s);
+
+        // Reset if there was ANSI
+        if (j != -1 || !prevEscape.isEmpty()) {
+            writer.write("\033[0m");
+        }
+        writer.write('\n');
+
+        // Remember escape code for the next line
+        if (j != -1) {
+            String escape = s.substring(i, j + 1);
+            if (!"\033[0m".equals(escape)) {
+                prevEscape = escape;
+            } else {
+                prevEscape = "";
+            }
+        }
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+}
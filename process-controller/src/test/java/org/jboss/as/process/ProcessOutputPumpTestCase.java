@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.process.logging.ProcessLogger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ProcessOutputPump}.
+ */
+public class ProcessOutputPumpTestCase {
+
+    @Test
+    public void testLinesOfExitedProcesses() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream target = new PrintStream(out, true, "UTF-8");
+        ProcessOutputPump pump = new ProcessOutputPump();
+        pump.add("one", new ExitedProcess(), stream("a\nb\r\n\u00e9"), target, ProcessLogger.ROOT_LOGGER);
+        pump.add("two", new ExitedProcess(), stream("\033[31mred\nplain\n"), target, ProcessLogger.ROOT_LOGGER);
+
+        String expected = "[one] a\n[one] b\n[one] \u00e9\n";
+        String expectedTwo = "[two] \033[31mred\033[0m\n[two] \033[31mplain\033[0m\n";
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        String result;
+        do {
+            Thread.sleep(ProcessOutputPump.MAX_IDLE_WAIT);
+            synchronized (target) {
+                result = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            }
+        } while (result.length() < expected.length() + expectedTwo.length() && System.currentTimeMillis() < deadline);
+
+        // The lines of the two processes may be interleaved
+        Assert.assertEquals(expected, getLines(result, "[one]"));
+        Assert.assertEquals(expectedTwo, getLines(result, "[two]"));
+    }
+
+    @Test
+    public void testEscapeWithoutColour() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream target = new PrintStream(out, true, "UTF-8");
+        ProcessOutputPump pump = new ProcessOutputPump();
+        pump.add("one", new ExitedProcess(), stream("\033[2Jcleared\nnext\n"), target, ProcessLogger.ROOT_LOGGER);
+
+        String expected = "[one] \033[2Jcleared\n[one] next\n";
+        Assert.assertEquals(expected, await(out, target, expected.length()));
+    }
+
+    @Test
+    public void testFailingStreamDoesNotStopOthers() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream target = new PrintStream(out, true, "UTF-8");
+        ProcessOutputPump pump = new ProcessOutputPump();
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public int available() {
+                throw new IllegalStateException();
+            }
+        };
+        pump.add("one", new ExitedProcess(), failing, target, ProcessLogger.ROOT_LOGGER);
+        pump.add("two", new ExitedProcess(), stream("a\n"), target, ProcessLogger.ROOT_LOGGER);
+
+        String expected = "[two] a\n";
+        Assert.assertEquals(expected, await(out, target, expected.length()));
+    }
+
+    private static String await(ByteArrayOutputStream out, PrintStream target, int length) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        String result;
+        do {
+            Thread.sleep(ProcessOutputPump.MAX_IDLE_WAIT);
+            synchronized (target) {
+                result = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            }
+        } while (result.length() < length && System.currentTimeMillis() < deadline);
+        return result;
+    }
+
+    private static String getLines(String output, String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : output.split("\n")) {
+            if (line.startsWith(prefix)) {
+                sb.append(line).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class ExitedProcess extends Process {
+
+        @Override
+        public OutputStream getOutputStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
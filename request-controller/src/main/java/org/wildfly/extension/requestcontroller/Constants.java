@@ -30,5 +30,7 @@ package org.wildfly.extension.requestcontroller;
 interface Constants {
     String MAX_REQUESTS = "max-requests";
     String ACTIVE_REQUESTS = "active-requests";
+    String REQUEST_COUNT_CONTENTION = "request-count-contention";
+    String CONTROL_POINT_REQUEST_COUNT_CONTENTION = "control-point-request-count-contention";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
 }
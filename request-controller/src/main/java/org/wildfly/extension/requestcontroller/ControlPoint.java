@@ -21,7 +21,6 @@
  */
 package org.wildfly.extension.requestcontroller;
 
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.suspend.ServerActivityCallback;
@@ -42,7 +41,6 @@ import java.util.concurrent.Executor;
  */
 public class ControlPoint {
 
-    private static final AtomicIntegerFieldUpdater<ControlPoint> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(ControlPoint.class, "activeRequestCount");
     private static final AtomicReferenceFieldUpdater<ControlPoint, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(ControlPoint.class, ServerActivityCallback.class, "listener");
 
     private final RequestController controller;
@@ -51,10 +49,9 @@ public class ControlPoint {
     private final boolean trackIndividualControlPoints;
 
     /**
-     * The number of active requests that are using this entry point
+     * The number of active requests that are using this entry point, or {@code null} if they are not tracked
      */
-    @SuppressWarnings("unused")
-    private volatile int activeRequestCount = 0;
+    private final StripedRequestCounter activeRequestCount;
 
     /**
      * If this entry point is paused
@@ -75,6 +72,7 @@ public class ControlPoint {
         this.deployment = deployment;
         this.entryPoint = entryPoint;
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.activeRequestCount = trackIndividualControlPoints ? new StripedRequestCounter() : null;
     }
 
     public String getEntryPoint() {
@@ -98,7 +96,8 @@ public class ControlPoint {
         }
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
-        if (activeRequestCountUpdater.get(this) == 0) {
+        // We need to know exactly when the count reaches zero
+        if (activeRequestCount == null || updateRequestCounter() == 0) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -114,6 +113,23 @@ public class ControlPoint {
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
+        if (activeRequestCount != null) {
+            updateRequestCounter();
+        }
+    }
+
+    /**
+     * Applies the paused state to the request counter, which only uses stripes while we are not waiting for the count
+     * to reach zero. Control points do not limit the number of requests, that is done by the request controller.
+     *
+     * @return the number of active requests if we are waiting for it to reach zero, otherwise {@code -1}
+     */
+    private synchronized int updateRequestCounter() {
+        if (paused) {
+            return activeRequestCount.disableStriping();
+        }
+        activeRequestCount.enableStriping();
+        return -1;
     }
 
 
@@ -129,7 +145,7 @@ public class ControlPoint {
             return RunResult.REJECTED;
         }
         if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+            activeRequestCount.tryAcquire();
         }
         RunResult runResult = controller.beginRequest(false);
         if (runResult == RunResult.REJECTED) {
@@ -151,7 +167,7 @@ public class ControlPoint {
      */
     public RunResult forceBeginRequest() throws Exception {
         if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+            activeRequestCount.tryAcquire();
         }
         return controller.beginRequest(true);
     }
@@ -161,7 +177,7 @@ public class ControlPoint {
      */
     void beginExistingRequest() {
         if(trackIndividualControlPoints) {
-            activeRequestCountUpdater.incrementAndGet(this);
+            activeRequestCount.tryAcquire();
         }
     }
 
@@ -177,7 +193,8 @@ public class ControlPoint {
 
     private void decreaseRequestCount() {
         if (trackIndividualControlPoints) {
-            int result = activeRequestCountUpdater.decrementAndGet(this);
+            // If paused the count is exact, otherwise the result is -1
+            int result = activeRequestCount.release();
             if (paused && result == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
                 if (listener != null) {
@@ -233,7 +250,11 @@ public class ControlPoint {
     }
 
     public int getActiveRequestCount() {
-        return activeRequestCountUpdater.get(this);
+        return activeRequestCount == null ? 0 : activeRequestCount.getCount();
+    }
+
+    long getRequestCountContention() {
+        return activeRequestCount == null ? 0 : activeRequestCount.getContention();
     }
 
     synchronized int increaseReferenceCount() {
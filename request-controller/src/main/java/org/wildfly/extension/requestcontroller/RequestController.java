@@ -38,12 +38,10 @@ import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.TreeMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
@@ -62,12 +60,11 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Deprecated
     public static final ServiceName SERVICE_NAME = RequestControllerRootDefinition.REQUEST_CONTROLLER_CAPABILITY.getCapabilityServiceName();
 
-    private static final AtomicIntegerFieldUpdater<RequestController> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(RequestController.class, "activeRequestCount");
     private static final AtomicReferenceFieldUpdater<RequestController, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(RequestController.class, ServerActivityCallback.class, "listener");
 
     private volatile int maxRequestCount = -1;
 
-    private volatile int activeRequestCount = 0;
+    private final StripedRequestCounter activeRequestCount = new StripedRequestCounter();
 
     private volatile boolean paused = false;
 
@@ -89,7 +86,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         listener.done();
     }
 
-    private Timer timer;
+    private TimeoutWheel timeoutWheel;
 
     private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
 
@@ -105,7 +102,8 @@ public class RequestController implements Service<RequestController>, ServerActi
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
 
-        if (activeRequestCountUpdater.get(this) == 0) {
+        // We need to know exactly when the count reaches zero
+        if (updateRequestCounter() == 0) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -122,11 +120,27 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        updateRequestCounter();
+        while (!taskQueue.isEmpty() && (activeRequestCount.getCount() < maxRequestCount || maxRequestCount < 0)) {
             runQueuedTask(false);
         }
     }
 
+    /**
+     * Applies the request limit and the paused state to the request counter. Requests are counted using stripes,
+     * which enforce the limit exactly, unless we are waiting for the count to reach zero.
+     *
+     * @return the number of active requests if we are waiting for it to reach zero, otherwise {@code -1}
+     */
+    private synchronized int updateRequestCounter() {
+        activeRequestCount.setLimit(maxRequestCount);
+        if (paused) {
+            return activeRequestCount.disableStriping();
+        }
+        activeRequestCount.enableStriping();
+        return -1;
+    }
+
     /**
      * Pauses a given deployment
      *
@@ -205,20 +219,11 @@ public class RequestController implements Service<RequestController>, ServerActi
         for (ControlPoint controlPoint : entryPoints.values()) {
             eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount()));
         }
-        return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
+        return new RequestControllerState(paused, activeRequestCount.getCount(), maxRequestCount, eps);
     }
 
     RunResult beginRequest(boolean force) {
-        int maxRequests = maxRequestCount;
-        int active = activeRequestCountUpdater.get(this);
-        boolean success = false;
-        while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
-            if (activeRequestCountUpdater.compareAndSet(this, active, active + 1)) {
-                success = true;
-                break;
-            }
-            active = activeRequestCountUpdater.get(this);
-        }
+        boolean success = (!paused || force) && activeRequestCount.tryAcquire();
         if (success) {
             //re-check the paused state
             //this is necessary because there is a race between checking paused and updating active requests
@@ -240,7 +245,8 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private void decrementRequestCount() {
 
-        int result = activeRequestCountUpdater.decrementAndGet(this);
+        // If paused the count is exact, otherwise the result is -1
+        int result = activeRequestCount.release();
         if (paused) {
             if (paused && result == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
@@ -304,7 +310,8 @@ public class RequestController implements Service<RequestController>, ServerActi
      */
     public void setMaxRequestCount(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
+        updateRequestCounter();
+        while (!taskQueue.isEmpty() && (activeRequestCount.getCount() < maxRequestCount || maxRequestCount < 0)) {
             if(!runQueuedTask(false)) {
                 break;
             }
@@ -321,14 +328,15 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Override
     public void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
-        timer = new Timer();
+        timeoutWheel = new TimeoutWheel();
+        timeoutWheel.start();
     }
 
     @Override
     public void stop(StopContext stopContext) {
         shutdownControllerInjectedValue.getValue().unRegisterActivity(this);
-        timer.cancel();
-        timer = null;
+        timeoutWheel.stop();
+        timeoutWheel = null;
         while (!taskQueue.isEmpty()) {
             QueuedTask t = taskQueue.poll();
             if(t != null) {
@@ -347,7 +355,28 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     public int getActiveRequestCount() {
-        return activeRequestCount;
+        return activeRequestCount.getCount();
+    }
+
+    /**
+     * @return The number of times updating the active request count was contended by another thread
+     */
+    long getRequestCountContention() {
+        return activeRequestCount.getContention();
+    }
+
+    /**
+     * @return The number of times updating the active request count of each control point was contended by another
+     * thread, keyed by deployment and entry point, if individual control points are tracked
+     */
+    synchronized Map<String, Long> getControlPointRequestCountContention() {
+        final Map<String, Long> result = new TreeMap<>();
+        if (trackIndividualControlPoints) {
+            for (ControlPoint controlPoint : entryPoints.values()) {
+                result.put(controlPoint.getDeployment() + ":" + controlPoint.getEntryPoint(), controlPoint.getRequestCountContention());
+            }
+        }
+        return result;
     }
 
     void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
@@ -362,7 +391,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         runQueuedTask(false);
         if(queuedTask.isQueued()) {
             if(timeout > 0) {
-                timer.schedule(queuedTask, timeout);
+                timeoutWheel.schedule(queuedTask, timeout);
             }
         }
     }
@@ -448,7 +477,7 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
 
-    private static final class QueuedTask extends TimerTask {
+    private static final class QueuedTask extends TimeoutWheel.Entry implements Runnable {
 
         private final Executor executor;
         private final Runnable task;
@@ -469,6 +498,11 @@ public class RequestController implements Service<RequestController>, ServerActi
             this.forceRun = forceRun;
         }
 
+        @Override
+        void expire() {
+            run();
+        }
+
         @Override
         public void run() {
             if(state.compareAndSet(0, 2)) {
@@ -485,7 +519,7 @@ public class RequestController implements Service<RequestController>, ServerActi
 
         public boolean runRequest() {
             if(state.compareAndSet(0, 1)) {
-                cancel();
+                cancelTimeout();
                 executor.execute(new Runnable() {
                     @Override
                     public void run() {
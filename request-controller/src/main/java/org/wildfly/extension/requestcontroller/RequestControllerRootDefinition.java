@@ -35,6 +35,7 @@ import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.capability.RuntimeCapability;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
@@ -62,6 +63,15 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    static final SimpleAttributeDefinition REQUEST_COUNT_CONTENTION = SimpleAttributeDefinitionBuilder.create(Constants.REQUEST_COUNT_CONTENTION, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleMapAttributeDefinition CONTROL_POINT_REQUEST_COUNT_CONTENTION = new SimpleMapAttributeDefinition.Builder(Constants.CONTROL_POINT_REQUEST_COUNT_CONTENTION, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     static final RuntimeCapability<Void> REQUEST_CONTROLLER_CAPABILITY =
@@ -103,6 +113,9 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            RequestCountContentionReadHandler contentionHandler = new RequestCountContentionReadHandler();
+            resourceRegistration.registerMetric(REQUEST_COUNT_CONTENTION, contentionHandler);
+            resourceRegistration.registerMetric(CONTROL_POINT_REQUEST_COUNT_CONTENTION, contentionHandler);
         }
     }
 
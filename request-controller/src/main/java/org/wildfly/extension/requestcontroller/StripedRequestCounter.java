@@ -0,0 +1,238 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts active requests without every request contending on a single counter.
+ * <p/>
+ * Requests are counted using permits. Permits are reserved from a global count in batches, and each thread
+ * takes permits from, and returns them to, a stripe of free permits chosen by hashing its thread id, so the global
+ * count is only updated once per batch. The number of stripes is a power of two close to the number of CPUs, and
+ * threads whose ids map to the same stripe still contend on it. The number of active requests is the number of
+ * reserved permits less those free in the stripes.
+ * <p/>
+ * If there is a {@link #setLimit(int) limit} no more permits than the limit are ever reserved, so the number of active
+ * requests never exceeds it. The batches are smaller than without a limit, so that the permits are spread over the
+ * stripes, and a thread that cannot reserve any more permits takes a free one from another stripe before giving up,
+ * so a request is only rejected if all the permits are in use.
+ * <p/>
+ * While striping is {@link #disableStriping() disabled}, because the count needs to be observed reaching zero, all
+ * the free permits are returned to the global count, which then holds the exact number of active requests, and
+ * requests update it directly.
+ */
+final class StripedRequestCounter {
+
+    /**
+     * The number of permits a stripe reserves from the global count at a time if there is no limit
+     */
+    private static final int BATCH_SIZE = 32;
+
+    /**
+     * The distance between stripes in the array, so that each stripe has its own cache line
+     */
+    private static final int PADDING = 16;
+
+    private static final int STRIPE_COUNT = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicIntegerArray free = new AtomicIntegerArray(STRIPE_COUNT * PADDING);
+    private final LongAdder contention = new LongAdder();
+    private volatile boolean striped = true;
+    private volatile int limit = -1;
+
+    /**
+     * Attempts to begin a request.
+     *
+     * @return {@code true} if the request was counted, {@code false} if the limit has been reached
+     */
+    boolean tryAcquire() {
+        if (striped) {
+            final int index = stripeIndex();
+            if (takeFree(index)) {
+                return true;
+            }
+            final int limit = this.limit;
+            for (;;) {
+                final int current = reserved.get();
+                final int batch = limit > 0 ? Math.min(batchSize(limit), limit - current) : BATCH_SIZE;
+                if (batch > 0) {
+                    if (!reserved.compareAndSet(current, current + batch)) {
+                        contention.increment();
+                        continue;
+                    }
+                    if (batch > 1) {
+                        free.addAndGet(index, batch - 1);
+                        if (!striped || limit != this.limit) {
+                            // Striping was disabled or the limit changed concurrently, and may have missed the permits we just added
+                            drain(index);
+                        }
+                    }
+                    return true;
+                }
+                // All the permits are reserved, but some may be free in other stripes
+                for (int i = 0; i < STRIPE_COUNT; i++) {
+                    if (takeFree(i * PADDING)) {
+                        return true;
+                    }
+                }
+                if (reserved.get() == current) {
+                    return false;
+                }
+                // Permits were returned to the global count while we looked at the stripes
+            }
+        }
+        final int limit = this.limit;
+        for (;;) {
+            final int current = reserved.get();
+            if (limit > 0 && current >= limit) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            contention.increment();
+        }
+    }
+
+    /**
+     * Ends a request.
+     *
+     * @return the number of requests that remain active if striping is disabled, otherwise {@code -1}
+     */
+    int release() {
+        if (striped) {
+            final int index = stripeIndex();
+            final int available = free.incrementAndGet(index);
+            final int limit = this.limit;
+            final int batch = limit > 0 ? batchSize(limit) : BATCH_SIZE;
+            if (limit > 0 && reserved.get() > limit) {
+                // The limit was lowered below the number of reserved permits, which are returned as requests end
+                drain(index);
+            } else if (available >= 2 * batch) {
+                if (free.compareAndSet(index, available, available - batch)) {
+                    reserved.addAndGet(-batch);
+                } else {
+                    contention.increment();
+                }
+            }
+            if (striped) {
+                return -1;
+            }
+            // Striping was disabled concurrently, and may have missed the permit we just returned
+            return drain(index);
+        }
+        return reserved.decrementAndGet();
+    }
+
+    /**
+     * Sets the maximum number of active requests. If the limit is lowered below the number of active requests, the
+     * requests that are already active are not affected, but no more are counted until enough of them have ended.
+     *
+     * @param limit the maximum number of active requests, or a value less than one if there is no limit
+     */
+    void setLimit(int limit) {
+        this.limit = limit;
+        // Return the permits reserved under the old limit, so that the global count can be checked against the new one
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            drain(i * PADDING);
+        }
+    }
+
+    /**
+     * Disables striping, so that the count is exact and requests update it directly.
+     *
+     * @return the number of active requests
+     */
+    int disableStriping() {
+        striped = false;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            drain(i * PADDING);
+        }
+        return reserved.get();
+    }
+
+    void enableStriping() {
+        striped = true;
+    }
+
+    /**
+     * Gets the number of active requests. Unless striping is disabled this is only an estimate while requests
+     * are beginning or ending.
+     *
+     * @return the number of active requests
+     */
+    int getCount() {
+        int count = reserved.get();
+        if (striped) {
+            for (int i = 0; i < STRIPE_COUNT; i++) {
+                count -= free.get(i * PADDING);
+            }
+        }
+        return Math.max(count, 0);
+    }
+
+    /**
+     * Gets the number of times that updating the global count or a stripe had to be retried, or was given up, because
+     * another thread updated it at the same time.
+     *
+     * @return the number of contended updates
+     */
+    long getContention() {
+        return contention.sum();
+    }
+
+    private boolean takeFree(int index) {
+        for (int available = free.get(index); available > 0; available = free.get(index)) {
+            if (free.compareAndSet(index, available, available - 1)) {
+                return true;
+            }
+            contention.increment();
+        }
+        return false;
+    }
+
+    private int drain(int index) {
+        final int available = free.getAndSet(index, 0);
+        return available == 0 ? reserved.get() : reserved.addAndGet(-available);
+    }
+
+    /**
+     * The number of permits a stripe reserves at a time if there is a limit, which is small enough that no stripe
+     * holds on to a large share of the permits.
+     */
+    private static int batchSize(int limit) {
+        return Math.max(1, Math.min(BATCH_SIZE, limit / (2 * STRIPE_COUNT)));
+    }
+
+    /**
+     * Returns the index in {@link #free} of the current thread's stripe. Threads are assigned to stripes by their id,
+     * so a thread always uses the same stripe, but several threads may share one.
+     */
+    private static int stripeIndex() {
+        return ((int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)) * PADDING;
+    }
+}
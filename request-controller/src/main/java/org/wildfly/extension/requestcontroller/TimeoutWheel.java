@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.wildfly.extension.requestcontroller.logging.RequestControllerLogger;
+
+/**
+ * A hashed timing wheel used to expire queued requests.
+ * <p/>
+ * Scheduling and cancelling a timeout are O(1) and do not allocate, as the {@link Entry entries} themselves are
+ * linked into the wheel's buckets. A single thread advances the wheel one tick at a time and expires all of a
+ * bucket's due entries as a batch. When nothing is scheduled the thread waits rather than ticking.
+ * <p/>
+ * Timeouts are only accurate to within one tick.
+ */
+final class TimeoutWheel implements Runnable {
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int DEFAULT_BUCKET_COUNT = 512;
+
+    private final long tickNanos;
+    private final Entry[] buckets;
+    private final int mask;
+    private final long startNanos;
+    private final Thread thread;
+
+    // The following are guarded by this
+    private long currentTick;
+    private int size;
+    private boolean stopped;
+
+    TimeoutWheel() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_BUCKET_COUNT);
+    }
+
+    TimeoutWheel(long tickMillis, int bucketCount) {
+        if (tickMillis <= 0 || Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException();
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new Entry[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            // Each bucket is a circular list with a sentinel head
+            Entry head = new Entry() {
+                @Override
+                void expire() {
+                }
+            };
+            head.next = head.prev = head;
+            buckets[i] = head;
+        }
+        this.mask = bucketCount - 1;
+        this.startNanos = System.nanoTime();
+        this.thread = new Thread(this, "request-controller-timeout");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    synchronized void stop() {
+        stopped = true;
+        notifyAll();
+    }
+
+    /**
+     * Schedules an entry to {@link Entry#expire() expire} after the given timeout, unless it is
+     * {@link #cancel(Entry) cancelled} first. An entry can only be scheduled once.
+     *
+     * @param entry the entry
+     * @param timeoutMillis the timeout in milliseconds
+     */
+    synchronized void schedule(Entry entry, long timeoutMillis) {
+        if (stopped || entry.wheel != null) {
+            return;
+        }
+        long deadline = (System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) + tickNanos - 1) / tickNanos;
+        if (deadline <= currentTick) {
+            deadline = currentTick + 1;
+        }
+        entry.deadlineTick = deadline;
+        entry.wheel = this;
+        Entry head = buckets[(int) (deadline & mask)];
+        entry.prev = head.prev;
+        entry.next = head;
+        head.prev.next = entry;
+        head.prev = entry;
+        if (size++ == 0) {
+            // The thread may be idle
+            notifyAll();
+        }
+    }
+
+    /**
+     * Removes an entry from the wheel, if it has not already expired.
+     *
+     * @param entry the entry
+     */
+    synchronized void cancel(Entry entry) {
+        if (entry.next != null) {
+            unlink(entry);
+        }
+    }
+
+    @Override
+    public void run() {
+        for (;;) {
+            Entry expired = null;
+            synchronized (this) {
+                try {
+                    for (;;) {
+                        if (stopped) {
+                            return;
+                        }
+                        long nowTick = elapsedTicks();
+                        if (size == 0) {
+                            // Nothing to expire, so don't bother ticking
+                            currentTick = nowTick;
+                            wait();
+                        } else if (currentTick < nowTick) {
+                            break;
+                        } else {
+                            long waitNanos = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+                            if (waitNanos > 0) {
+                                TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                long nowTick = elapsedTicks();
+                // If we have fallen a whole revolution behind there is no need to visit any bucket more than once
+                long tick = Math.max(currentTick + 1, nowTick - mask);
+                for (; tick <= nowTick; tick++) {
+                    Entry head = buckets[(int) (tick & mask)];
+                    Entry entry = head.next;
+                    while (entry != head) {
+                        Entry next = entry.next;
+                        if (entry.deadlineTick <= nowTick) {
+                            unlink(entry);
+                            entry.nextExpired = expired;
+                            expired = entry;
+                        }
+                        entry = next;
+                    }
+                }
+                currentTick = nowTick;
+            }
+            while (expired != null) {
+                Entry entry = expired;
+                expired = entry.nextExpired;
+                entry.nextExpired = null;
+                try {
+                    entry.expire();
+                } catch (Exception e) {
+                    RequestControllerLogger.ROOT_LOGGER.failedToCancelTask(entry, e);
+                }
+            }
+        }
+    }
+
+    private long elapsedTicks() {
+        return (System.nanoTime() - startNanos) / tickNanos;
+    }
+
+    private void unlink(Entry entry) {
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.next = entry.prev = null;
+        size--;
+    }
+
+    /**
+     * An item that can be scheduled on the wheel.
+     */
+    abstract static class Entry {
+        // The following are guarded by the wheel
+        private Entry prev;
+        private Entry next;
+        private Entry nextExpired;
+        private long deadlineTick;
+        private volatile TimeoutWheel wheel;
+
+        /**
+         * Called by the wheel's thread when the timeout expires.
+         */
+        abstract void expire();
+
+        /**
+         * Removes this entry from the wheel it was scheduled on, if any.
+         */
+        final void cancelTimeout() {
+            TimeoutWheel wheel = this.wheel;
+            if (wheel != null) {
+                wheel.cancel(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link StripedRequestCounter}.
+ */
+public class StripedRequestCounterTestCase {
+
+    @Test
+    public void testStripedCount() throws Exception {
+        StripedRequestCounter counter = new StripedRequestCounter();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 10000; j++) {
+                        assertTrue(counter.tryAcquire());
+                        counter.release();
+                    }
+                    // Leave some requests active
+                    for (int j = 0; j < 5; j++) {
+                        assertTrue(counter.tryAcquire());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(40, counter.getCount());
+        assertEquals(40, counter.disableStriping());
+        for (int i = 39; i >= 0; i--) {
+            assertEquals(i, counter.release());
+        }
+    }
+
+    @Test
+    public void testLimitIsExact() {
+        StripedRequestCounter counter = new StripedRequestCounter();
+        // Permits left free in a stripe while unlimited must not count against the limit
+        assertTrue(counter.tryAcquire());
+        counter.setLimit(3);
+        for (int i = 1; i < 3; i++) {
+            assertTrue(counter.tryAcquire());
+        }
+        assertFalse(counter.tryAcquire());
+        assertEquals(3, counter.getCount());
+        counter.release();
+        assertTrue(counter.tryAcquire());
+        assertFalse(counter.tryAcquire());
+
+        // Lowering the limit does not affect active requests, but no more are counted until enough of them end
+        counter.setLimit(2);
+        assertFalse(counter.tryAcquire());
+        counter.release();
+        assertFalse(counter.tryAcquire());
+        counter.release();
+        assertTrue(counter.tryAcquire());
+        assertFalse(counter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitIsExactWhenStriped() throws Exception {
+        final int limit = 50;
+        final int threads = 8;
+        StripedRequestCounter counter = new StripedRequestCounter();
+        counter.setLimit(limit);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    // Each thread holds a few requests at a time, so that the limit is regularly reached
+                    for (int j = 0; j < 10000; j++) {
+                        int acquired = 0;
+                        while (acquired < 10 && counter.tryAcquire()) {
+                            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            acquired++;
+                        }
+                        for (; acquired > 0; acquired--) {
+                            active.decrementAndGet();
+                            counter.release();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(String.valueOf(maxActive.get()), maxActive.get() <= limit);
+        assertEquals(0, counter.getCount());
+
+        // Permits left free in the stripes of the other threads must still be usable
+        for (int i = 0; i < limit; i++) {
+            assertTrue(counter.tryAcquire());
+        }
+        assertFalse(counter.tryAcquire());
+        assertEquals(limit, counter.disableStriping());
+        assertTrue(counter.getContention() >= 0);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link TimeoutWheel}.
+ */
+public class TimeoutWheelTestCase {
+
+    private TimeoutWheel wheel;
+
+    @Before
+    public void setUp() {
+        // Few buckets, so that timeouts wrap around the wheel
+        wheel = new TimeoutWheel(5, 4);
+        wheel.start();
+    }
+
+    @After
+    public void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        CountDownLatch latch = new CountDownLatch(3);
+        for (long timeout : new long[] {1, 50, 200}) {
+            wheel.schedule(new CountingEntry(latch, new AtomicInteger()), timeout);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testNotExpiredEarly() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        wheel.schedule(new CountingEntry(latch, new AtomicInteger()), 100);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger cancelledCount = new AtomicInteger();
+        CountingEntry cancelled = new CountingEntry(new CountDownLatch(1), cancelledCount);
+        wheel.schedule(cancelled, 20);
+        cancelled.cancelTimeout();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        wheel.schedule(new CountingEntry(latch, new AtomicInteger()), 100);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, cancelledCount.get());
+    }
+
+    private static class CountingEntry extends TimeoutWheel.Entry {
+        private final CountDownLatch latch;
+        private final AtomicInteger count;
+
+        private CountingEntry(CountDownLatch latch, AtomicInteger count) {
+            this.latch = latch;
+            this.count = count;
+        }
+
+        @Override
+        void expire() {
+            count.incrementAndGet();
+            latch.countDown();
+        }
+    }
+}
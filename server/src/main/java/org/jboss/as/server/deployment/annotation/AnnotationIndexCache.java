@@ -0,0 +1,362 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.repository.HashUtil;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUtils;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.as.version.Version;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A cache of the annotation indexes of resource roots in managed deployments, stored under the server's data
+ * directory so that they survive restarts and redeploys.
+ * <p>
+ * Only resource roots within managed archive content are cached. As that content is addressed by its hash it cannot
+ * change, so an entry is keyed by the hash of the deployment content, the location of the resource root within it,
+ * the paths that are not indexed and any deployment overlays, together with the versions of Jandex and of the server
+ * that wrote it. When the cache grows beyond its maximum size the least recently used entries are removed.
+ * <p>
+ * The cache is disabled unless {@value #MAX_SIZE_PROPERTY} is set to a maximum size in bytes greater than zero.
+ */
+final class AnnotationIndexCache {
+
+    /**
+     * The maximum size of the cache in bytes. The cache is disabled by default, or if the value is zero or less.
+     */
+    static final String MAX_SIZE_PROPERTY = "org.jboss.as.server.deployment.annotation-index-cache.max-size";
+
+    private static final long DEFAULT_MAX_SIZE = 0;
+    private static final long MAX_SIZE = getMaxSize();
+    private static final String DIRECTORY_NAME = "annotation-index";
+    private static final String SUFFIX = ".idx";
+    private static final String TMP_SUFFIX = ".tmp";
+    // IndexWriter.write(Index) writes the newest index format of the Jandex in use, so its version identifies the format.
+    // null if neither the version nor a fingerprint of the Jandex classes is available, in which case the cache is disabled
+    private static final String JANDEX_VERSION = getJandexVersion();
+
+    // Guards eviction and SIZES, which may otherwise be used concurrently for deployments being deployed in parallel
+    private static final Object EVICTION_LOCK = new Object();
+    // The size of each cache directory, as of its last eviction plus the entries written since
+    private static final Map<Path, Long> SIZES = new HashMap<>();
+
+    private final Path directory;
+    private final long maxSize;
+
+    AnnotationIndexCache(final Path directory, final long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the cache to use for a deployment unit.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the cache, or {@code null} if the cache is disabled
+     */
+    static AnnotationIndexCache getCache(final DeploymentUnit deploymentUnit) {
+        if (MAX_SIZE <= 0 || JANDEX_VERSION == null) {
+            return null;
+        }
+        final PathManager pathManager = DeploymentUtils.getTopDeploymentUnit(deploymentUnit).getAttachment(Attachments.PATH_MANAGER);
+        if (pathManager == null) {
+            return null;
+        }
+        return new AnnotationIndexCache(Paths.get(pathManager.resolveRelativePathEntry(DIRECTORY_NAME, ServerEnvironment.SERVER_DATA_DIR)), MAX_SIZE);
+    }
+
+    /**
+     * Creates the key for the index of a resource root.
+     *
+     * @param deploymentUnit the deployment unit the resource root belongs to
+     * @param resourceRoot the resource root
+     * @param indexIgnorePaths the paths within the resource root that are not indexed, or {@code null}
+     * @return the key, or {@code null} if the resource root is not part of managed archive content
+     */
+    static String createKey(final DeploymentUnit deploymentUnit, final ResourceRoot resourceRoot, final Set<String> indexIgnorePaths) {
+        final DeploymentUnit top = DeploymentUtils.getTopDeploymentUnit(deploymentUnit);
+        final byte[] contentHash = top.getAttachment(Attachments.DEPLOYMENT_CONTENT_HASH);
+        final ResourceRoot deploymentRoot = top.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (contentHash == null || deploymentRoot == null) {
+            return null;
+        }
+        final VirtualFile root = resourceRoot.getRoot();
+        final String relativePath;
+        if (root.equals(deploymentRoot.getRoot())) {
+            relativePath = "";
+        } else {
+            try {
+                relativePath = root.getPathNameRelativeTo(deploymentRoot.getRoot());
+            } catch (IllegalArgumentException e) {
+                // Not part of the deployment content, e.g. an additional resource root outside of the deployment
+                return null;
+            }
+        }
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, JANDEX_VERSION);
+        update(digest, Version.AS_VERSION);
+        digest.update(contentHash);
+        update(digest, relativePath);
+        if (indexIgnorePaths != null) {
+            for (String path : new TreeSet<>(indexIgnorePaths)) {
+                update(digest, path);
+            }
+        }
+        final DeploymentOverlayIndex overlayIndex = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+        if (overlayIndex != null) {
+            final Map<String, byte[]> overlays = new TreeMap<>(overlayIndex.getOverlays(top.getName()));
+            if (deploymentUnit != top) {
+                for (Map.Entry<String, byte[]> entry : overlayIndex.getOverlays(deploymentUnit.getName()).entrySet()) {
+                    overlays.put(deploymentUnit.getName() + '/' + entry.getKey(), entry.getValue());
+                }
+            }
+            for (Map.Entry<String, byte[]> entry : overlays.entrySet()) {
+                update(digest, entry.getKey());
+                digest.update(entry.getValue());
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Reads a cached index.
+     *
+     * @param key the key
+     * @return the index, or {@code null} if it is not cached
+     */
+    Index read(final String key) {
+        final Path file = directory.resolve(key + SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            final Index index;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+                index = new IndexReader(in).read();
+            }
+            // Record the use for eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return index;
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Cannot read cached annotation index %s", file);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // ignore
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Stores an index, evicting the least recently used entries if the cache has become too large.
+     *
+     * @param key the key
+     * @param index the index
+     */
+    void write(final String key, final Index index) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, key, TMP_SUFFIX);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                new IndexWriter(out).write(index);
+            }
+            final Path file = directory.resolve(key + SUFFIX);
+            final long added = Files.size(tmp) - (Files.exists(file) ? Files.size(file) : 0);
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+            added(added);
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Cannot store annotation index in %s", directory);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Records an entry having been written, evicting entries if the cache may have become too large. The directory is
+     * only listed on the first write after a start and when the recorded size exceeds the maximum size.
+     *
+     * @param added the number of bytes the entry added to the cache
+     */
+    private void added(final long added) throws IOException {
+        synchronized (EVICTION_LOCK) {
+            final Long size = SIZES.get(directory);
+            if (size == null || size + added > maxSize) {
+                evict();
+            } else {
+                SIZES.put(directory, size + added);
+            }
+        }
+    }
+
+    void evict() throws IOException {
+        synchronized (EVICTION_LOCK) {
+            final List<Entry> entries = new ArrayList<>();
+            long size = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path file : stream) {
+                    final BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    } catch (IOException e) {
+                        // Removed concurrently
+                        continue;
+                    }
+                    entries.add(new Entry(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+                    size += attributes.size();
+                }
+            }
+            if (size <= maxSize) {
+                SIZES.put(directory, size);
+                return;
+            }
+            entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+            for (Entry entry : entries) {
+                if (size <= maxSize) {
+                    break;
+                }
+                Files.deleteIfExists(entry.file);
+                size -= entry.size;
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Evicted cached annotation index %s", entry.file);
+            }
+            SIZES.put(directory, size);
+        }
+    }
+
+    /**
+     * Gets the version of Jandex from its manifest. If the manifest has no version, as when Jandex has been repackaged,
+     * a fingerprint of the class files that read and write the index is used instead.
+     *
+     * @return the version, or {@code null} if it cannot be determined
+     */
+    private static String getJandexVersion() {
+        final String version = Index.class.getPackage().getImplementationVersion();
+        if (version != null) {
+            return version;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (Class<?> clazz : new Class<?>[] {Index.class, IndexReader.class, IndexWriter.class}) {
+                try (InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class")) {
+                    if (in == null) {
+                        return null;
+                    }
+                    final byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (Exception e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Cannot determine the version of Jandex, the annotation index cache is disabled");
+            return null;
+        }
+    }
+
+    private static long getMaxSize() {
+        final String value = System.getSecurityManager() == null ? System.getProperty(MAX_SIZE_PROPERTY)
+                : AccessController.doPrivileged((PrivilegedAction<String>) () -> System.getProperty(MAX_SIZE_PROPERTY));
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                ServerLogger.DEPLOYMENT_LOGGER.debugf("Invalid value %s for %s", value, MAX_SIZE_PROPERTY);
+            }
+        }
+        return DEFAULT_MAX_SIZE;
+    }
+
+    private static final class Entry {
+        private final Path file;
+        private final long size;
+        private final long lastUsed;
+
+        private Entry(final Path file, final long size, final long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
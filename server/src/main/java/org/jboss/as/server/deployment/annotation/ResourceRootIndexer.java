@@ -23,12 +23,24 @@
 package org.jboss.as.server.deployment.annotation;
 
 import java.io.InputStream;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
@@ -46,10 +58,100 @@ import org.jboss.vfs.util.SuffixMatchFilter;
  */
 public class ResourceRootIndexer {
 
+    /**
+     * The maximum number of resource roots that are indexed concurrently. With the default of 1 the resource roots of
+     * a deployment unit are indexed one at a time by the deployment thread. Values greater than the number of
+     * available processors are reduced to it. The threads of the pool are daemon threads that exit once they have been
+     * idle for a while, so the pool does not prevent the JVM from exiting and needs no shutdown.
+     */
+    static final String PARALLELISM_PROPERTY = "org.jboss.as.server.deployment.annotation-index.parallelism";
+
+    private static final AttachmentKey<IndexStatistics> INDEX_STATISTICS = AttachmentKey.create(IndexStatistics.class);
+    // Guards the creation of the INDEX_STATISTICS attachment, as resource roots may be indexed concurrently
+    private static final Object STATISTICS_LOCK = new Object();
+
+    /**
+     * Creates and attaches the annotation indexes of a number of resource roots that have not already been indexed.
+     * If {@value #PARALLELISM_PROPERTY} is greater than one the resource roots are indexed concurrently, on a pool of
+     * at most that many threads that is shared by all deployments.
+     *
+     * @param resourceRoots the resource roots
+     * @param deploymentUnit the deployment unit the resource roots belong to
+     */
+    public static void indexResourceRoots(final List<ResourceRoot> resourceRoots, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
+        final ForkJoinPool pool = resourceRoots.size() > 1 ? IndexingPool.POOL : null;
+        indexResourceRoots(resourceRoots, pool, resourceRoot -> indexResourceRoot(resourceRoot, deploymentUnit));
+    }
+
+    /**
+     * Applies an indexing action to a number of resource roots, either one at a time on the calling thread or
+     * concurrently on the given pool. If indexing a resource root fails the tasks that have not completed yet are
+     * cancelled and the first failure is thrown.
+     *
+     * @param resourceRoots the resource roots
+     * @param pool the pool to index the resource roots on, or {@code null} to index them on the calling thread
+     * @param indexing the action that indexes a single resource root
+     */
+    static void indexResourceRoots(final List<ResourceRoot> resourceRoots, final ForkJoinPool pool, final Indexing indexing) throws DeploymentUnitProcessingException {
+        if (pool == null) {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                indexing.index(resourceRoot);
+            }
+            return;
+        }
+        // the tasks return their failure rather than throw it, as a ForkJoinTask rethrows a copy of an exception
+        // that was thrown by another thread
+        final List<ForkJoinTask<DeploymentUnitProcessingException>> tasks = new ArrayList<>(resourceRoots.size());
+        for (final ResourceRoot resourceRoot : resourceRoots) {
+            tasks.add(pool.submit(() -> {
+                try {
+                    indexing.index(resourceRoot);
+                    return null;
+                } catch (DeploymentUnitProcessingException e) {
+                    return e;
+                } catch (RuntimeException e) {
+                    return ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(e);
+                }
+            }));
+        }
+        DeploymentUnitProcessingException failure = null;
+        for (ForkJoinTask<DeploymentUnitProcessingException> task : tasks) {
+            try {
+                if (failure == null) {
+                    failure = task.get();
+                } else {
+                    task.cancel(false);
+                }
+            } catch (ExecutionException e) {
+                failure = e.getCause() instanceof DeploymentUnitProcessingException ? (DeploymentUnitProcessingException) e.getCause()
+                        : ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     /**
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If the
+     * resource root is part of managed deployment content the index is read from, or stored in, the
+     * {@link AnnotationIndexCache persistent index cache}.
+     *
+     * @param resourceRoot the resource root
+     * @param deploymentUnit the deployment unit the resource root belongs to, or {@code null} if the index should
+     *                       not be cached
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -80,6 +182,19 @@ public class ResourceRootIndexer {
             indexIgnorePaths = null;
         }
 
+        final long start = System.nanoTime();
+        final AnnotationIndexCache cache = deploymentUnit == null ? null : AnnotationIndexCache.getCache(deploymentUnit);
+        final String cacheKey = cache == null ? null : AnnotationIndexCache.createKey(deploymentUnit, resourceRoot, indexIgnorePaths);
+        if (cacheKey != null) {
+            final Index index = cache.read(cacheKey);
+            if (index != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Read cached index for archive %s", resourceRoot.getRoot());
+                getStatistics(deploymentUnit).record(start, true);
+                return;
+            }
+        }
+
         final VirtualFile virtualFile = resourceRoot.getRoot();
         final Indexer indexer = new Indexer();
         try {
@@ -106,8 +221,92 @@ public class ResourceRootIndexer {
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (cacheKey != null) {
+                cache.write(cacheKey, index);
+            }
+            if (deploymentUnit != null) {
+                getStatistics(deploymentUnit).record(start, false);
+            }
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Logs how long it took to index the resource roots of a deployment unit.
+     *
+     * @param deploymentUnit the deployment unit
+     */
+    static void logStatistics(final DeploymentUnit deploymentUnit) {
+        final IndexStatistics statistics = deploymentUnit.getAttachment(INDEX_STATISTICS);
+        if (statistics != null) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Spent %d ms indexing %d resource roots of %s, %d of them were read from the index cache",
+                    TimeUnit.NANOSECONDS.toMillis(statistics.nanos.get()), statistics.roots.get(), deploymentUnit.getName(),
+                    statistics.cached.get());
+        }
+    }
+
+    private static IndexStatistics getStatistics(final DeploymentUnit deploymentUnit) {
+        synchronized (STATISTICS_LOCK) {
+            IndexStatistics statistics = deploymentUnit.getAttachment(INDEX_STATISTICS);
+            if (statistics == null) {
+                statistics = new IndexStatistics();
+                deploymentUnit.putAttachment(INDEX_STATISTICS, statistics);
+            }
+            return statistics;
+        }
+    }
+
+    /**
+     * Indexes a single resource root.
+     */
+    interface Indexing {
+        void index(ResourceRoot resourceRoot) throws DeploymentUnitProcessingException;
+    }
+
+    /**
+     * Holds the pool used to index resource roots concurrently, which is only created if it is needed.
+     */
+    private static final class IndexingPool {
+        static final ForkJoinPool POOL = createPool();
+
+        private static ForkJoinPool createPool() {
+            final PrivilegedAction<ForkJoinPool> action = () -> {
+                final int parallelism = Math.min(Integer.getInteger(PARALLELISM_PROPERTY, 1), Runtime.getRuntime().availableProcessors());
+                return parallelism <= 1 ? null : ResourceRootIndexer.createPool(parallelism);
+            };
+            return System.getSecurityManager() == null ? action.run() : AccessController.doPrivileged(action);
+        }
+    }
+
+    /**
+     * Creates a pool of daemon threads to index resource roots on. The pool runs its tasks in FIFO order, as they are
+     * independent and waited for in the order they were submitted.
+     *
+     * @param parallelism the number of threads of the pool
+     */
+    static ForkJoinPool createPool(final int parallelism) {
+        // the pool index of a worker is not known until it starts, so the threads are numbered as they are created
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("annotation-index-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    private static final class IndexStatistics {
+        private final AtomicInteger roots = new AtomicInteger();
+        private final AtomicInteger cached = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+
+        void record(final long start, final boolean fromCache) {
+            nanos.addAndGet(System.nanoTime() - start);
+            roots.incrementAndGet();
+            if (fromCache) {
+                cached.incrementAndGet();
+            }
+        }
+    }
 }
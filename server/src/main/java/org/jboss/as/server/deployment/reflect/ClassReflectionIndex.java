@@ -22,11 +22,14 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.invocation.proxy.MethodIdentifier;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -44,7 +47,9 @@ import static java.lang.reflect.Modifier.STATIC;
 /**
  * A short-lived index of all the declared fields and methods of a class.
  * <p/>
- * The ClassReflectionIndex is only available during the deployment.
+ * The ClassReflectionIndex is only available during the deployment. The fields, methods and constructors of the class
+ * are each only indexed when they are first requested. If they cannot be introspected, the first method that needs them
+ * throws a {@code RuntimeException} reporting the error getting reflective information for the class.
  *
  * @param <?> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -52,11 +57,9 @@ import static java.lang.reflect.Modifier.STATIC;
 public final class ClassReflectionIndex {
     private final DeploymentReflectionIndex deploymentReflectionIndex;
     private final Class<?> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<?>> constructors;
-    private final Map<ParamNameList, Constructor<?>> constructorsByTypeName;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
-    private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
+    private volatile Map<String, Field> fields;
+    private volatile Constructors constructors;
+    private volatile Methods methods;
 
     /**
      * Identity map of all methods defined by this class and its superclasses (including default methods)
@@ -64,42 +67,63 @@ public final class ClassReflectionIndex {
      */
     private volatile Set<Method> classMethods;
 
-    @SuppressWarnings({"unchecked"})
     ClassReflectionIndex(final Class<?> indexedClass, final DeploymentReflectionIndex deploymentReflectionIndex) {
         this.deploymentReflectionIndex = deploymentReflectionIndex;
         this.indexedClass = indexedClass;
-        // -- fields --
-        final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
-        for (Field field : declaredFields) {
-            field.setAccessible(true);
-            fields.put(field.getName(), field);
-        }
-        this.fields = fields;
-        // -- methods --
-        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
-        final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
-        for (Method method : declaredMethods) {
-            method.setAccessible(true);
-            addMethod(methods, method);
-            addMethodByTypeName(methodsByTypeName, method);
-        }
-
-        this.methods = methods;
-        this.methodsByTypeName = methodsByTypeName;
-        // -- constructors --
-        final Constructor<?>[] declaredConstructors = (Constructor<?>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamNameList, Constructor<?>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<?>>();
-        final Map<ParamList, Constructor<?>> constructors = new HashMap<ParamList, Constructor<?>>();
-        for (Constructor<?> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            Class<?>[] parameterTypes = constructor.getParameterTypes();
-            constructors.put(createParamList(parameterTypes), constructor);
-            constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
-        }
-        this.constructorsByTypeName = constructorsByTypeName;
-        this.constructors = constructors;
+    }
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            synchronized (this) {
+                fields = this.fields;
+                if (fields == null) {
+                    this.fields = fields = privileged(() -> {
+                        final Map<String, Field> map = new HashMap<String, Field>();
+                        for (Field field : indexedClass.getDeclaredFields()) {
+                            field.setAccessible(true);
+                            map.put(field.getName(), field);
+                        }
+                        return map;
+                    });
+                }
+            }
+        }
+        return fields;
+    }
+
+    private Methods methods() {
+        Methods methods = this.methods;
+        if (methods == null) {
+            synchronized (this) {
+                methods = this.methods;
+                if (methods == null) {
+                    this.methods = methods = privileged(() -> new Methods(indexedClass.getDeclaredMethods()));
+                }
+            }
+        }
+        return methods;
+    }
+
+    private Constructors constructors() {
+        Constructors constructors = this.constructors;
+        if (constructors == null) {
+            synchronized (this) {
+                constructors = this.constructors;
+                if (constructors == null) {
+                    this.constructors = constructors = privileged(() -> new Constructors(indexedClass.getDeclaredConstructors()));
+                }
+            }
+        }
+        return constructors;
+    }
+
+    private <T> T privileged(final PrivilegedAction<T> action) {
+        try {
+            return System.getSecurityManager() == null ? action.run() : AccessController.doPrivileged(action);
+        } catch (Throwable e) {
+            throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(indexedClass, indexedClass.getClassLoader(), e);
+        }
     }
 
     private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
@@ -177,7 +201,7 @@ public final class ClassReflectionIndex {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -186,7 +210,7 @@ public final class ClassReflectionIndex {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -198,7 +222,7 @@ public final class ClassReflectionIndex {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().methods.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -228,7 +252,7 @@ public final class ClassReflectionIndex {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(String returnType, String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().methodsByTypeName.get(name);
         if (nameMap == null) {
             return null;
         }
@@ -246,7 +270,7 @@ public final class ClassReflectionIndex {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(MethodIdentifier methodIdentifier) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(methodIdentifier.getName());
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().methodsByTypeName.get(methodIdentifier.getName());
         if (nameMap == null) {
             return null;
         }
@@ -265,7 +289,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().methods.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -284,7 +308,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methods().methodsByTypeName.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -302,7 +326,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().methods.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -321,7 +345,7 @@ public final class ClassReflectionIndex {
      * @return the (possibly empty) collection of methods with the given name and parameter count
      */
     public Collection<Method> getAllMethods(String name, int paramCount) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().methods.get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -343,7 +367,7 @@ public final class ClassReflectionIndex {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
+        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : methods().methods.entrySet()) {
             final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
             for (Map<Class<?>, Method> map : nameMap.values()) {
                 methods.addAll(map.values());
@@ -358,7 +382,7 @@ public final class ClassReflectionIndex {
      * @return the constructors
      */
     public Collection<Constructor<?>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().constructors.values());
     }
 
     /**
@@ -368,7 +392,7 @@ public final class ClassReflectionIndex {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<?> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        return constructors().constructors.get(createParamList(paramTypes));
     }
 
     /**
@@ -378,7 +402,7 @@ public final class ClassReflectionIndex {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<?> getConstructor(String... paramTypeNames) {
-        return constructorsByTypeName.get(createParamNameList(paramTypeNames));
+        return constructors().constructorsByTypeName.get(createParamNameList(paramTypeNames));
     }
 
     public Set<Method> getClassMethods() {
@@ -433,6 +457,32 @@ public final class ClassReflectionIndex {
         return Collections.newSetFromMap(new IdentityHashMap<Method, Boolean>());
     }
 
+    private static final class Methods {
+        private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
+        private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
+
+        Methods(final Method[] declaredMethods) {
+            for (Method method : declaredMethods) {
+                method.setAccessible(true);
+                addMethod(methods, method);
+                addMethodByTypeName(methodsByTypeName, method);
+            }
+        }
+    }
+
+    private static final class Constructors {
+        private final Map<ParamList, Constructor<?>> constructors = new HashMap<ParamList, Constructor<?>>();
+        private final Map<ParamNameList, Constructor<?>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<?>>();
+
+        Constructors(final Constructor<?>[] declaredConstructors) {
+            for (Constructor<?> constructor : declaredConstructors) {
+                constructor.setAccessible(true);
+                Class<?>[] parameterTypes = constructor.getParameterTypes();
+                constructors.put(createParamList(parameterTypes), constructor);
+                constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
+            }
+        }
+    }
 
     private static final class ParamList {
         private final Class<?>[] types;
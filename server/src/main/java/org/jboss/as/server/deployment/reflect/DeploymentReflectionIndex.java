@@ -22,12 +22,9 @@
 
 package org.jboss.as.server.deployment.reflect;
 
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.security.ServerPermission;
 
 /**
@@ -36,7 +33,7 @@ import org.jboss.as.server.security.ServerPermission;
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex> classes = new HashMap<Class<?>, ClassReflectionIndex>();
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex>();
 
     DeploymentReflectionIndex() {
     }
@@ -56,26 +53,21 @@ public final class DeploymentReflectionIndex {
 
     /**
      * Get the (possibly cached) index for a given class.
+     * <p>
+     * The class is not introspected by this method, so a class whose members cannot be resolved (for example because
+     * a type used in a method signature is not visible to its class loader) does not cause it to fail. Such a failure
+     * is instead reported by the first method of the returned index that needs the affected members.
      *
      * @param clazz the class
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized ClassReflectionIndex getClassIndex(Class clazz) {
-        try {
-            ClassReflectionIndex index = classes.get(clazz);
-            if (index == null) {
-                final SecurityManager sm = System.getSecurityManager();
-                if (sm == null) {
-                    index = new ClassReflectionIndex(clazz, this);
-                } else {
-                    index = AccessController.doPrivileged((PrivilegedAction<ClassReflectionIndex>) () -> new ClassReflectionIndex(clazz, this));
-                }
-                classes.put(clazz, index);
-            }
-            return index;
-        } catch (Throwable e) {
-            throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
+    public ClassReflectionIndex getClassIndex(Class clazz) {
+        ClassReflectionIndex index = classes.get(clazz);
+        if (index == null) {
+            // Creating the index is cheap, the class is only introspected when the index is used
+            index = classes.computeIfAbsent(clazz, c -> new ClassReflectionIndex(c, this));
         }
+        return index;
     }
 }
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("annotation-index");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        assertNull(cache.read("a"));
+        cache.write("a", createIndex());
+        Index index = cache.read("a");
+        assertNotNull(index);
+        assertNotNull(index.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+    }
+
+    @Test
+    public void testCorruptEntryIsDiscarded() throws IOException {
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, Long.MAX_VALUE);
+        Files.write(directory.resolve("a.idx"), new byte[] {1, 2, 3});
+        assertNull(cache.read("a"));
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws IOException {
+        Index index = createIndex();
+        new AnnotationIndexCache(directory, Long.MAX_VALUE).write("a", index);
+        long size = Files.size(directory.resolve("a.idx"));
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, size * 2);
+        cache.write("b", index);
+        // Make the entries' use times distinct
+        Files.setLastModifiedTime(directory.resolve("a.idx"), FileTime.fromMillis(System.currentTimeMillis() - 20000));
+        Files.setLastModifiedTime(directory.resolve("b.idx"), FileTime.fromMillis(System.currentTimeMillis() - 10000));
+        assertNotNull(cache.read("a"));
+
+        cache.write("c", index);
+        assertEquals(2, count());
+        assertNull(cache.read("b"));
+        assertNotNull(cache.read("a"));
+        assertNotNull(cache.read("c"));
+    }
+
+    @Test
+    public void testSizeIsTrackedAcrossWrites() throws IOException {
+        Index index = createIndex();
+        new AnnotationIndexCache(directory, Long.MAX_VALUE).write("a", index);
+        long size = Files.size(directory.resolve("a.idx"));
+        AnnotationIndexCache cache = new AnnotationIndexCache(directory, size * 2);
+        // Replacing an entry does not grow the cache
+        cache.write("a", index);
+        cache.write("a", index);
+        cache.write("b", index);
+        assertEquals(2, count());
+        for (String key : new String[] {"c", "d", "e"}) {
+            cache.write(key, index);
+            assertEquals(2, count());
+            assertNotNull(cache.read(key));
+        }
+    }
+
+    private long count() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static Index createIndex() throws IOException {
+        Indexer indexer = new Indexer();
+        try (InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream("AnnotationIndexCacheTestCase.class")) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+}
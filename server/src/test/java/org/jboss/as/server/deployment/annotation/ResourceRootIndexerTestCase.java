@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ResourceRootIndexer} indexing resource roots concurrently.
+ */
+public class ResourceRootIndexerTestCase {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = ResourceRootIndexer.createPool(2);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAllRootsAreIndexedOnThePool() throws Exception {
+        List<ResourceRoot> resourceRoots = createResourceRoots(8);
+        Set<String> indexed = ConcurrentHashMap.newKeySet();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        ResourceRootIndexer.indexResourceRoots(resourceRoots, pool, resourceRoot -> {
+            indexed.add(resourceRoot.getRootName());
+            threads.add(Thread.currentThread());
+        });
+        assertEquals(resourceRoots.size(), indexed.size());
+        assertFalse(threads.contains(Thread.currentThread()));
+        for (Thread thread : threads) {
+            // The shared pool is never shut down, so it must not keep the JVM alive
+            assertTrue(thread.getName(), thread.isDaemon());
+        }
+    }
+
+    @Test
+    public void testFailureIsPropagated() throws Exception {
+        DeploymentUnitProcessingException failure = new DeploymentUnitProcessingException("test");
+        try {
+            ResourceRootIndexer.indexResourceRoots(createResourceRoots(4), pool, resourceRoot -> {
+                if (resourceRoot.getRootName().equals("root2")) {
+                    throw failure;
+                }
+            });
+            fail("Indexing should have failed");
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(failure, e);
+        }
+
+        IllegalStateException unexpected = new IllegalStateException("test");
+        try {
+            ResourceRootIndexer.indexResourceRoots(createResourceRoots(4), pool, resourceRoot -> {
+                if (resourceRoot.getRootName().equals("root2")) {
+                    throw unexpected;
+                }
+            });
+            fail("Indexing should have failed");
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(unexpected, e.getCause());
+        }
+    }
+
+    @Test
+    public void testRemainingRootsAreCancelledAfterFailure() throws Exception {
+        // root0 fails straight away and every other root keeps a pool thread busy until it is released, so no more
+        // roots than the pool has threads can be started unless the tasks of the others are still run after the
+        // failure. The roots park rather than wait on a latch, as a pool thread that waits on a latch may run other
+        // tasks in the meantime.
+        List<ResourceRoot> resourceRoots = createResourceRoots(8);
+        DeploymentUnitProcessingException failure = new DeploymentUnitProcessingException("test");
+        AtomicBoolean released = new AtomicBoolean();
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        try {
+            ResourceRootIndexer.indexResourceRoots(resourceRoots, pool, resourceRoot -> {
+                if (resourceRoot.getRootName().equals("root0")) {
+                    throw failure;
+                }
+                started.add(resourceRoot.getRootName());
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (!released.get() && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            });
+            fail("Indexing should have failed");
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(failure, e);
+        } finally {
+            released.set(true);
+        }
+        assertTrue(pool.awaitQuiescence(10, TimeUnit.SECONDS));
+        assertTrue(started.toString(), started.size() <= pool.getParallelism());
+    }
+
+    private static List<ResourceRoot> createResourceRoots(int count) {
+        List<ResourceRoot> resourceRoots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            resourceRoots.add(new ResourceRoot("root" + i, null, null));
+        }
+        return resourceRoots;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ClassReflectionIndex}.
+ */
+public class ClassReflectionIndexTestCase {
+
+    @Test
+    public void testIndex() throws Exception {
+        DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        ClassReflectionIndex index = deploymentIndex.getClassIndex(Indexed.class);
+        assertSame(index, deploymentIndex.getClassIndex(Indexed.class));
+
+        Field field = index.getField("value");
+        assertNotNull(field);
+        assertTrue(field.isAccessible());
+        assertEquals(1, index.getFields().size());
+
+        Method method = index.getMethod(int.class, "getValue");
+        assertNotNull(method);
+        assertTrue(method.isAccessible());
+        assertSame(method, index.getMethod("int", "getValue"));
+        assertEquals(1, index.getAllMethods("getValue").size());
+
+        Constructor<?> constructor = index.getConstructor(int.class);
+        assertNotNull(constructor);
+        assertTrue(constructor.isAccessible());
+        assertSame(constructor, index.getConstructor("int"));
+        Indexed indexed = (Indexed) constructor.newInstance(5);
+        assertEquals(5, method.invoke(indexed));
+        assertEquals(5, field.get(indexed));
+    }
+
+    @Test
+    public void testMembersIndexedWhenFirstRequested() throws Exception {
+        Class<?> clazz = new HidingClassLoader().loadClass(Unresolvable.class.getName());
+        // Resolving the declared methods fails, but only the methods are introspected when they are requested
+        ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(clazz);
+        Field field = index.getField("value");
+        assertNotNull(field);
+        assertTrue(field.isAccessible());
+        assertEquals(1, index.getConstructors().size());
+    }
+
+    @Test
+    public void testErrorGettingReflectiveInformation() throws Exception {
+        Class<?> clazz = new HidingClassLoader().loadClass(Unresolvable.class.getName());
+        ClassReflectionIndex index = DeploymentReflectionIndex.create().getClassIndex(clazz);
+        // The failure is reported each time the methods are requested
+        for (int i = 0; i < 2; i++) {
+            try {
+                index.getMethods();
+                fail("Methods of " + clazz + " should not be resolvable");
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(clazz.getName()));
+                assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof NoClassDefFoundError);
+            }
+        }
+    }
+
+    public static class Indexed {
+        private final int value;
+
+        private Indexed(int value) {
+            this.value = value;
+        }
+
+        private int getValue() {
+            return value;
+        }
+    }
+
+    public static class Unresolvable {
+        private int value;
+
+        public Hidden getHidden() {
+            return null;
+        }
+    }
+
+    public static class Hidden {
+    }
+
+    /**
+     * Defines its own copy of {@link Unresolvable}, which cannot see {@link Hidden}.
+     */
+    private static class HidingClassLoader extends ClassLoader {
+
+        HidingClassLoader() {
+            super(ClassReflectionIndexTestCase.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(Hidden.class.getName())) {
+                throw new ClassNotFoundException(name);
+            }
+            if (!name.equals(Unresolvable.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    byte[] bytes = readClass(name);
+                    clazz = defineClass(name, bytes, 0, bytes.length);
+                }
+                return clazz;
+            }
+        }
+
+        private byte[] readClass(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}